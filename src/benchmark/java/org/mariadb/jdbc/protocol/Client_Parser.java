@@ -0,0 +1,45 @@
+// SPDX-License-Identifier: LGPL-2.1-or-later
+// Copyright (c) 2012-2014 Monty Program Ab
+// Copyright (c) 2015-2021 MariaDB Corporation Ab
+
+package org.mariadb.jdbc.protocol;
+
+import org.mariadb.jdbc.util.ClientParser;
+import org.openjdk.jmh.annotations.*;
+
+/** Client side prepared statement parsing benchmark */
+public class Client_Parser extends ProtocolCommon {
+
+  @State(Scope.Thread)
+  public static class MyState {
+
+    @Param({"simple", "comments", "params_100"})
+    String query;
+
+    String sql;
+
+    @Setup(Level.Trial)
+    public void setup() {
+      switch (query) {
+        case "simple":
+          sql = "SELECT * FROM t1 WHERE id = ?";
+          break;
+        case "comments":
+          sql =
+              "/* comment ? */ SELECT `a?`, 'b\\'?', \"c?\" FROM t1 -- other ?\n"
+                  + " WHERE id = ? # end of line ?\n AND val = ?";
+          break;
+        default:
+          StringBuilder sb = new StringBuilder("INSERT INTO t1 VALUES (?");
+          for (int i = 1; i < 100; i++) sb.append(",?");
+          sql = sb.append(")").toString();
+          break;
+      }
+    }
+  }
+
+  @Benchmark
+  public ClientParser parameterParts(MyState state) {
+    return ClientParser.parameterParts(state.sql, false);
+  }
+}
@@ -0,0 +1,120 @@
+// SPDX-License-Identifier: LGPL-2.1-or-later
+// Copyright (c) 2012-2014 Monty Program Ab
+// Copyright (c) 2015-2021 MariaDB Corporation Ab
+
+package org.mariadb.jdbc.protocol;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+
+/**
+ * In-process loopback server, permitting to benchmark socket read/write paths without any real
+ * server. Each accepted connection endlessly replays the same canned bytes and discards everything
+ * that client sends.
+ */
+public class LoopbackServer implements Closeable {
+
+  private final ServerSocket serverSocket;
+  private final byte[] replay;
+  private volatile boolean closed;
+
+  /**
+   * Start loopback server on an ephemeral port
+   *
+   * @param replay bytes to send in loop to each client. If empty, nothing is sent.
+   * @throws IOException if server socket cannot be bound
+   */
+  public LoopbackServer(byte[] replay) throws IOException {
+    this.replay = replay;
+    this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+    Thread acceptor = new Thread(this::acceptLoop, "loopback-server-acceptor");
+    acceptor.setDaemon(true);
+    acceptor.start();
+  }
+
+  /**
+   * Create a connected client socket.
+   *
+   * @return client socket
+   * @throws IOException if socket cannot connect
+   */
+  public Socket connect() throws IOException {
+    Socket socket = new Socket(InetAddress.getLoopbackAddress(), serverSocket.getLocalPort());
+    socket.setTcpNoDelay(true);
+    return socket;
+  }
+
+  /**
+   * Build a replay buffer of consecutive MySQL packets of indicated payload length.
+   *
+   * @param payloadLength packet payload length (must be less than 16M)
+   * @param packetNumber number of packets
+   * @return raw bytes
+   */
+  public static byte[] packets(int payloadLength, int packetNumber) {
+    byte[] raw = new byte[(payloadLength + 4) * packetNumber];
+    int pos = 0;
+    for (int i = 0; i < packetNumber; i++) {
+      raw[pos++] = (byte) payloadLength;
+      raw[pos++] = (byte) (payloadLength >>> 8);
+      raw[pos++] = (byte) (payloadLength >>> 16);
+      raw[pos++] = (byte) i;
+      for (int j = 0; j < payloadLength; j++) {
+        raw[pos++] = (byte) ('a' + j % 26);
+      }
+    }
+    return raw;
+  }
+
+  private void acceptLoop() {
+    while (!closed) {
+      try {
+        Socket socket = serverSocket.accept();
+        socket.setTcpNoDelay(true);
+        start("loopback-server-drain", () -> drain(socket));
+        if (replay.length > 0) start("loopback-server-replay", () -> replay(socket));
+      } catch (IOException e) {
+        // server socket closed
+      }
+    }
+  }
+
+  private static void start(String name, Runnable runnable) {
+    Thread thread = new Thread(runnable, name);
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  private void drain(Socket socket) {
+    byte[] buf = new byte[16384];
+    try (InputStream in = socket.getInputStream()) {
+      while (in.read(buf) >= 0) {
+        // discard
+      }
+    } catch (IOException e) {
+      // client disconnected
+    }
+  }
+
+  private void replay(Socket socket) {
+    try {
+      OutputStream out = socket.getOutputStream();
+      while (!closed) {
+        out.write(replay);
+      }
+    } catch (IOException e) {
+      // client disconnected
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    closed = true;
+    serverSocket.close();
+  }
+}
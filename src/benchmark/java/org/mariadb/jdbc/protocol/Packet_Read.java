@@ -0,0 +1,62 @@
+// SPDX-License-Identifier: LGPL-2.1-or-later
+// Copyright (c) 2012-2014 Monty Program Ab
+// Copyright (c) 2015-2021 MariaDB Corporation Ab
+
+package org.mariadb.jdbc.protocol;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.net.Socket;
+import org.mariadb.jdbc.Configuration;
+import org.mariadb.jdbc.client.ReadableByteBuf;
+import org.mariadb.jdbc.client.socket.impl.PacketReader;
+import org.mariadb.jdbc.client.util.MutableByte;
+import org.openjdk.jmh.annotations.*;
+
+/** PacketReader benchmarks, reading packets of fixed size replayed by a {@link LoopbackServer} */
+public class Packet_Read extends ProtocolCommon {
+
+  @State(Scope.Thread)
+  public static class MyState {
+
+    @Param({"16", "512", "4096", "65536"})
+    int packetSize;
+
+    LoopbackServer server;
+    Socket socket;
+    PacketReader reader;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+      server = new LoopbackServer(LoopbackServer.packets(packetSize, 64));
+      socket = server.connect();
+      reader =
+          new PacketReader(
+              new BufferedInputStream(socket.getInputStream(), 16384),
+              Configuration.parse("jdbc:mariadb://localhost/"),
+              new MutableByte());
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws IOException {
+      socket.close();
+      server.close();
+    }
+  }
+
+  @Benchmark
+  public int readReusablePacket(MyState state) throws IOException {
+    ReadableByteBuf buf = state.reader.readReusablePacket(false);
+    return buf.readableBytes();
+  }
+
+  @Benchmark
+  public int readPacket(MyState state) throws IOException {
+    return state.reader.readPacket(false).length;
+  }
+
+  @Benchmark
+  public void skipPacket(MyState state) throws IOException {
+    state.reader.skipPacket();
+  }
+}
@@ -0,0 +1,94 @@
+// SPDX-License-Identifier: LGPL-2.1-or-later
+// Copyright (c) 2012-2014 Monty Program Ab
+// Copyright (c) 2015-2021 MariaDB Corporation Ab
+
+package org.mariadb.jdbc.protocol;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import org.mariadb.jdbc.client.socket.impl.PacketWriter;
+import org.mariadb.jdbc.client.util.MutableByte;
+import org.openjdk.jmh.annotations.*;
+
+/** PacketWriter encoding benchmarks: writeString, writeStringEscaped and writeLength */
+public class Packet_Write extends ProtocolCommon {
+
+  @State(Scope.Thread)
+  public static class MyState {
+
+    @Param({"10", "1000", "100000"})
+    int length;
+
+    LoopbackServer server;
+    Socket socket;
+    PacketWriter writer;
+    String value;
+    String valueToEscape;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+      server = new LoopbackServer(new byte[0]);
+      socket = server.connect();
+      writer =
+          new PacketWriter(
+              new BufferedOutputStream(socket.getOutputStream(), 16384),
+              1024,
+              null,
+              new MutableByte(),
+              new MutableByte());
+      StringBuilder sb = new StringBuilder(length);
+      StringBuilder sbEscape = new StringBuilder(length);
+      for (int i = 0; i < length; i++) {
+        sb.append((char) ('a' + i % 26));
+        sbEscape.append(i % 10 == 0 ? '\'' : (i % 7 == 0 ? 'é' : (char) ('a' + i % 26)));
+      }
+      value = sb.toString();
+      valueToEscape = sbEscape.toString();
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws IOException {
+      socket.close();
+      server.close();
+    }
+  }
+
+  @Benchmark
+  public int writeString(MyState state) throws IOException {
+    state.writer.pos(4);
+    state.writer.writeString(state.value);
+    return state.writer.pos();
+  }
+
+  @Benchmark
+  public int writeStringEscaped(MyState state) throws IOException {
+    state.writer.pos(4);
+    state.writer.writeStringEscaped(state.valueToEscape, false);
+    return state.writer.pos();
+  }
+
+  @Benchmark
+  public int writeStringEscapedNoBackslash(MyState state) throws IOException {
+    state.writer.pos(4);
+    state.writer.writeStringEscaped(state.valueToEscape, true);
+    return state.writer.pos();
+  }
+
+  @Benchmark
+  public int writeLength(MyState state) throws IOException {
+    state.writer.pos(4);
+    for (int i = 0; i < 64; i++) {
+      state.writer.writeLength((long) state.length << (i % 4 * 8));
+    }
+    return state.writer.pos();
+  }
+
+  @Benchmark
+  public void writeStringFlush(MyState state) throws IOException {
+    state.writer.initPacket();
+    state.writer.writeByte(0x03);
+    state.writer.writeString(state.value);
+    state.writer.flush();
+  }
+}
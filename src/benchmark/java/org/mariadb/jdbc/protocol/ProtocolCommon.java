@@ -0,0 +1,21 @@
+// SPDX-License-Identifier: LGPL-2.1-or-later
+// Copyright (c) 2012-2014 Monty Program Ab
+// Copyright (c) 2015-2021 MariaDB Corporation Ab
+
+package org.mariadb.jdbc.protocol;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Common settings for protocol micro-benchmarks. Contrary to {@link org.mariadb.jdbc.Common}, those
+ * benchmarks do not need any server: sockets are connected to an in-process {@link
+ * LoopbackServer}.
+ */
+@Warmup(iterations = 5, timeUnit = TimeUnit.SECONDS, time = 1)
+@Measurement(iterations = 5, timeUnit = TimeUnit.SECONDS, time = 1)
+@Fork(value = 2)
+@Threads(value = 1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProtocolCommon {}
@@ -0,0 +1,180 @@
+// SPDX-License-Identifier: LGPL-2.1-or-later
+// Copyright (c) 2012-2014 Monty Program Ab
+// Copyright (c) 2015-2021 MariaDB Corporation Ab
+
+package org.mariadb.jdbc.protocol;
+
+import static org.mariadb.jdbc.client.result.Result.NULL_LENGTH;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import org.mariadb.jdbc.client.ColumnDecoder;
+import org.mariadb.jdbc.client.DataType;
+import org.mariadb.jdbc.client.impl.StandardReadableByteBuf;
+import org.mariadb.jdbc.client.result.rowdecoder.BinaryRowDecoder;
+import org.mariadb.jdbc.client.result.rowdecoder.RowDecoder;
+import org.mariadb.jdbc.client.result.rowdecoder.TextRowDecoder;
+import org.mariadb.jdbc.client.util.MutableInt;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Row decoding benchmarks, for text and binary protocol. Each invocation decodes all columns of a
+ * row made of INT, BIGINT, DOUBLE and VARCHAR columns, the same way Result getters do.
+ */
+public class Row_Decode extends ProtocolCommon {
+
+  private static final int COLUMN_NUMBER = 20;
+
+  @State(Scope.Thread)
+  public static class MyState {
+
+    @Param({"text", "binary"})
+    String protocol;
+
+    ColumnDecoder[] metadataList;
+    RowDecoder rowDecoder;
+    StandardReadableByteBuf rowBuf;
+    byte[] row;
+    byte[] nullBitmap;
+    final MutableInt fieldIndex = new MutableInt();
+    final MutableInt fieldLength = new MutableInt();
+
+    @Setup(Level.Trial)
+    public void setup() {
+      metadataList = new ColumnDecoder[COLUMN_NUMBER];
+      for (int i = 0; i < COLUMN_NUMBER; i++) {
+        metadataList[i] = ColumnDecoder.create("col" + i, type(i), 0);
+      }
+      boolean binary = "binary".equals(protocol);
+      rowDecoder = binary ? new BinaryRowDecoder() : new TextRowDecoder();
+      nullBitmap = new byte[(COLUMN_NUMBER + 9) / 8];
+      row = binary ? binaryRow() : textRow();
+      rowBuf = new StandardReadableByteBuf(row, row.length);
+    }
+  }
+
+  private static DataType type(int index) {
+    switch (index % 4) {
+      case 0:
+        return DataType.INTEGER;
+      case 1:
+        return DataType.BIGINT;
+      case 2:
+        return DataType.DOUBLE;
+      default:
+        return DataType.VARCHAR;
+    }
+  }
+
+  private static String textValue(int index) {
+    switch (index % 4) {
+      case 0:
+        return String.valueOf(index * 1000);
+      case 1:
+        return String.valueOf(index * 100_000_000_000L);
+      case 2:
+        return String.valueOf(index * 1.5d);
+      default:
+        return "some varchar value " + index;
+    }
+  }
+
+  private static byte[] textRow() {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (int i = 0; i < COLUMN_NUMBER; i++) {
+      byte[] val = textValue(i).getBytes(StandardCharsets.UTF_8);
+      out.write(val.length);
+      out.write(val, 0, val.length);
+    }
+    return out.toByteArray();
+  }
+
+  private static byte[] binaryRow() {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    out.write(0x00);
+    out.write(new byte[(COLUMN_NUMBER + 9) / 8], 0, (COLUMN_NUMBER + 9) / 8);
+    for (int i = 0; i < COLUMN_NUMBER; i++) {
+      switch (i % 4) {
+        case 0:
+          writeLittleEndian(out, i * 1000, 4);
+          break;
+        case 1:
+          writeLittleEndian(out, i * 100_000_000_000L, 8);
+          break;
+        case 2:
+          writeLittleEndian(out, Double.doubleToLongBits(i * 1.5d), 8);
+          break;
+        default:
+          byte[] val = textValue(i).getBytes(StandardCharsets.UTF_8);
+          out.write(val.length);
+          out.write(val, 0, val.length);
+          break;
+      }
+    }
+    return out.toByteArray();
+  }
+
+  private static void writeLittleEndian(ByteArrayOutputStream out, long value, int length) {
+    for (int i = 0; i < length; i++) {
+      out.write((int) (value >>> (8 * i)));
+    }
+  }
+
+  private static int position(MyState state, int index) {
+    return state.rowDecoder.setPosition(
+        index,
+        state.fieldIndex,
+        COLUMN_NUMBER,
+        state.rowBuf,
+        state.nullBitmap,
+        state.metadataList);
+  }
+
+  @Benchmark
+  public long decodeRow(MyState state) throws SQLException {
+    state.rowBuf.buf(state.row, state.row.length, 0);
+    state.fieldIndex.set(-1);
+    long sum = 0;
+    for (int i = 0; i < COLUMN_NUMBER; i++) {
+      state.fieldLength.set(position(state, i));
+      if (state.fieldLength.get() == NULL_LENGTH) continue;
+      switch (i % 4) {
+        case 0:
+          sum +=
+              state.rowDecoder.decodeInt(
+                  state.metadataList, state.fieldIndex, state.rowBuf, state.fieldLength);
+          break;
+        case 1:
+          sum +=
+              state.rowDecoder.decodeLong(
+                  state.metadataList, state.fieldIndex, state.rowBuf, state.fieldLength);
+          break;
+        case 2:
+          sum +=
+              (long)
+                  state.rowDecoder.decodeDouble(
+                      state.metadataList, state.fieldIndex, state.rowBuf, state.fieldLength);
+          break;
+        default:
+          sum +=
+              state
+                  .rowDecoder
+                  .decodeString(
+                      state.metadataList, state.fieldIndex, state.rowBuf, state.fieldLength)
+                  .length();
+          break;
+      }
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public String decodeLastString(MyState state) throws SQLException {
+    state.rowBuf.buf(state.row, state.row.length, 0);
+    state.fieldIndex.set(-1);
+    state.fieldLength.set(position(state, COLUMN_NUMBER - 1));
+    return state.rowDecoder.decodeString(
+        state.metadataList, state.fieldIndex, state.rowBuf, state.fieldLength);
+  }
+}
@@ -109,6 +109,15 @@ public abstract class BasePreparedStatement extends Statement implements Prepare
     return this.prepareResult.getColumns();
   }
 
+  /**
+   * Get current prepare result
+   *
+   * @return prepare result, null if not prepared
+   */
+  public Prepare getPrepareResult() {
+    return prepareResult;
+  }
+
   /**
    * update cached metadata list
    *
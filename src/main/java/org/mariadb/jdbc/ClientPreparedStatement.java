@@ -14,6 +14,7 @@ import java.util.Locale;
 import java.util.concurrent.locks.ReentrantLock;
 import org.mariadb.jdbc.client.ColumnDecoder;
 import org.mariadb.jdbc.client.Completion;
+import org.mariadb.jdbc.client.Context;
 import org.mariadb.jdbc.client.result.CompleteResult;
 import org.mariadb.jdbc.client.result.Result;
 import org.mariadb.jdbc.export.ExceptionFactory;
@@ -22,6 +23,7 @@ import org.mariadb.jdbc.message.client.*;
 import org.mariadb.jdbc.message.server.OkPacket;
 import org.mariadb.jdbc.message.server.PrepareResultPacket;
 import org.mariadb.jdbc.util.ClientParser;
+import org.mariadb.jdbc.util.ClientParserCache;
 import org.mariadb.jdbc.util.ParameterList;
 import org.mariadb.jdbc.util.constants.ServerStatus;
 
@@ -67,7 +69,10 @@ public class ClientPreparedStatement extends BasePreparedStatement {
 
     boolean noBackslashEscapes =
         (con.getContext().getServerStatus() & ServerStatus.NO_BACKSLASH_ESCAPES) > 0;
-    parser = ClientParser.parameterParts(sql, noBackslashEscapes);
+    parser =
+        con.getContext().getConf().cacheClientParsing()
+            ? ClientParserCache.parameterParts(sql, noBackslashEscapes)
+            : ClientParser.parameterParts(sql, noBackslashEscapes);
     parameters = new ParameterList(parser.getParamCount());
   }
 
@@ -113,6 +118,10 @@ public class ClientPreparedStatement extends BasePreparedStatement {
         && batchParameters.size() > 1
         && con.getContext().hasClientCapability(STMT_BULK_OPERATIONS)) {
       executeBatchBulk();
+    } else if (batchParameters.size() > 1
+        && con.getContext().getConf().rewriteBatchedStatements()
+        && parser.isInsertValuesRewritable()) {
+      executeBatchRewrite();
     } else {
       boolean possibleLoadLocal = con.getContext().hasClientCapability(LOCAL_FILES);
       if (possibleLoadLocal) {
@@ -180,6 +189,109 @@ public class ClientPreparedStatement extends BasePreparedStatement {
     }
   }
 
+  /**
+   * Send INSERT batch rewritten as multi-values COM_QUERY, then read answers. Each query answer is
+   * split into one result per parameter set.
+   *
+   * <p>When generated keys are requested, session auto_increment_increment is read in the same
+   * pipeline, since it can change at any time with SET SESSION.
+   *
+   * @throws SQLException if IOException / Command error
+   */
+  private void executeBatchRewrite() throws SQLException {
+    Context context = con.getContext();
+    try {
+      loadMaxAllowedPacket(context);
+      int maxQueryLength = context.getMaxAllowedPacket();
+      if (context.getConf().maxAllowedPacket() != null) {
+        maxQueryLength = Math.min(maxQueryLength, context.getConf().maxAllowedPacket());
+      }
+      MultiValuesQueryPacket packet =
+          new MultiValuesQueryPacket(preSqlCmd(), parser, batchParameters, maxQueryLength);
+      boolean generatedKeys = autoGeneratedKeys == Statement.RETURN_GENERATED_KEYS;
+      ClientMessage[] messages =
+          generatedKeys
+              ? new ClientMessage[] {new QueryPacket("SELECT @@auto_increment_increment"), packet}
+              : new ClientMessage[] {packet};
+      List<Completion> res =
+          con.getClient()
+              .executePipeline(
+                  messages,
+                  this,
+                  0,
+                  maxRows,
+                  ResultSet.CONCUR_READ_ONLY,
+                  ResultSet.TYPE_FORWARD_ONLY,
+                  closeOnCompletion,
+                  false);
+      long increment = 1;
+      if (generatedKeys) {
+        Result incrementResult = (Result) res.remove(0);
+        incrementResult.next();
+        increment = incrementResult.getLong(1);
+      }
+      results = splitRewriteResults(res, packet.getRowsPerQuery(), increment);
+    } catch (SQLException bue) {
+      results = null;
+      throw exceptionFactory()
+          .createBatchUpdate(Collections.emptyList(), batchParameters.size(), bue);
+    }
+  }
+
+  /**
+   * Load server max_allowed_packet, once per connection (session value is read-only).
+   *
+   * @param context connection context
+   * @throws SQLException if query fails
+   */
+  private void loadMaxAllowedPacket(Context context) throws SQLException {
+    if (context.getMaxAllowedPacket() == null) {
+      Result res =
+          (Result)
+              con.getClient().execute(new QueryPacket("SELECT @@max_allowed_packet"), false).get(0);
+      res.next();
+      context.setMaxAllowedPacket(res.getInt(1));
+    }
+  }
+
+  /**
+   * Split results of multi-values queries, one OK_Packet for each parameter set. When a plain
+   * INSERT/REPLACE query affected as many rows as it has parameter sets, each row has 1 affected
+   * row and insert ids are computed from query first insert id and auto_increment_increment.
+   * Otherwise (INSERT IGNORE, ON DUPLICATE KEY UPDATE), rows have SUCCESS_NO_INFO update count and
+   * only the first row of query has an insert id: ON DUPLICATE KEY UPDATE affected rows count
+   * updated rows twice (or not at all with CLIENT_FOUND_ROWS), so it never tells which rows were
+   * inserted.
+   *
+   * @param res query results
+   * @param rowsPerQuery number of parameter sets of each query
+   * @param increment session auto_increment_increment
+   * @return results for each parameter set
+   */
+  private List<Completion> splitRewriteResults(
+      List<Completion> res, int[] rowsPerQuery, long increment) {
+    if (res.size() != rowsPerQuery.length) return res;
+    List<Completion> split = new ArrayList<>(batchParameters.size());
+    boolean duplicateKeyUpdate = parser.isInsertDuplicateKeyUpdate();
+    for (int i = 0; i < rowsPerQuery.length; i++) {
+      Completion completion = res.get(i);
+      if (!(completion instanceof OkPacket)) {
+        split.add(completion);
+        continue;
+      }
+      OkPacket ok = (OkPacket) completion;
+      boolean oneRowEach = !duplicateKeyUpdate && ok.getAffectedRows() == rowsPerQuery[i];
+      for (int row = 0; row < rowsPerQuery[i]; row++) {
+        long insertId = 0;
+        if (ok.getLastInsertId() != 0 && (oneRowEach || row == 0)) {
+          insertId = ok.getLastInsertId() + row * increment;
+        }
+        split.add(new OkPacket(oneRowEach ? 1 : Statement.SUCCESS_NO_INFO, insertId));
+      }
+    }
+    return split;
+  }
+
   /**
    * Send n * COM_QUERY + n * read answer
    *
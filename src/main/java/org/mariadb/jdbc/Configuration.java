@@ -105,12 +105,25 @@ public class Configuration {
   private boolean allowMultiQueries = false;
   private boolean allowLocalInfile = true;
   private boolean useCompression = false;
+  private String compressionAlgorithms = null;
+  private int compressionLevel = 0;
+  private int compressionThreshold = 1536;
+  private boolean adaptiveCompression = false;
   private boolean useAffectedRows = false;
   private boolean useBulkStmts = true;
+  private boolean rewriteBatchedStatements = false;
   private boolean disablePipeline = false;
   // prepare
   private boolean cachePrepStmts = true;
+  private boolean cachePrepMetadata = true;
+  private boolean cacheResultMetadata = true;
+  private boolean cacheClientParsing = true;
   private int prepStmtCacheSize = 250;
+  private boolean resultSetChunkedRows = false;
+  private int resultSetOffHeapThreshold = 0;
+  private int resultSetFileThreshold = 0;
+  private int streamingPrefetch = 0;
+  private int killQueryOnSkipThreshold = 0;
   private boolean useServerPrepStmts = false;
 
   // authentication
@@ -142,6 +155,10 @@ public class Configuration {
   private int maxIdleTime = 600_000;
   private boolean registerJmxPool = true;
   private int poolValidMinDelay = 1000;
+  private int poolCreationThreads = 1;
+  private boolean poolHeuristicValidation = false;
+  private int poolBackgroundValidationInterval = 0;
+  private String poolMetricsListener = null;
   private boolean useResetConnection = false;
 
   // MySQL sha authentication
@@ -194,11 +211,24 @@ public class Configuration {
       boolean allowMultiQueries,
       boolean allowLocalInfile,
       boolean useCompression,
+      String compressionAlgorithms,
+      int compressionLevel,
+      int compressionThreshold,
+      boolean adaptiveCompression,
       boolean useAffectedRows,
       boolean useBulkStmts,
+      boolean rewriteBatchedStatements,
       boolean disablePipeline,
       boolean cachePrepStmts,
+      boolean cachePrepMetadata,
+      boolean cacheResultMetadata,
+      boolean cacheClientParsing,
       int prepStmtCacheSize,
+      boolean resultSetChunkedRows,
+      int resultSetOffHeapThreshold,
+      int resultSetFileThreshold,
+      int streamingPrefetch,
+      int killQueryOnSkipThreshold,
       boolean useServerPrepStmts,
       CredentialPlugin credentialType,
       String sessionVariables,
@@ -222,6 +252,10 @@ public class Configuration {
       int maxIdleTime,
       boolean registerJmxPool,
       int poolValidMinDelay,
+      int poolCreationThreads,
+      boolean poolHeuristicValidation,
+      int poolBackgroundValidationInterval,
+      String poolMetricsListener,
       boolean useResetConnection,
       String serverRsaPublicKeyFile,
       boolean allowPublicKeyRetrieval) {
@@ -266,11 +300,24 @@ public class Configuration {
     this.allowMultiQueries = allowMultiQueries;
     this.allowLocalInfile = allowLocalInfile;
     this.useCompression = useCompression;
+    this.compressionAlgorithms = compressionAlgorithms;
+    this.compressionLevel = compressionLevel;
+    this.compressionThreshold = compressionThreshold;
+    this.adaptiveCompression = adaptiveCompression;
     this.useAffectedRows = useAffectedRows;
     this.useBulkStmts = useBulkStmts;
+    this.rewriteBatchedStatements = rewriteBatchedStatements;
     this.disablePipeline = disablePipeline;
     this.cachePrepStmts = cachePrepStmts;
+    this.cachePrepMetadata = cachePrepMetadata;
+    this.cacheResultMetadata = cacheResultMetadata;
+    this.cacheClientParsing = cacheClientParsing;
     this.prepStmtCacheSize = prepStmtCacheSize;
+    this.resultSetChunkedRows = resultSetChunkedRows;
+    this.resultSetOffHeapThreshold = resultSetOffHeapThreshold;
+    this.resultSetFileThreshold = resultSetFileThreshold;
+    this.streamingPrefetch = streamingPrefetch;
+    this.killQueryOnSkipThreshold = killQueryOnSkipThreshold;
     this.useServerPrepStmts = useServerPrepStmts;
     this.credentialType = credentialType;
     this.sessionVariables = sessionVariables;
@@ -294,6 +341,10 @@ public class Configuration {
     this.maxIdleTime = maxIdleTime;
     this.registerJmxPool = registerJmxPool;
     this.poolValidMinDelay = poolValidMinDelay;
+    this.poolCreationThreads = poolCreationThreads;
+    this.poolHeuristicValidation = poolHeuristicValidation;
+    this.poolBackgroundValidationInterval = poolBackgroundValidationInterval;
+    this.poolMetricsListener = poolMetricsListener;
     this.useResetConnection = useResetConnection;
     this.serverRsaPublicKeyFile = serverRsaPublicKeyFile;
     this.allowPublicKeyRetrieval = allowPublicKeyRetrieval;
@@ -322,6 +373,10 @@ public class Configuration {
       Boolean allowMultiQueries,
       Boolean allowLocalInfile,
       Boolean useCompression,
+      String compressionAlgorithms,
+      Integer compressionLevel,
+      Integer compressionThreshold,
+      Boolean adaptiveCompression,
       Boolean blankTableNameMeta,
       String credentialType,
       String sslMode,
@@ -334,10 +389,16 @@ public class Configuration {
       String timezone,
       Boolean dumpQueriesOnException,
       Integer prepStmtCacheSize,
+      Boolean resultSetChunkedRows,
+      Integer resultSetOffHeapThreshold,
+      Integer resultSetFileThreshold,
+      Integer streamingPrefetch,
+      Integer killQueryOnSkipThreshold,
       Boolean useAffectedRows,
       Boolean useServerPrepStmts,
       String connectionAttributes,
       Boolean useBulkStmts,
+      Boolean rewriteBatchedStatements,
       Boolean disablePipeline,
       Boolean autocommit,
       Boolean useMysqlMetadata,
@@ -358,6 +419,10 @@ public class Configuration {
       Integer maxIdleTime,
       Boolean registerJmxPool,
       Integer poolValidMinDelay,
+      Integer poolCreationThreads,
+      Boolean poolHeuristicValidation,
+      Integer poolBackgroundValidationInterval,
+      String poolMetricsListener,
       Boolean useResetConnection,
       String serverRsaPublicKeyFile,
       Boolean allowPublicKeyRetrieval,
@@ -367,6 +432,9 @@ public class Configuration {
       String keyStoreType,
       Boolean useReadAheadInput,
       Boolean cachePrepStmts,
+      Boolean cachePrepMetadata,
+      Boolean cacheResultMetadata,
+      Boolean cacheClientParsing,
       Boolean transactionReplay,
       Integer transactionReplaySize,
       String geometryDefaultType,
@@ -397,6 +465,10 @@ public class Configuration {
     if (allowMultiQueries != null) this.allowMultiQueries = allowMultiQueries;
     if (allowLocalInfile != null) this.allowLocalInfile = allowLocalInfile;
     if (useCompression != null) this.useCompression = useCompression;
+    if (compressionAlgorithms != null) this.compressionAlgorithms = compressionAlgorithms;
+    if (compressionLevel != null) this.compressionLevel = compressionLevel;
+    if (compressionThreshold != null) this.compressionThreshold = compressionThreshold;
+    if (adaptiveCompression != null) this.adaptiveCompression = adaptiveCompression;
     if (blankTableNameMeta != null) this.blankTableNameMeta = blankTableNameMeta;
     if (this.credentialType != null
         && this.credentialType.mustUseSsl()
@@ -415,10 +487,17 @@ public class Configuration {
     this.timezone = timezone;
     if (dumpQueriesOnException != null) this.dumpQueriesOnException = dumpQueriesOnException;
     if (prepStmtCacheSize != null) this.prepStmtCacheSize = prepStmtCacheSize;
+    if (resultSetChunkedRows != null) this.resultSetChunkedRows = resultSetChunkedRows;
+    if (resultSetOffHeapThreshold != null)
+      this.resultSetOffHeapThreshold = resultSetOffHeapThreshold;
+    if (resultSetFileThreshold != null) this.resultSetFileThreshold = resultSetFileThreshold;
+    if (streamingPrefetch != null) this.streamingPrefetch = streamingPrefetch;
+    if (killQueryOnSkipThreshold != null) this.killQueryOnSkipThreshold = killQueryOnSkipThreshold;
     if (useAffectedRows != null) this.useAffectedRows = useAffectedRows;
     if (useServerPrepStmts != null) this.useServerPrepStmts = useServerPrepStmts;
     this.connectionAttributes = connectionAttributes;
     if (useBulkStmts != null) this.useBulkStmts = useBulkStmts;
+    if (rewriteBatchedStatements != null) this.rewriteBatchedStatements = rewriteBatchedStatements;
     if (disablePipeline != null) this.disablePipeline = disablePipeline;
     if (autocommit != null) this.autocommit = autocommit;
     if (useMysqlMetadata != null) this.useMysqlMetadata = useMysqlMetadata;
@@ -447,11 +526,19 @@ public class Configuration {
     if (maxIdleTime != null) this.maxIdleTime = maxIdleTime;
     if (registerJmxPool != null) this.registerJmxPool = registerJmxPool;
     if (poolValidMinDelay != null) this.poolValidMinDelay = poolValidMinDelay;
+    if (poolCreationThreads != null) this.poolCreationThreads = poolCreationThreads;
+    if (poolHeuristicValidation != null) this.poolHeuristicValidation = poolHeuristicValidation;
+    if (poolBackgroundValidationInterval != null)
+      this.poolBackgroundValidationInterval = poolBackgroundValidationInterval;
+    if (poolMetricsListener != null) this.poolMetricsListener = poolMetricsListener;
     if (useResetConnection != null) this.useResetConnection = useResetConnection;
     if (serverRsaPublicKeyFile != null) this.serverRsaPublicKeyFile = serverRsaPublicKeyFile;
     if (allowPublicKeyRetrieval != null) this.allowPublicKeyRetrieval = allowPublicKeyRetrieval;
     if (useReadAheadInput != null) this.useReadAheadInput = useReadAheadInput;
     if (cachePrepStmts != null) this.cachePrepStmts = cachePrepStmts;
+    if (cachePrepMetadata != null) this.cachePrepMetadata = cachePrepMetadata;
+    if (cacheResultMetadata != null) this.cacheResultMetadata = cacheResultMetadata;
+    if (cacheClientParsing != null) this.cacheClientParsing = cacheClientParsing;
     if (transactionReplay != null) this.transactionReplay = transactionReplay;
     if (transactionReplaySize != null) this.transactionReplaySize = transactionReplaySize;
     if (geometryDefaultType != null) this.geometryDefaultType = geometryDefaultType;
@@ -493,6 +580,14 @@ public class Configuration {
     } catch (IllegalArgumentException | IllegalAccessException ie) {
       // eat
     }
+
+    // compressed packet length is encoded on 3 bytes
+    if (this.compressionThreshold >= 0xffffff) {
+      throw new SQLException(
+          String.format(
+              "Value for compressionThreshold must be < 16777215 (value is %s)",
+              this.compressionThreshold));
+    }
   }
 
   /**
@@ -774,11 +869,24 @@ public class Configuration {
         this.allowMultiQueries,
         this.allowLocalInfile,
         this.useCompression,
+        this.compressionAlgorithms,
+        this.compressionLevel,
+        this.compressionThreshold,
+        this.adaptiveCompression,
         this.useAffectedRows,
         this.useBulkStmts,
+        this.rewriteBatchedStatements,
         this.disablePipeline,
         this.cachePrepStmts,
+        this.cachePrepMetadata,
+        this.cacheResultMetadata,
+        this.cacheClientParsing,
         this.prepStmtCacheSize,
+        this.resultSetChunkedRows,
+        this.resultSetOffHeapThreshold,
+        this.resultSetFileThreshold,
+        this.streamingPrefetch,
+        this.killQueryOnSkipThreshold,
         this.useServerPrepStmts,
         this.credentialType,
         this.sessionVariables,
@@ -802,6 +910,10 @@ public class Configuration {
         this.maxIdleTime,
         this.registerJmxPool,
         this.poolValidMinDelay,
+        this.poolCreationThreads,
+        this.poolHeuristicValidation,
+        this.poolBackgroundValidationInterval,
+        this.poolMetricsListener,
         this.useResetConnection,
         this.serverRsaPublicKeyFile,
         this.allowPublicKeyRetrieval);
@@ -1062,6 +1174,43 @@ public class Configuration {
     return useCompression;
   }
 
+  /**
+   * Compression algorithms, by order of preference, when using compression
+   *
+   * @return compression algorithms
+   */
+  public String compressionAlgorithms() {
+    return compressionAlgorithms;
+  }
+
+  /**
+   * Compression level, 0 for algorithm default level
+   *
+   * @return compression level
+   */
+  public int compressionLevel() {
+    return compressionLevel;
+  }
+
+  /**
+   * Minimum packet size to compress, smaller packets being sent uncompressed
+   *
+   * @return minimum packet size to compress
+   */
+  public int compressionThreshold() {
+    return compressionThreshold;
+  }
+
+  /**
+   * Skip compression of packets when recent packets have a poor compression ratio, probing
+   * periodically
+   *
+   * @return use adaptive compression
+   */
+  public boolean adaptiveCompression() {
+    return adaptiveCompression;
+  }
+
   /**
    * force returning blank table metadata (for old oracle compatibility)
    *
@@ -1161,6 +1310,56 @@ public class Configuration {
     return prepStmtCacheSize;
   }
 
+  /**
+   * Store complete result-set rows in large contiguous chunks instead of one array per row. Always
+   * enabled when an off-heap or file threshold is set
+   *
+   * @return use chunked row storage
+   */
+  public boolean resultSetChunkedRows() {
+    return resultSetChunkedRows;
+  }
+
+  /**
+   * Size of complete result-set rows kept on heap before storing rows in direct buffers. 0 to
+   * disable
+   *
+   * @return off-heap threshold
+   */
+  public int resultSetOffHeapThreshold() {
+    return resultSetOffHeapThreshold;
+  }
+
+  /**
+   * Size of complete result-set rows kept in memory before storing rows in a memory-mapped
+   * temporary file. 0 to disable
+   *
+   * @return file threshold
+   */
+  public int resultSetFileThreshold() {
+    return resultSetFileThreshold;
+  }
+
+  /**
+   * Number of fetch size windows of a forward only streaming result-set that can be read in
+   * background
+   *
+   * @return windows read in advance
+   */
+  public int streamingPrefetch() {
+    return streamingPrefetch;
+  }
+
+  /**
+   * Number of remaining rows skipped when a result-set is closed before being fully read, before
+   * cancelling running query with a KILL QUERY command. 0 to disable
+   *
+   * @return skipped rows before cancelling query
+   */
+  public int killQueryOnSkipThreshold() {
+    return killQueryOnSkipThreshold;
+  }
+
   /**
    * Use affected row
    *
@@ -1197,6 +1396,15 @@ public class Configuration {
     return useBulkStmts;
   }
 
+  /**
+   * Rewrite batched INSERT into multi-values queries when bulk protocol cannot be used
+   *
+   * @return rewrite batched statements
+   */
+  public boolean rewriteBatchedStatements() {
+    return rewriteBatchedStatements;
+  }
+
   /**
    * Disable pipeline.
    *
@@ -1388,6 +1596,44 @@ public class Configuration {
     return poolValidMinDelay;
   }
 
+  /**
+   * Maximum number of connections the pool creates in parallel.
+   *
+   * @return number of threads creating connections
+   */
+  public int poolCreationThreads() {
+    return poolCreationThreads;
+  }
+
+  /**
+   * When borrowing an idle connection from pool, validate it using local checks instead of a server
+   * round-trip when possible
+   *
+   * @return use local liveness checks to avoid validation round-trip
+   */
+  public boolean poolHeuristicValidation() {
+    return poolHeuristicValidation;
+  }
+
+  /**
+   * Interval between background validations of idle pool connections, in milliseconds. 0 disables
+   * background validation
+   *
+   * @return background validation interval in milliseconds
+   */
+  public int poolBackgroundValidationInterval() {
+    return poolBackgroundValidationInterval;
+  }
+
+  /**
+   * Pool metrics listener class name
+   *
+   * @return pool metrics listener class name
+   */
+  public String poolMetricsListener() {
+    return poolMetricsListener;
+  }
+
   /**
    * Must connection returned to pool be RESET
    *
@@ -1433,6 +1679,34 @@ public class Configuration {
     return cachePrepStmts;
   }
 
+  /**
+   * Must server prepared statement result metadata be shared between connections to the same server
+   *
+   * @return must prepare metadata be shared
+   */
+  public boolean cachePrepMetadata() {
+    return cachePrepMetadata;
+  }
+
+  /**
+   * Must result-set column definitions be interned, sharing decoders of identical column
+   * definitions between results and connections
+   *
+   * @return must result-set column definitions be interned
+   */
+  public boolean cacheResultMetadata() {
+    return cacheResultMetadata;
+  }
+
+  /**
+   * Share parsed queries of client side prepared statements between connections
+   *
+   * @return cache client parsed queries
+   */
+  public boolean cacheClientParsing() {
+    return cacheClientParsing;
+  }
+
   /**
    * implements transaction replay failover
    *
@@ -1712,12 +1986,25 @@ public class Configuration {
     private Boolean allowMultiQueries;
     private Boolean allowLocalInfile;
     private Boolean useCompression;
+    private String compressionAlgorithms;
+    private Integer compressionLevel;
+    private Integer compressionThreshold;
+    private Boolean adaptiveCompression;
     private Boolean useAffectedRows;
     private Boolean useBulkStmts;
+    private Boolean rewriteBatchedStatements;
     private Boolean disablePipeline;
     // prepare
     private Boolean cachePrepStmts;
+    private Boolean cachePrepMetadata;
+    private Boolean cacheResultMetadata;
+    private Boolean cacheClientParsing;
     private Integer prepStmtCacheSize;
+    private Boolean resultSetChunkedRows;
+    private Integer resultSetOffHeapThreshold;
+    private Integer resultSetFileThreshold;
+    private Integer streamingPrefetch;
+    private Integer killQueryOnSkipThreshold;
     private Boolean useServerPrepStmts;
 
     // authentication
@@ -1750,6 +2037,10 @@ public class Configuration {
     private Integer maxIdleTime;
     private Boolean registerJmxPool;
     private Integer poolValidMinDelay;
+    private Integer poolCreationThreads;
+    private Boolean poolHeuristicValidation;
+    private Integer poolBackgroundValidationInterval;
+    private String poolMetricsListener;
     private Boolean useResetConnection;
 
     // MySQL sha authentication
@@ -2112,6 +2403,55 @@ public class Configuration {
       return this;
     }
 
+    /**
+     * Compression algorithms, by order of preference, when using compression: comma separated list
+     * of compression plugin types ('zlib', 'zstd'). First algorithm that server and client both
+     * support is used. Default: zlib
+     *
+     * @param compressionAlgorithms compression algorithms
+     * @return this {@link Builder}
+     */
+    public Builder compressionAlgorithms(String compressionAlgorithms) {
+      this.compressionAlgorithms = compressionAlgorithms;
+      return this;
+    }
+
+    /**
+     * Compression level when using compression: 1-9 for zlib, 1-22 for zstd. 0 (default) uses
+     * algorithm default level
+     *
+     * @param compressionLevel compression level
+     * @return this {@link Builder}
+     */
+    public Builder compressionLevel(Integer compressionLevel) {
+      this.compressionLevel = compressionLevel;
+      return this;
+    }
+
+    /**
+     * Minimum packet size to compress when using compression, smaller packets being sent
+     * uncompressed. Default: 1536 (a TCP packet)
+     *
+     * @param compressionThreshold minimum packet size to compress
+     * @return this {@link Builder}
+     */
+    public Builder compressionThreshold(Integer compressionThreshold) {
+      this.compressionThreshold = compressionThreshold;
+      return this;
+    }
+
+    /**
+     * Adaptive compression: when recent packets compress poorly (already compressed or encrypted
+     * data), packets are sent uncompressed, compression being probed again periodically
+     *
+     * @param adaptiveCompression use adaptive compression
+     * @return this {@link Builder}
+     */
+    public Builder adaptiveCompression(Boolean adaptiveCompression) {
+      this.adaptiveCompression = adaptiveCompression;
+      return this;
+    }
+
     /**
      * Set blank table name for metadata (old oracle compatibility)
      *
@@ -2244,6 +2584,68 @@ public class Configuration {
       return this;
     }
 
+    /**
+     * Store complete result-set rows in large contiguous chunks instead of one array per row,
+     * reducing garbage collection on big result-sets. Always enabled when {@link
+     * #resultSetOffHeapThreshold(Integer)} or {@link #resultSetFileThreshold(Integer)} is set
+     *
+     * @param resultSetChunkedRows use chunked row storage
+     * @return this {@link Builder}
+     */
+    public Builder resultSetChunkedRows(Boolean resultSetChunkedRows) {
+      this.resultSetChunkedRows = resultSetChunkedRows;
+      return this;
+    }
+
+    /**
+     * Size in bytes of complete result-set rows kept on heap. Once exceeded, following rows are
+     * stored in direct buffers. 0 (default) to disable
+     *
+     * @param resultSetOffHeapThreshold off-heap threshold
+     * @return this {@link Builder}
+     */
+    public Builder resultSetOffHeapThreshold(Integer resultSetOffHeapThreshold) {
+      this.resultSetOffHeapThreshold = resultSetOffHeapThreshold;
+      return this;
+    }
+
+    /**
+     * Size in bytes of complete result-set rows kept in memory. Once exceeded, following rows are
+     * stored in a memory-mapped temporary file. 0 (default) to disable
+     *
+     * @param resultSetFileThreshold file threshold
+     * @return this {@link Builder}
+     */
+    public Builder resultSetFileThreshold(Integer resultSetFileThreshold) {
+      this.resultSetFileThreshold = resultSetFileThreshold;
+      return this;
+    }
+
+    /**
+     * Number of fetch size windows of forward only streaming result-sets that can be read in
+     * background while the application consumes current window. 0 (default) to disable
+     *
+     * @param streamingPrefetch windows read in advance
+     * @return this {@link Builder}
+     */
+    public Builder streamingPrefetch(Integer streamingPrefetch) {
+      this.streamingPrefetch = streamingPrefetch;
+      return this;
+    }
+
+    /**
+     * Number of remaining rows skipped when a result-set is closed before being fully read (or
+     * limited by max rows), before cancelling running query with a KILL QUERY command on a new
+     * connection, so server stops sending rows. 0 (default) to disable
+     *
+     * @param killQueryOnSkipThreshold skipped rows before cancelling query
+     * @return this {@link Builder}
+     */
+    public Builder killQueryOnSkipThreshold(Integer killQueryOnSkipThreshold) {
+      this.killQueryOnSkipThreshold = killQueryOnSkipThreshold;
+      return this;
+    }
+
     /**
      * Indicate server to return affected rows in place of found rows. This impact the return number
      * of rows affected by update
@@ -2289,6 +2691,19 @@ public class Configuration {
       return this;
     }
 
+    /**
+     * Rewrite batch of client prepared INSERT ... VALUES (...) statements into queries with
+     * multiple VALUES parenthesis, sized up to max_allowed_packet, when bulk protocol cannot be
+     * used (server without bulk support, useBulkStmts disabled or generated keys requested)
+     *
+     * @param rewriteBatchedStatements rewrite batched statements
+     * @return this {@link Builder}
+     */
+    public Builder rewriteBatchedStatements(Boolean rewriteBatchedStatements) {
+      this.rewriteBatchedStatements = rewriteBatchedStatements;
+      return this;
+    }
+
     /**
      * Disable pipeline
      *
@@ -2520,6 +2935,59 @@ public class Configuration {
       return this;
     }
 
+    /**
+     * Maximum number of connections the pool creates in parallel, when filling pool to minPoolSize
+     * or when many connection requests are pending. Default to 1 (connections are created one after
+     * the other).
+     *
+     * @param poolCreationThreads number of threads creating connections
+     * @return this {@link Builder}
+     */
+    public Builder poolCreationThreads(Integer poolCreationThreads) {
+      this.poolCreationThreads = poolCreationThreads;
+      return this;
+    }
+
+    /**
+     * When borrowing a connection that has been idle more than poolValidMinDelay, the pool first
+     * checks connection locally: socket state, no pending data, and idle time far from server
+     * wait_timeout. A server ping (COM_PING) is sent only when those checks are inconclusive.
+     *
+     * @param poolHeuristicValidation use local liveness checks to avoid validation round-trip
+     * @return this {@link Builder}
+     */
+    public Builder poolHeuristicValidation(Boolean poolHeuristicValidation) {
+      this.poolHeuristicValidation = poolHeuristicValidation;
+      return this;
+    }
+
+    /**
+     * Interval in milliseconds between background validations of idle connections. Connections idle
+     * for more than this interval are validated by pool maintenance thread and replaced if dead, so
+     * borrowing threads seldom have to validate a connection. 0 (default) disables background
+     * validation.
+     *
+     * @param poolBackgroundValidationInterval background validation interval in milliseconds
+     * @return this {@link Builder}
+     */
+    public Builder poolBackgroundValidationInterval(Integer poolBackgroundValidationInterval) {
+      this.poolBackgroundValidationInterval = poolBackgroundValidationInterval;
+      return this;
+    }
+
+    /**
+     * Pool metrics listener: name of a class implementing {@link
+     * org.mariadb.jdbc.pool.PoolMetricsListener}, with a public no-argument constructor, notified
+     * of each pool connection wait, usage, creation and validation time.
+     *
+     * @param poolMetricsListener pool metrics listener class name
+     * @return this {@link Builder}
+     */
+    public Builder poolMetricsListener(String poolMetricsListener) {
+      this.poolMetricsListener = poolMetricsListener;
+      return this;
+    }
+
     /**
      * Indicate that connection returned to pool must be RESETed like having proper connection
      * state.
@@ -2576,6 +3044,42 @@ public class Configuration {
       return this;
     }
 
+    /**
+     * Share server prepared statement result metadata between connections to the same server and
+     * database: identical column definitions received when preparing the same query are not decoded
+     * again. Default: true
+     *
+     * @param cachePrepMetadata must prepare metadata be shared
+     * @return this {@link Builder}
+     */
+    public Builder cachePrepMetadata(Boolean cachePrepMetadata) {
+      this.cachePrepMetadata = cachePrepMetadata;
+      return this;
+    }
+
+    /**
+     * Permit to intern result-set column definitions, sharing decoders of identical column
+     * definitions between results and connections. Default: true
+     *
+     * @param cacheResultMetadata must result-set column definitions be interned
+     * @return this {@link Builder}
+     */
+    public Builder cacheResultMetadata(Boolean cacheResultMetadata) {
+      this.cacheResultMetadata = cacheResultMetadata;
+      return this;
+    }
+
+    /**
+     * Cache parsed queries of client side prepared statements, shared by all connections of the JVM
+     *
+     * @param cacheClientParsing cache client parsed queries
+     * @return this {@link Builder}
+     */
+    public Builder cacheClientParsing(Boolean cacheClientParsing) {
+      this.cacheClientParsing = cacheClientParsing;
+      return this;
+    }
+
     /**
      * Must cache commands in transaction and replay transaction on failover.
      *
@@ -2628,6 +3132,10 @@ public class Configuration {
               this.allowMultiQueries,
               this.allowLocalInfile,
               this.useCompression,
+              this.compressionAlgorithms,
+              this.compressionLevel,
+              this.compressionThreshold,
+              this.adaptiveCompression,
               this.blankTableNameMeta,
               this.credentialType,
               this.sslMode,
@@ -2640,10 +3148,16 @@ public class Configuration {
               this.timezone,
               this.dumpQueriesOnException,
               this.prepStmtCacheSize,
+              this.resultSetChunkedRows,
+              this.resultSetOffHeapThreshold,
+              this.resultSetFileThreshold,
+              this.streamingPrefetch,
+              this.killQueryOnSkipThreshold,
               this.useAffectedRows,
               this.useServerPrepStmts,
               this.connectionAttributes,
               this.useBulkStmts,
+              this.rewriteBatchedStatements,
               this.disablePipeline,
               this.autocommit,
               this.useMysqlMetadata,
@@ -2664,6 +3178,10 @@ public class Configuration {
               this.maxIdleTime,
               this.registerJmxPool,
               this.poolValidMinDelay,
+              this.poolCreationThreads,
+              this.poolHeuristicValidation,
+              this.poolBackgroundValidationInterval,
+              this.poolMetricsListener,
               this.useResetConnection,
               this.serverRsaPublicKeyFile,
               this.allowPublicKeyRetrieval,
@@ -2673,6 +3191,9 @@ public class Configuration {
               this.keyStoreType,
               this.useReadAheadInput,
               this.cachePrepStmts,
+              this.cachePrepMetadata,
+              this.cacheResultMetadata,
+              this.cacheClientParsing,
               this.transactionReplay,
               this.transactionReplaySize,
               this.geometryDefaultType,
@@ -900,6 +900,26 @@ public class Connection implements java.sql.Connection {
     return client.getContext().getThreadId();
   }
 
+  /**
+   * Number of prepared statement result-sets for which server skipped sending metadata, cached
+   * columns being reused.
+   *
+   * @return skipped metadata count
+   */
+  public long getSkippedMetadataCount() {
+    return client.getContext().getSkippedMetadataCount();
+  }
+
+  /**
+   * Number of prepared statement result-sets for which server could have skipped metadata, but sent
+   * it, because metadata changed or was never sent for this statement.
+   *
+   * @return sent metadata count
+   */
+  public long getSentMetadataCount() {
+    return client.getContext().getSentMetadataCount();
+  }
+
   /**
    * Fire event to indicate to StatementEventListeners registered on the connection that a
    * PreparedStatement is closed.
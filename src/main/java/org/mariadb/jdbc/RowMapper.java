@@ -0,0 +1,26 @@
+// SPDX-License-Identifier: LGPL-2.1-or-later
+// Copyright (c) 2012-2014 Monty Program Ab
+// Copyright (c) 2015-2021 MariaDB Corporation Ab
+
+package org.mariadb.jdbc;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Map current row of a result-set to an object
+ *
+ * @param <T> row object type
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+  /**
+   * Map current row. Result-set must not be moved.
+   *
+   * @param rs result-set positioned on row to map
+   * @return row object, not null
+   * @throws SQLException if any error occurs reading row
+   */
+  T map(ResultSet rs) throws SQLException;
+}
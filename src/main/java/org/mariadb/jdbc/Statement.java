@@ -888,7 +888,8 @@ public class Statement implements java.sql.Statement {
         List<String[]> insertIds = new ArrayList<>();
         insertIds.add(new String[] {String.valueOf(ok.getLastInsertId())});
         for (Completion result : results) {
-          if (result instanceof OkPacket) {
+          // results without insert id (like rows of a rewritten batch without info) have no key
+          if (result instanceof OkPacket && ((OkPacket) result).getLastInsertId() != 0) {
             insertIds.add(new String[] {String.valueOf(((OkPacket) result).getLastInsertId())});
           }
         }
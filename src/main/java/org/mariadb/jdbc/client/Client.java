@@ -160,6 +160,16 @@ public interface Client extends AutoCloseable {
    */
   boolean isClosed();
 
+  /**
+   * Cheap local liveness check, without any exchange with server: client is not closed, socket is
+   * still connected, and no unexpected data is waiting to be read (like the error packet server
+   * sends before closing a connection). Check never waits: a socket closed by server without any
+   * data sent isn't detected.
+   *
+   * @return false if connection is known to be unusable, true if no problem has been detected
+   */
+  boolean isSocketAlive();
+
   /** Reset connection */
   void reset();
 
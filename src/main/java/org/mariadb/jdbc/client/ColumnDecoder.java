@@ -14,6 +14,14 @@ import org.mariadb.jdbc.util.constants.ColumnFlags;
 
 public interface ColumnDecoder extends Column {
 
+  /**
+   * Indicate if column definition has been decoded from exactly these packet bytes.
+   *
+   * @param packet column definition packet, position at packet start
+   * @return true if packet bytes are identical
+   */
+  boolean hasSameDefinition(ReadableByteBuf packet);
+
   /**
    * Returns default class name depending on server column datatype
    *
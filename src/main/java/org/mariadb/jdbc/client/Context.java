@@ -5,6 +5,7 @@
 package org.mariadb.jdbc.client;
 
 import org.mariadb.jdbc.Configuration;
+import org.mariadb.jdbc.HostAddress;
 import org.mariadb.jdbc.export.ExceptionFactory;
 
 public interface Context {
@@ -60,6 +61,13 @@ public interface Context {
    */
   void setServerStatus(int serverStatus);
 
+  /**
+   * Get connected host
+   *
+   * @return host address, null for local socket connections without host
+   */
+  HostAddress getHostAddress();
+
   /**
    * Get current connection database
    *
@@ -95,6 +103,41 @@ public interface Context {
    */
   boolean canSkipMeta();
 
+  /**
+   * Count a result-set of a statement whose metadata server may skip
+   *
+   * @param skipped server skipped metadata, cached columns being reused
+   */
+  void countMetadata(boolean skipped);
+
+  /**
+   * Number of result-sets for which server skipped metadata
+   *
+   * @return skipped metadata count
+   */
+  long getSkippedMetadataCount();
+
+  /**
+   * Number of result-sets for which server could have skipped metadata, but sent it
+   *
+   * @return sent metadata count
+   */
+  long getSentMetadataCount();
+
+  /**
+   * Server max_allowed_packet value, loaded when rewriting batches
+   *
+   * @return max_allowed_packet value, null if not loaded
+   */
+  Integer getMaxAllowedPacket();
+
+  /**
+   * Set server max_allowed_packet value
+   *
+   * @param maxAllowedPacket max_allowed_packet value
+   */
+  void setMaxAllowedPacket(Integer maxAllowedPacket);
+
   /**
    * Does server metadata exchange extended information
    *
@@ -7,6 +7,7 @@ package org.mariadb.jdbc.client.context;
 import static org.mariadb.jdbc.util.constants.Capabilities.STMT_BULK_OPERATIONS;
 
 import org.mariadb.jdbc.Configuration;
+import org.mariadb.jdbc.HostAddress;
 import org.mariadb.jdbc.client.Context;
 import org.mariadb.jdbc.client.PrepareCache;
 import org.mariadb.jdbc.client.ServerVersion;
@@ -26,6 +27,7 @@ public class BaseContext implements Context {
   private final boolean skipMeta;
   private final boolean extendedInfo;
   private final Configuration conf;
+  private final HostAddress hostAddress;
   private final ExceptionFactory exceptionFactory;
 
   /** Server status context */
@@ -40,6 +42,15 @@ public class BaseContext implements Context {
   /** Server current warning count */
   private int warning;
 
+  /** result-sets with skipped metadata */
+  private long skippedMetadata;
+
+  /** result-sets with metadata sent, although it could have been skipped */
+  private long sentMetadata;
+
+  /** Server max_allowed_packet, loaded when rewriting batches */
+  private Integer maxAllowedPacket;
+
   /** LRU prepare cache object */
   private final PrepareCache prepareCache;
 
@@ -52,6 +63,7 @@ public class BaseContext implements Context {
    * @param handshake server handshake
    * @param clientCapabilities client capabilities
    * @param conf connection configuration
+   * @param hostAddress connected host
    * @param exceptionFactory connection exception factory
    * @param prepareCache LRU prepare cache
    */
@@ -59,6 +71,7 @@ public class BaseContext implements Context {
       InitialHandshakePacket handshake,
       long clientCapabilities,
       Configuration conf,
+      HostAddress hostAddress,
       ExceptionFactory exceptionFactory,
       PrepareCache prepareCache) {
     this.threadId = handshake.getThreadId();
@@ -71,6 +84,7 @@ public class BaseContext implements Context {
     this.skipMeta = hasClientCapability(Capabilities.CACHE_METADATA);
     this.extendedInfo = hasClientCapability(Capabilities.EXTENDED_TYPE_INFO);
     this.conf = conf;
+    this.hostAddress = hostAddress;
     this.database = conf.database();
     this.exceptionFactory = exceptionFactory;
     this.prepareCache = prepareCache;
@@ -104,6 +118,10 @@ public class BaseContext implements Context {
     this.serverStatus = serverStatus;
   }
 
+  public HostAddress getHostAddress() {
+    return hostAddress;
+  }
+
   public String getDatabase() {
     return database;
   }
@@ -128,6 +146,30 @@ public class BaseContext implements Context {
     return skipMeta;
   }
 
+  public void countMetadata(boolean skipped) {
+    if (skipped) {
+      skippedMetadata++;
+    } else {
+      sentMetadata++;
+    }
+  }
+
+  public long getSkippedMetadataCount() {
+    return skippedMetadata;
+  }
+
+  public long getSentMetadataCount() {
+    return sentMetadata;
+  }
+
+  public Integer getMaxAllowedPacket() {
+    return maxAllowedPacket;
+  }
+
+  public void setMaxAllowedPacket(Integer maxAllowedPacket) {
+    this.maxAllowedPacket = maxAllowedPacket;
+  }
+
   public int getWarning() {
     return warning;
   }
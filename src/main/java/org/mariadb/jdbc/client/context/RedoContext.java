@@ -5,6 +5,7 @@
 package org.mariadb.jdbc.client.context;
 
 import org.mariadb.jdbc.Configuration;
+import org.mariadb.jdbc.HostAddress;
 import org.mariadb.jdbc.client.PrepareCache;
 import org.mariadb.jdbc.client.impl.TransactionSaver;
 import org.mariadb.jdbc.export.ExceptionFactory;
@@ -24,6 +25,7 @@ public class RedoContext extends BaseContext {
    * @param handshake server handshake
    * @param clientCapabilities client capabilities
    * @param conf configuration
+   * @param hostAddress connected host
    * @param exceptionFactory connection exception factory
    * @param prepareCache LRU prepare cache
    */
@@ -31,9 +33,10 @@ public class RedoContext extends BaseContext {
       InitialHandshakePacket handshake,
       long clientCapabilities,
       Configuration conf,
+      HostAddress hostAddress,
       ExceptionFactory exceptionFactory,
       PrepareCache prepareCache) {
-    super(handshake, clientCapabilities, conf, exceptionFactory, prepareCache);
+    super(handshake, clientCapabilities, conf, hostAddress, exceptionFactory, prepareCache);
     this.transactionSaver = new TransactionSaver(conf.transactionReplaySize());
   }
 
@@ -32,10 +32,12 @@ import org.mariadb.jdbc.message.server.AuthSwitchPacket;
 import org.mariadb.jdbc.message.server.ErrorPacket;
 import org.mariadb.jdbc.message.server.InitialHandshakePacket;
 import org.mariadb.jdbc.plugin.AuthenticationPlugin;
+import org.mariadb.jdbc.plugin.CompressionPlugin;
 import org.mariadb.jdbc.plugin.Credential;
 import org.mariadb.jdbc.plugin.CredentialPlugin;
 import org.mariadb.jdbc.plugin.TlsSocketPlugin;
 import org.mariadb.jdbc.plugin.authentication.AuthenticationPluginLoader;
+import org.mariadb.jdbc.plugin.compression.CompressionPluginLoader;
 import org.mariadb.jdbc.plugin.tls.TlsSocketPluginLoader;
 import org.mariadb.jdbc.util.ConfigurableSocketFactory;
 import org.mariadb.jdbc.util.constants.Capabilities;
@@ -149,11 +151,13 @@ public final class ConnectionHelper {
    * @param serverCapabilities server capabilities
    * @param hostAddress host address server
    * @return client capabilities
+   * @throws SQLException if a compression algorithm has no plugin
    */
   public static long initializeClientCapabilities(
       final Configuration configuration,
       final long serverCapabilities,
-      final HostAddress hostAddress) {
+      final HostAddress hostAddress)
+      throws SQLException {
     long capabilities =
         Capabilities.IGNORE_SPACE
             | Capabilities.CLIENT_PROTOCOL_41
@@ -205,7 +209,9 @@ public final class ConnectionHelper {
     }
 
     if (configuration.useCompression()) {
-      capabilities |= Capabilities.COMPRESS;
+      CompressionPlugin compression =
+          CompressionPluginLoader.negotiate(configuration, serverCapabilities);
+      if (compression != null) capabilities |= compression.capability();
     }
 
     // connect to database directly if not needed to be created, or if slave, since cannot be
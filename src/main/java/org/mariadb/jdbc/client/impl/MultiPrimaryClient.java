@@ -522,6 +522,11 @@ public class MultiPrimaryClient implements Client {
     return closed;
   }
 
+  @Override
+  public boolean isSocketAlive() {
+    return !closed && currentClient.isSocketAlive();
+  }
+
   @Override
   public Context getContext() {
     return currentClient.getContext();
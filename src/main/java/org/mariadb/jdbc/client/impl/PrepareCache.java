@@ -6,6 +6,7 @@ package org.mariadb.jdbc.client.impl;
 
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
 import org.mariadb.jdbc.ServerPreparedStatement;
 import org.mariadb.jdbc.export.Prepare;
 import org.mariadb.jdbc.message.server.CachedPrepareResultPacket;
@@ -20,6 +21,11 @@ public final class PrepareCache extends LinkedHashMap<String, CachedPrepareResul
   private final int maxSize;
   /** client */
   private final StandardClient con;
+  /**
+   * cache lock. Not using synchronized, since uncaching may send a packet to server, that must not
+   * pin virtual thread carrier
+   */
+  private final ReentrantLock lock = new ReentrantLock();
 
   /**
    * LRU prepare cache constructor
@@ -42,30 +48,39 @@ public final class PrepareCache extends LinkedHashMap<String, CachedPrepareResul
     return false;
   }
 
-  public synchronized Prepare get(String key, ServerPreparedStatement preparedStatement) {
-    CachedPrepareResultPacket prepare = super.get(key);
-    if (prepare != null && preparedStatement != null) {
-      prepare.incrementUse(preparedStatement);
+  public Prepare get(String key, ServerPreparedStatement preparedStatement) {
+    lock.lock();
+    try {
+      CachedPrepareResultPacket prepare = super.get(key);
+      if (prepare != null && preparedStatement != null) {
+        prepare.incrementUse(preparedStatement);
+      }
+      return prepare;
+    } finally {
+      lock.unlock();
     }
-    return prepare;
   }
 
-  public synchronized Prepare put(
-      String key, Prepare result, ServerPreparedStatement preparedStatement) {
-    CachedPrepareResultPacket cached = super.get(key);
+  public Prepare put(String key, Prepare result, ServerPreparedStatement preparedStatement) {
+    lock.lock();
+    try {
+      CachedPrepareResultPacket cached = super.get(key);
 
-    // if there is already some cached data, return existing cached data
-    if (cached != null) {
-      cached.incrementUse(preparedStatement);
-      ((CachedPrepareResultPacket) result).unCache(con);
-      return cached;
-    }
+      // if there is already some cached data, return existing cached data
+      if (cached != null) {
+        cached.incrementUse(preparedStatement);
+        ((CachedPrepareResultPacket) result).unCache(con);
+        return cached;
+      }
 
-    if (((CachedPrepareResultPacket) result).cache()) {
-      ((CachedPrepareResultPacket) result).incrementUse(preparedStatement);
-      super.put(key, (CachedPrepareResultPacket) result);
+      if (((CachedPrepareResultPacket) result).cache()) {
+        ((CachedPrepareResultPacket) result).incrementUse(preparedStatement);
+        super.put(key, (CachedPrepareResultPacket) result);
+      }
+      return null;
+    } finally {
+      lock.unlock();
     }
-    return null;
   }
 
   public CachedPrepareResultPacket get(Object key) {
@@ -42,10 +42,11 @@ import org.mariadb.jdbc.message.client.*;
 import org.mariadb.jdbc.message.server.ErrorPacket;
 import org.mariadb.jdbc.message.server.InitialHandshakePacket;
 import org.mariadb.jdbc.message.server.PrepareResultPacket;
+import org.mariadb.jdbc.plugin.CompressionPlugin;
 import org.mariadb.jdbc.plugin.Credential;
 import org.mariadb.jdbc.plugin.CredentialPlugin;
+import org.mariadb.jdbc.plugin.compression.CompressionPluginLoader;
 import org.mariadb.jdbc.util.Security;
-import org.mariadb.jdbc.util.constants.Capabilities;
 import org.mariadb.jdbc.util.constants.ServerStatus;
 import org.mariadb.jdbc.util.log.Logger;
 import org.mariadb.jdbc.util.log.Loggers;
@@ -131,12 +132,14 @@ public class StandardClient implements Client, AutoCloseable {
                   handshake,
                   clientCapabilities,
                   conf,
+                  hostAddress,
                   this.exceptionFactory,
                   new PrepareCache(conf.prepStmtCacheSize(), this))
               : new BaseContext(
                   handshake,
                   clientCapabilities,
                   conf,
+                  hostAddress,
                   this.exceptionFactory,
                   conf.cachePrepStmts() ? new PrepareCache(conf.prepStmtCacheSize(), this) : null);
 
@@ -187,10 +190,19 @@ public class StandardClient implements Client, AutoCloseable {
       // **********************************************************************
       // activate compression if required
       // **********************************************************************
-      if ((clientCapabilities & Capabilities.COMPRESS) != 0) {
+      CompressionPlugin compression =
+          conf.useCompression()
+              ? CompressionPluginLoader.negotiate(conf, clientCapabilities)
+              : null;
+      if (compression != null) {
         assignStream(
-            new CompressOutputStream(out, compressionSequence),
-            new CompressInputStream(in, compressionSequence),
+            new CompressOutputStream(
+                out,
+                compressionSequence,
+                compression.compressor(conf),
+                conf.compressionThreshold(),
+                conf.adaptiveCompression()),
+            new CompressInputStream(in, compressionSequence, compression.decompressor(conf)),
             conf,
             handshake.getThreadId());
       }
@@ -938,6 +950,18 @@ public class StandardClient implements Client, AutoCloseable {
     return closed;
   }
 
+  public boolean isSocketAlive() {
+    if (closed || socket.isClosed() || socket.isInputShutdown() || socket.isOutputShutdown()) {
+      return false;
+    }
+    try {
+      // idle connection must not have any pending data
+      return reader.available() == 0;
+    } catch (IOException ioe) {
+      return false;
+    }
+  }
+
   public Context getContext() {
     return context;
   }
@@ -19,6 +19,9 @@ public final class StandardReadableByteBuf implements ReadableByteBuf {
   /** current position reading buffer */
   public int pos;
 
+  /** data start position, when buffer is a slice of a bigger array */
+  private int offset;
+
   /**
    * Packet buffer constructor
    *
@@ -58,6 +61,30 @@ public final class StandardReadableByteBuf implements ReadableByteBuf {
     this.buf = buf;
     this.limit = limit;
     this.pos = pos;
+    this.offset = 0;
+  }
+
+  /**
+   * Set buffer to a slice of an array.
+   *
+   * @param buf array
+   * @param offset slice start position
+   * @param length slice length
+   */
+  public void slice(byte[] buf, int offset, int length) {
+    this.buf = buf;
+    this.offset = offset;
+    this.pos = offset;
+    this.limit = offset + length;
+  }
+
+  /**
+   * Data start position: 0, or slice start position
+   *
+   * @return start position
+   */
+  public int offset() {
+    return offset;
   }
 
   public void pos(int pos) {
@@ -0,0 +1,123 @@
+// SPDX-License-Identifier: LGPL-2.1-or-later
+// Copyright (c) 2012-2014 Monty Program Ab
+// Copyright (c) 2015-2021 MariaDB Corporation Ab
+
+package org.mariadb.jdbc.client.result;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.mariadb.jdbc.client.ColumnDecoder;
+import org.mariadb.jdbc.client.ReadableByteBuf;
+import org.mariadb.jdbc.client.impl.StandardReadableByteBuf;
+
+/**
+ * Result-set column definitions cache, shared by all connections of the JVM.
+ *
+ * <p>Column decoders are interned by column definition bytes: a column definition packet is hashed,
+ * and cached decoder is only reused when server sends exactly the same bytes. Result-sets with the
+ * same interned columns then share the same columns array, and the same label index.
+ *
+ * <p>Both tables are direct-mapped with a fixed number of slots: a new entry replaces the one
+ * having the same slot, so cache is bounded and lookups don't allocate.
+ */
+public final class ColumnDefinitionCache {
+
+  /** number of cached column definitions, for each column format */
+  static final int COLUMN_SLOTS = 8192;
+
+  /** number of cached result-set shapes */
+  static final int SHAPE_SLOTS = 1024;
+
+  private static final AtomicReferenceArray<ColumnDecoder> columns =
+      new AtomicReferenceArray<>(COLUMN_SLOTS);
+  private static final AtomicReferenceArray<ColumnDecoder> extendedColumns =
+      new AtomicReferenceArray<>(COLUMN_SLOTS);
+  private static final AtomicReferenceArray<Shape> shapes = new AtomicReferenceArray<>(SHAPE_SLOTS);
+
+  private ColumnDefinitionCache() {}
+
+  /**
+   * Get column decoder of a column definition packet. Packet buffer is not retained, so it can be a
+   * reusable buffer.
+   *
+   * @param packet column definition packet
+   * @param extendedInfo server sends extended type information
+   * @return interned column decoder
+   */
+  public static ColumnDecoder column(ReadableByteBuf packet, boolean extendedInfo) {
+    AtomicReferenceArray<ColumnDecoder> table = extendedInfo ? extendedColumns : columns;
+    int slot = hash(packet) & (COLUMN_SLOTS - 1);
+    ColumnDecoder cached = table.get(slot);
+    if (cached != null && cached.hasSameDefinition(packet)) return cached;
+
+    byte[] bytes = new byte[packet.readableBytes()];
+    System.arraycopy(packet.buf(), packet.pos(), bytes, 0, bytes.length);
+    ColumnDecoder column = ColumnDecoder.decode(new StandardReadableByteBuf(bytes), extendedInfo);
+    table.set(slot, column);
+    return column;
+  }
+
+  /**
+   * Get interned columns array having the same column decoders, or cache this one.
+   *
+   * @param columns interned column decoders
+   * @return cached array with identical decoders, or columns array
+   */
+  public static ColumnDecoder[] shape(ColumnDecoder[] columns) {
+    int slot = identityHash(columns) & (SHAPE_SLOTS - 1);
+    Shape shape = shapes.get(slot);
+    if (shape != null && shape.matches(columns)) return shape.columns;
+    shapes.set(slot, new Shape(columns));
+    return columns;
+  }
+
+  /**
+   * Get label index of columns, shared by result-sets if columns array is interned.
+   *
+   * @param columns result-set columns
+   * @return label index
+   */
+  public static ColumnLabelIndex labelIndex(ColumnDecoder[] columns) {
+    Shape shape = shapes.get(identityHash(columns) & (SHAPE_SLOTS - 1));
+    if (shape == null || shape.columns != columns) return new ColumnLabelIndex(columns);
+    ColumnLabelIndex index = shape.labelIndex;
+    if (index == null) {
+      // concurrent builds are harmless, index being immutable
+      index = new ColumnLabelIndex(columns);
+      shape.labelIndex = index;
+    }
+    return index;
+  }
+
+  private static int hash(ReadableByteBuf packet) {
+    byte[] bytes = packet.buf();
+    int h = 1;
+    for (int i = packet.pos(), end = packet.pos() + packet.readableBytes(); i < end; i++) {
+      h = 31 * h + bytes[i];
+    }
+    return h ^ (h >>> 16);
+  }
+
+  private static int identityHash(ColumnDecoder[] columns) {
+    int h = columns.length;
+    for (ColumnDecoder column : columns) h = 31 * h + System.identityHashCode(column);
+    return h ^ (h >>> 16);
+  }
+
+  /** Interned columns array */
+  private static final class Shape {
+    private final ColumnDecoder[] columns;
+    private volatile ColumnLabelIndex labelIndex;
+
+    Shape(ColumnDecoder[] columns) {
+      this.columns = columns;
+    }
+
+    boolean matches(ColumnDecoder[] other) {
+      if (columns.length != other.length) return false;
+      for (int i = 0; i < columns.length; i++) {
+        if (columns[i] != other[i]) return false;
+      }
+      return true;
+    }
+  }
+}
@@ -0,0 +1,131 @@
+// SPDX-License-Identifier: LGPL-2.1-or-later
+// Copyright (c) 2012-2014 Monty Program Ab
+// Copyright (c) 2015-2021 MariaDB Corporation Ab
+
+package org.mariadb.jdbc.client.result;
+
+import java.util.*;
+import org.mariadb.jdbc.client.Column;
+
+/**
+ * Case-insensitive index of column labels: column alias and "table.alias" to column index.
+ *
+ * <p>Index is immutable once built, so it can be shared by all results having the same columns
+ * metadata. Lookup folds label case while hashing and comparing, so no lower-case label is
+ * allocated for each access.
+ */
+public final class ColumnLabelIndex {
+
+  private final Column[] columns;
+
+  /** lower-case labels, in insertion order */
+  private final String[] labels;
+
+  private final int labelCount;
+
+  /** open addressing hash table of label position, -1 if empty */
+  private final int[] slots;
+
+  private final int[] indexes;
+
+  /**
+   * Constructor
+   *
+   * @param columns columns metadata
+   */
+  public ColumnLabelIndex(Column[] columns) {
+    this.columns = columns;
+    this.labels = new String[columns.length * 2];
+    this.indexes = new int[columns.length * 2];
+
+    int capacity = Integer.highestOneBit(Math.max(labels.length, 1) * 2 - 1) << 1;
+    this.slots = new int[capacity];
+    Arrays.fill(slots, -1);
+
+    int count = 0;
+    for (int i = 0; i < columns.length; i++) {
+      Column ci = columns[i];
+      String columnAlias = ci.getColumnAlias();
+      if (columnAlias != null) {
+        columnAlias = columnAlias.toLowerCase(Locale.ROOT);
+        count = add(columnAlias, i + 1, count);
+        String tableAlias = ci.getTableAlias();
+        String tableLabel = tableAlias != null ? tableAlias : ci.getTable();
+        count = add(tableLabel.toLowerCase(Locale.ROOT) + "." + columnAlias, i + 1, count);
+      }
+    }
+    this.labelCount = count;
+  }
+
+  private int add(String label, int index, int count) {
+    int mask = slots.length - 1;
+    int slot = hash(label) & mask;
+    while (slots[slot] != -1) {
+      // first label wins
+      if (labels[slots[slot]].equalsIgnoreCase(label)) return count;
+      slot = (slot + 1) & mask;
+    }
+    labels[count] = label;
+    indexes[count] = index;
+    slots[slot] = count;
+    return count + 1;
+  }
+
+  /**
+   * Indicate if index has been built for these columns
+   *
+   * @param columns columns metadata
+   * @return true if same columns array
+   */
+  public boolean isFor(Column[] columns) {
+    return this.columns == columns;
+  }
+
+  /**
+   * Get column index of a label, case-insensitive.
+   *
+   * @param label column label
+   * @return column index (starting at 1), or -1 if not found
+   */
+  public int indexOf(String label) {
+    int mask = slots.length - 1;
+    int slot = hash(label) & mask;
+    int position;
+    while ((position = slots[slot]) != -1) {
+      if (labels[position].equalsIgnoreCase(label)) return indexes[position];
+      slot = (slot + 1) & mask;
+    }
+    return -1;
+  }
+
+  /**
+   * Known labels, for error messages.
+   *
+   * @return labels
+   */
+  public Set<String> labels() {
+    Set<String> set = new HashSet<>();
+    for (int i = 0; i < labelCount; i++) set.add(labels[i]);
+    return set;
+  }
+
+  /**
+   * Case-insensitive hash, consistent with {@link String#equalsIgnoreCase(String)}.
+   *
+   * @param label label
+   * @return hash
+   */
+  private static int hash(String label) {
+    int h = 0;
+    for (int i = 0; i < label.length(); i++) {
+      char c = label.charAt(i);
+      if (c < 0x80) {
+        if (c >= 'A' && c <= 'Z') c += 'a' - 'A';
+      } else {
+        c = Character.toLowerCase(Character.toUpperCase(c));
+      }
+      h = 31 * h + c;
+    }
+    return h ^ (h >>> 16);
+  }
+}
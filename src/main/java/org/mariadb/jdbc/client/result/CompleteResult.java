@@ -49,6 +49,49 @@ public class CompleteResult extends Result {
       boolean closeOnCompletion,
       boolean traceEnable)
       throws IOException, SQLException {
+    this(
+        stmt,
+        binaryProtocol,
+        maxRows,
+        metadataList,
+        reader,
+        context,
+        resultSetType,
+        closeOnCompletion,
+        traceEnable,
+        context.getConf().resultSetChunkedRows()
+            || context.getConf().resultSetOffHeapThreshold() > 0
+            || context.getConf().resultSetFileThreshold() > 0);
+  }
+
+  /**
+   * Constructor from exchanges
+   *
+   * @param stmt current statement
+   * @param binaryProtocol does exchanges uses binary protocol
+   * @param maxRows maximum number of rows
+   * @param metadataList metadata
+   * @param reader packet reader
+   * @param context connection context
+   * @param resultSetType result set type
+   * @param closeOnCompletion close statement on completion
+   * @param traceEnable network trace exchange possible
+   * @param useArena store rows in contiguous chunks. Rows are then read-only
+   * @throws IOException if Socket error occurs
+   * @throws SQLException for all other kind of errors
+   */
+  protected CompleteResult(
+      Statement stmt,
+      boolean binaryProtocol,
+      long maxRows,
+      ColumnDecoder[] metadataList,
+      Reader reader,
+      Context context,
+      int resultSetType,
+      boolean closeOnCompletion,
+      boolean traceEnable,
+      boolean useArena)
+      throws IOException, SQLException {
 
     super(
         stmt,
@@ -60,7 +103,14 @@ public class CompleteResult extends Result {
         resultSetType,
         closeOnCompletion,
         traceEnable);
-    this.data = new byte[10][];
+    if (useArena) {
+      this.arena =
+          new RowArena(
+              context.getConf().resultSetOffHeapThreshold(),
+              context.getConf().resultSetFileThreshold());
+    } else {
+      this.data = new byte[10][];
+    }
     if (maxRows > 0) {
       while (readNext() && dataSize < maxRows) {}
       if (!loaded) skipRemaining();
@@ -152,7 +202,7 @@ public class CompleteResult extends Result {
   @Override
   public boolean next() throws SQLException {
     if (rowPointer < dataSize - 1) {
-      setRow(data[++rowPointer]);
+      setRowAt(++rowPointer);
       return true;
     } else {
       // all data are reads and pointer is after last
@@ -173,6 +223,7 @@ public class CompleteResult extends Result {
   @Override
   public void closeFromStmtClose(ReentrantLock lock) {
     this.closed = true;
+    if (arena != null) arena.close();
   }
 
   @Override
@@ -224,7 +275,7 @@ public class CompleteResult extends Result {
       setNullRowBuf();
       return false;
     }
-    setRow(data[rowPointer]);
+    setRowAt(rowPointer);
     return true;
   }
 
@@ -236,7 +287,7 @@ public class CompleteResult extends Result {
       setNullRowBuf();
       return false;
     }
-    setRow(data[rowPointer]);
+    setRowAt(rowPointer);
     return true;
   }
 
@@ -257,13 +308,13 @@ public class CompleteResult extends Result {
 
     if (idx > 0) {
       rowPointer = idx - 1;
-      setRow(data[rowPointer]);
+      setRowAt(rowPointer);
       return true;
     } else {
       if (dataSize + idx >= 0) {
         // absolute position reverse from ending resultSet
         rowPointer = dataSize + idx;
-        setRow(data[rowPointer]);
+        setRowAt(rowPointer);
         return true;
       }
       rowPointer = BEFORE_FIRST_POS;
@@ -286,7 +337,7 @@ public class CompleteResult extends Result {
       return false;
     } else {
       rowPointer = newPos;
-      setRow(data[rowPointer]);
+      setRowAt(rowPointer);
       return true;
     }
   }
@@ -297,7 +348,7 @@ public class CompleteResult extends Result {
     if (rowPointer > BEFORE_FIRST_POS) {
       rowPointer--;
       if (rowPointer != BEFORE_FIRST_POS) {
-        setRow(data[rowPointer]);
+        setRowAt(rowPointer);
         return true;
       }
     }
@@ -12,10 +12,12 @@ import java.math.BigInteger;
 import java.math.RoundingMode;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.sql.*;
 import java.sql.Date;
 import java.util.*;
 import java.util.concurrent.locks.ReentrantLock;
+import org.mariadb.jdbc.BasePreparedStatement;
 import org.mariadb.jdbc.Configuration;
 import org.mariadb.jdbc.client.*;
 import org.mariadb.jdbc.client.impl.StandardReadableByteBuf;
@@ -23,19 +25,26 @@ import org.mariadb.jdbc.client.result.rowdecoder.BinaryRowDecoder;
 import org.mariadb.jdbc.client.result.rowdecoder.RowDecoder;
 import org.mariadb.jdbc.client.result.rowdecoder.TextRowDecoder;
 import org.mariadb.jdbc.client.util.MutableInt;
+import org.mariadb.jdbc.export.ColumnBatch;
+import org.mariadb.jdbc.export.ColumnBatchResultSet;
 import org.mariadb.jdbc.export.ExceptionFactory;
+import org.mariadb.jdbc.export.Prepare;
 import org.mariadb.jdbc.message.server.ErrorPacket;
+import org.mariadb.jdbc.message.server.PrepareResultPacket;
 import org.mariadb.jdbc.plugin.Codec;
 import org.mariadb.jdbc.plugin.codec.*;
 import org.mariadb.jdbc.util.constants.ServerStatus;
 
 /** Result-set common */
-public abstract class Result implements ResultSet, Completion {
+public abstract class Result implements ColumnBatchResultSet, Completion {
   private static BinaryRowDecoder BINARY_ROW_DECODER = new BinaryRowDecoder();
   private static TextRowDecoder TEXT_ROW_DECODER = new TextRowDecoder();
   /** null length value */
   public static final int NULL_LENGTH = -1;
 
+  /** server error code of a killed query */
+  private static final int ER_QUERY_INTERRUPTED = 1317;
+
   private final int maxIndex;
   private final boolean closeOnCompletion;
   private boolean forceAlias;
@@ -65,6 +74,9 @@ public abstract class Result implements ResultSet, Completion {
   /** rows */
   protected byte[][] data;
 
+  /** rows, when stored in contiguous chunks in place of {@link #data} */
+  protected RowArena arena;
+
   private byte[] nullBitmap;
 
   /** reusable row buffer decoder */
@@ -75,7 +87,14 @@ public abstract class Result implements ResultSet, Completion {
   /** mutable field index */
   protected MutableInt fieldIndex = new MutableInt();
 
-  private Map<String, Integer> mapper = null;
+  private ColumnLabelIndex labelIndex;
+  private String lastLabel;
+  private int lastLabelIndex;
+
+  /** last requested type of each column, and corresponding codec */
+  private Class<?>[] codecTypes;
+
+  private Codec<?>[] columnCodecs;
 
   /** is fully loaded */
   protected boolean loaded;
@@ -166,20 +185,44 @@ public abstract class Result implements ResultSet, Completion {
    * @throws IOException if any socket error occurs
    * @throws SQLException for all other type of errors
    */
-  @SuppressWarnings("fallthrough")
   protected boolean readNext() throws IOException, SQLException {
-    byte[] buf = reader.readPacket(traceEnable);
-    switch (buf[0]) {
+    // rows stored in arena are copied from reusable buffer, avoiding an array per row
+    ReadableByteBuf readBuf = readRowPacket(arena != null);
+    if (readBuf == null) return false;
+    if (arena != null) {
+      arena.add(readBuf.buf(), readBuf.pos(), readBuf.readableBytes());
+      dataSize++;
+    } else {
+      addRowData(readBuf.buf());
+    }
+    return true;
+  }
+
+  /**
+   * Read next row packet.
+   *
+   * @param reusable read packet in reader reusable buffer. If false, packet buffer is an array of
+   *     packet length
+   * @return row packet, or null if end of result-set has been reached
+   * @throws IOException if any socket error occurs
+   * @throws SQLException for all other type of errors
+   */
+  @SuppressWarnings("fallthrough")
+  protected ReadableByteBuf readRowPacket(boolean reusable) throws IOException, SQLException {
+    ReadableByteBuf readBuf =
+        reusable
+            ? reader.readReusablePacket(traceEnable)
+            : reader.readableBufFromArray(reader.readPacket(traceEnable));
+    switch (readBuf.getByte()) {
       case (byte) 0xFF:
         loaded = true;
-        ErrorPacket errorPacket = new ErrorPacket(reader.readableBufFromArray(buf), context);
+        ErrorPacket errorPacket = new ErrorPacket(readBuf, context);
         throw exceptionFactory.create(
             errorPacket.getMessage(), errorPacket.getSqlState(), errorPacket.getErrorCode());
 
       case (byte) 0xFE:
-        if ((context.isEofDeprecated() && buf.length < 16777215)
-            || (!context.isEofDeprecated() && buf.length < 8)) {
-          ReadableByteBuf readBuf = reader.readableBufFromArray(buf);
+        if ((context.isEofDeprecated() && readBuf.readableBytes() < 16777215)
+            || (!context.isEofDeprecated() && readBuf.readableBytes() < 8)) {
           readBuf.skip(); // skip header
           int serverStatus;
           int warnings;
@@ -199,66 +242,96 @@ public abstract class Result implements ResultSet, Completion {
           context.setServerStatus(serverStatus);
           context.setWarning(warnings);
           loaded = true;
-          return false;
+          return null;
         }
 
         // continue reading rows
 
       default:
-        if (dataSize + 1 > data.length) {
-          growDataArray();
-        }
-        data[dataSize++] = buf;
+        return readBuf;
     }
-    return true;
   }
 
   /**
-   * Skip remaining rows to keep connection state ok, without needing remaining data.
+   * Skip remaining rows to keep connection state ok, without needing remaining data. Row packets
+   * are discarded without being copied, only ERR and EOF/OK packets are parsed.
+   *
+   * <p>With option `killQueryOnSkipThreshold`, once this number of rows has been skipped, query is
+   * cancelled, so server stops sending rows. Resulting "query execution was interrupted" error then
+   * ends result-set normally.
    *
    * @throws IOException if socket error occurs
    * @throws SQLException for other kind of error
    */
   @SuppressWarnings("fallthrough")
   protected void skipRemaining() throws IOException, SQLException {
+    int eofMaxLength = context.isEofDeprecated() ? 0xffffff : 8;
+    int killThreshold = statement == null ? 0 : context.getConf().killQueryOnSkipThreshold();
+    long skippedRows = 0;
+    boolean killed = false;
     while (true) {
-      ReadableByteBuf buf = reader.readReusablePacket(traceEnable);
-      switch (buf.getUnsignedByte()) {
-        case 0xFF:
-          loaded = true;
-          ErrorPacket errorPacket = new ErrorPacket(buf, context);
-          throw exceptionFactory.create(
-              errorPacket.getMessage(), errorPacket.getSqlState(), errorPacket.getErrorCode());
-
-        case 0xFE:
-          if ((context.isEofDeprecated() && buf.readableBytes() < 0xffffff)
-              || (!context.isEofDeprecated() && buf.readableBytes() < 8)) {
-
-            buf.skip(); // skip header
-            int serverStatus;
-            int warnings;
-
-            if (!context.isEofDeprecated()) {
-              // EOF_Packet
-              warnings = buf.readUnsignedShort();
-              serverStatus = buf.readUnsignedShort();
-            } else {
-              // OK_Packet with a 0xFE header
-              buf.readLongLengthEncodedNotNull(); // skip update count
-              buf.readLongLengthEncodedNotNull(); // skip insert id
-              serverStatus = buf.readUnsignedShort();
-              warnings = buf.readUnsignedShort();
-            }
-            outputParameter = (serverStatus & ServerStatus.PS_OUT_PARAMETERS) != 0;
-            context.setServerStatus(serverStatus);
-            context.setWarning(warnings);
+      ReadableByteBuf buf = reader.skipRowPacket(traceEnable, eofMaxLength);
+      if (buf != null) {
+        switch (buf.getUnsignedByte()) {
+          case 0xFF:
             loaded = true;
-            return;
-          }
+            ErrorPacket errorPacket = new ErrorPacket(buf, context);
+            if (killed && errorPacket.getErrorCode() == ER_QUERY_INTERRUPTED) {
+              context.setServerStatus(
+                  context.getServerStatus() & ~ServerStatus.MORE_RESULTS_EXISTS);
+              return;
+            }
+            throw exceptionFactory.create(
+                errorPacket.getMessage(), errorPacket.getSqlState(), errorPacket.getErrorCode());
+
+          case 0xFE:
+            if (buf.readableBytes() < eofMaxLength) {
+              buf.skip(); // skip header
+              int serverStatus;
+              int warnings;
+
+              if (!context.isEofDeprecated()) {
+                // EOF_Packet
+                warnings = buf.readUnsignedShort();
+                serverStatus = buf.readUnsignedShort();
+              } else {
+                // OK_Packet with a 0xFE header
+                buf.readLongLengthEncodedNotNull(); // skip update count
+                buf.readLongLengthEncodedNotNull(); // skip insert id
+                serverStatus = buf.readUnsignedShort();
+                warnings = buf.readUnsignedShort();
+              }
+              outputParameter = (serverStatus & ServerStatus.PS_OUT_PARAMETERS) != 0;
+              context.setServerStatus(serverStatus);
+              context.setWarning(warnings);
+              loaded = true;
+              return;
+            }
+        }
+      }
+
+      // row skipped
+      if (killThreshold > 0 && !killed && ++skippedRows >= killThreshold) {
+        killed = killQuery();
       }
     }
   }
 
+  /**
+   * Cancel current query, using a KILL QUERY command on a new connection.
+   *
+   * @return true if query has been cancelled
+   */
+  private boolean killQuery() {
+    try {
+      statement.getConnection().unwrap(org.mariadb.jdbc.Connection.class).cancelCurrentQuery();
+      return true;
+    } catch (SQLException e) {
+      // continue skipping rows
+      return false;
+    }
+  }
+
   /** Grow data array. */
   private void growDataArray() {
     int newCapacity = data.length + (data.length >> 1);
@@ -276,6 +349,60 @@ public abstract class Result implements ResultSet, Completion {
   @Override
   public abstract boolean next() throws SQLException;
 
+  @Override
+  public ColumnBatch nextBatch(int rows) throws SQLException {
+    ResultColumnBatch batch = new ResultColumnBatch(metadataList, rows);
+    nextBatch(batch);
+    return batch;
+  }
+
+  @Override
+  public int nextBatch(ColumnBatch columnBatch) throws SQLException {
+    if (!(columnBatch instanceof ResultColumnBatch)
+        || !((ResultColumnBatch) columnBatch).isFor(metadataList)) {
+      throw new SQLException("Batch has not been created for this result-set columns");
+    }
+    ResultColumnBatch batch = (ResultColumnBatch) columnBatch;
+    batch.clear();
+    boolean binary = rowDecoder == BINARY_ROW_DECODER;
+    int row = 0;
+    while (row < batch.capacity() && next()) {
+      for (int i = 0; i < maxIndex; i++) {
+        int length =
+            rowDecoder.setPosition(i, fieldIndex, maxIndex, rowBuf, nullBitmap, metadataList);
+        if (length == NULL_LENGTH) {
+          batch.setNull(i, row);
+          continue;
+        }
+        fieldLength.set(length);
+        switch (batch.kind(i)) {
+          case LONG:
+            batch.setLong(
+                i, row, rowDecoder.decodeLong(metadataList, fieldIndex, rowBuf, fieldLength));
+            break;
+          case DOUBLE:
+            batch.setDouble(
+                i, row, rowDecoder.decodeDouble(metadataList, fieldIndex, rowBuf, fieldLength));
+            break;
+          default:
+            if (binary && batch.binaryEncoded(i)) {
+              byte[] value =
+                  rowDecoder
+                      .decodeString(metadataList, fieldIndex, rowBuf, fieldLength)
+                      .getBytes(StandardCharsets.UTF_8);
+              batch.setBytes(i, row, value, 0, value.length);
+            } else {
+              batch.setBytes(i, row, rowBuf.buf, rowBuf.pos(), length);
+              rowBuf.skip(length);
+            }
+            break;
+        }
+      }
+      batch.setSize(++row);
+    }
+    return row;
+  }
+
   /**
    * Indicate of current result-set is a streaming result-set
    *
@@ -323,6 +450,7 @@ public abstract class Result implements ResultSet, Completion {
       }
     }
     this.closed = true;
+    if (arena != null) arena.close();
     if (closeOnCompletion) {
       statement.close();
     }
@@ -355,7 +483,7 @@ public abstract class Result implements ResultSet, Completion {
    * @return current row RAW data
    */
   protected byte[] getCurrentRowData() {
-    return data[0];
+    return arena != null ? arena.getRow(0) : data[0];
   }
 
   /**
@@ -385,6 +513,14 @@ public abstract class Result implements ResultSet, Completion {
     }
   }
 
+  /**
+   * Value returned references current row buffer (blob, clob, stream): row arena must not reuse
+   * this buffer for next rows.
+   */
+  private void retainRow() {
+    if (arena != null) arena.retainRow();
+  }
+
   private void checkIndex(int index) throws SQLException {
     if (index < 1 || index > maxIndex) {
       throw new SQLException(
@@ -608,6 +744,7 @@ public abstract class Result implements ResultSet, Completion {
     if (fieldLength.get() == NULL_LENGTH) {
       return null;
     }
+    retainRow();
     return rowDecoder.decode(
         StreamCodec.INSTANCE, null, rowBuf, fieldLength, metadataList, fieldIndex);
   }
@@ -622,6 +759,7 @@ public abstract class Result implements ResultSet, Completion {
     if (fieldLength.get() == NULL_LENGTH) {
       return null;
     }
+    retainRow();
     return rowDecoder.decode(
         StreamCodec.INSTANCE, null, rowBuf, fieldLength, metadataList, fieldIndex);
   }
@@ -635,6 +773,7 @@ public abstract class Result implements ResultSet, Completion {
     if (fieldLength.get() == NULL_LENGTH) {
       return null;
     }
+    retainRow();
     return rowDecoder.decode(
         StreamCodec.INSTANCE, null, rowBuf, fieldLength, metadataList, fieldIndex);
   }
@@ -755,8 +894,10 @@ public abstract class Result implements ResultSet, Completion {
     if (fieldLength.get() == NULL_LENGTH) {
       return null;
     }
-    return rowDecoder.defaultDecode(
-        context.getConf(), metadataList, fieldIndex, rowBuf, fieldLength);
+    Object value =
+        rowDecoder.defaultDecode(context.getConf(), metadataList, fieldIndex, rowBuf, fieldLength);
+    if (value instanceof Blob) retainRow();
+    return value;
   }
 
   @Override
@@ -1140,11 +1281,11 @@ public abstract class Result implements ResultSet, Completion {
     statement = stmt;
   }
 
-  /** Force using alias as name */
+  /**
+   * Force using alias as name. Columns may be shared with other results, so they are left
+   * unchanged: metadata applies alias when forced.
+   */
   public void useAliasAsName() {
-    for (Column packet : metadataList) {
-      packet.useAliasAsName();
-    }
     forceAlias = true;
   }
 
@@ -1171,6 +1312,7 @@ public abstract class Result implements ResultSet, Completion {
     if (fieldLength.get() == NULL_LENGTH) {
       return null;
     }
+    retainRow();
     return rowDecoder.decode(
         BlobCodec.INSTANCE, null, rowBuf, fieldLength, metadataList, fieldIndex);
   }
@@ -1184,6 +1326,7 @@ public abstract class Result implements ResultSet, Completion {
     if (fieldLength.get() == NULL_LENGTH) {
       return null;
     }
+    retainRow();
     return rowDecoder.decode(
         ClobCodec.INSTANCE, null, rowBuf, fieldLength, metadataList, fieldIndex);
   }
@@ -1398,6 +1541,7 @@ public abstract class Result implements ResultSet, Completion {
     if (fieldLength.get() == NULL_LENGTH) {
       return null;
     }
+    retainRow();
     return (NClob)
         rowDecoder.decode(ClobCodec.INSTANCE, null, rowBuf, fieldLength, metadataList, fieldIndex);
   }
@@ -1620,20 +1764,53 @@ public abstract class Result implements ResultSet, Completion {
     ColumnDecoder column = metadataList[columnIndex - 1];
     // type generic, return "natural" java type
     if (Object.class.equals(type) || type == null) {
-      return (T) rowDecoder.defaultDecode(conf, metadataList, fieldIndex, rowBuf, fieldLength);
+      Object value = rowDecoder.defaultDecode(conf, metadataList, fieldIndex, rowBuf, fieldLength);
+      if (value instanceof Blob) retainRow();
+      return (T) value;
     }
 
-    for (Codec<?> codec : conf.codecs()) {
-      if (codec.canDecode(column, type)) {
-        return rowDecoder.decode(
-            (Codec<T>) codec, calendar, rowBuf, fieldLength, metadataList, fieldIndex);
+    Codec<T> codec = (Codec<T>) decodingCodec(columnIndex - 1, column, type, conf);
+    if (codec != null) {
+      T value = rowDecoder.decode(codec, calendar, rowBuf, fieldLength, metadataList, fieldIndex);
+      if (value instanceof Blob || value instanceof Clob || value instanceof InputStream) {
+        retainRow();
       }
+      return value;
     }
     rowBuf.skip(fieldLength.get());
     throw new SQLException(
         String.format("Type %s not supported type for %s type", type, column.getType().name()));
   }
 
+  /**
+   * Get codec decoding column to requested type. Resolution is memoized for each column, so codecs
+   * are only searched when requested type changes.
+   *
+   * @param index column index (starting at 0)
+   * @param column column metadata
+   * @param type requested type
+   * @param conf configuration
+   * @return codec, or null if no codec can decode column to requested type
+   */
+  private Codec<?> decodingCodec(
+      int index, ColumnDecoder column, Class<?> type, Configuration conf) {
+    if (codecTypes == null) {
+      codecTypes = new Class<?>[maxIndex];
+      columnCodecs = new Codec<?>[maxIndex];
+    } else if (codecTypes[index] == type) {
+      return columnCodecs[index];
+    }
+
+    for (Codec<?> codec : conf.codecs()) {
+      if (codec.canDecode(column, type)) {
+        codecTypes[index] = type;
+        columnCodecs[index] = codec;
+        return codec;
+      }
+    }
+    return null;
+  }
+
   @Override
   public <T> T getObject(String columnLabel, Class<T> type) throws SQLException {
     return getObject(findColumn(columnLabel), type);
@@ -1680,6 +1857,20 @@ public abstract class Result implements ResultSet, Completion {
     rowBuf.buf(null, 0, 0);
   }
 
+  /**
+   * set row decoder to indicated row
+   *
+   * @param index row index
+   */
+  protected void setRowAt(int index) {
+    if (arena != null) {
+      arena.setRow(index, rowBuf);
+      fieldIndex.set(-1);
+    } else {
+      setRow(data[index]);
+    }
+  }
+
   /**
    * set row decoder to current row data
    *
@@ -1692,25 +1883,27 @@ public abstract class Result implements ResultSet, Completion {
 
   public int findColumn(String label) throws SQLException {
     if (label == null) throw new SQLException("null is not a valid label value");
-    if (mapper == null) {
-      mapper = new HashMap<>();
-      for (int i = 0; i < maxIndex; i++) {
-        Column ci = metadataList[i];
-        String columnAlias = ci.getColumnAlias();
-        if (columnAlias != null) {
-          columnAlias = columnAlias.toLowerCase(Locale.ROOT);
-          mapper.putIfAbsent(columnAlias, i + 1);
-          String tableAlias = ci.getTableAlias();
-          String tableLabel = tableAlias != null ? tableAlias : ci.getTable();
-          mapper.putIfAbsent(tableLabel.toLowerCase(Locale.ROOT) + "." + columnAlias, i + 1);
-        }
+    // same label instance is generally used for each row
+    if (label == lastLabel) return lastLabelIndex;
+    if (labelIndex == null) {
+      if (statement instanceof BasePreparedStatement) {
+        // index is built once for prepared columns, then shared by all results using them
+        Prepare prepare = ((BasePreparedStatement) statement).getPrepareResult();
+        labelIndex =
+            prepare instanceof PrepareResultPacket && prepare.getColumns() == metadataList
+                ? ((PrepareResultPacket) prepare).getColumnLabelIndex()
+                : new ColumnLabelIndex(metadataList);
+      } else {
+        labelIndex = ColumnDefinitionCache.labelIndex(metadataList);
       }
     }
-    Integer ind = mapper.get(label.toLowerCase(Locale.ROOT));
-    if (ind == null) {
-      String keys = Arrays.toString(mapper.keySet().toArray(new String[0]));
+    int ind = labelIndex.indexOf(label);
+    if (ind == -1) {
+      String keys = Arrays.toString(labelIndex.labels().toArray(new String[0]));
       throw new SQLException(String.format("Unknown label '%s'. Possible value %s", label, keys));
     }
+    lastLabel = label;
+    lastLabelIndex = ind;
     return ind;
   }
 }
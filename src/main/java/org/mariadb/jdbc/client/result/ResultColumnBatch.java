@@ -0,0 +1,214 @@
+// SPDX-License-Identifier: LGPL-2.1-or-later
+// Copyright (c) 2012-2014 Monty Program Ab
+// Copyright (c) 2015-2021 MariaDB Corporation Ab
+
+package org.mariadb.jdbc.client.result;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import org.mariadb.jdbc.client.ColumnDecoder;
+import org.mariadb.jdbc.export.ColumnBatch;
+
+/** Column batch of a result-set, filled by {@link Result#nextBatch(ColumnBatch)}. */
+public final class ResultColumnBatch implements ColumnBatch {
+
+  private final ColumnDecoder[] columns;
+  private final int capacity;
+  private final Kind[] kinds;
+  private final long[][] longs;
+  private final double[][] doubles;
+  private final int[][] offsets;
+  private final byte[][] data;
+  private final long[][] nulls;
+  private int size;
+
+  /**
+   * Constructor
+   *
+   * @param columns result-set columns
+   * @param capacity maximum number of rows
+   */
+  public ResultColumnBatch(ColumnDecoder[] columns, int capacity) {
+    if (capacity <= 0) throw new IllegalArgumentException("batch capacity must be positive");
+    this.columns = columns;
+    this.capacity = capacity;
+    this.kinds = new Kind[columns.length];
+    this.longs = new long[columns.length][];
+    this.doubles = new double[columns.length][];
+    this.offsets = new int[columns.length][];
+    this.data = new byte[columns.length][];
+    this.nulls = new long[columns.length][];
+    for (int i = 0; i < columns.length; i++) {
+      kinds[i] = kind(columns[i]);
+      switch (kinds[i]) {
+        case LONG:
+          longs[i] = new long[capacity];
+          break;
+        case DOUBLE:
+          doubles[i] = new double[capacity];
+          break;
+        default:
+          offsets[i] = new int[capacity + 1];
+          data[i] = new byte[Math.min(capacity, 1024) * 16];
+          break;
+      }
+      nulls[i] = new long[(capacity + 63) >>> 6];
+    }
+  }
+
+  private static Kind kind(ColumnDecoder column) {
+    switch (column.getType()) {
+      case TINYINT:
+      case SMALLINT:
+      case MEDIUMINT:
+      case INTEGER:
+      case YEAR:
+        return Kind.LONG;
+      case BIGINT:
+        // unsigned values above Long.MAX_VALUE don't fit in a long
+        return column.isSigned() ? Kind.LONG : Kind.BYTES;
+      case FLOAT:
+      case DOUBLE:
+        return Kind.DOUBLE;
+      default:
+        return Kind.BYTES;
+    }
+  }
+
+  /**
+   * Indicate if bytes column value is encoded in binary result-sets, and must then be decoded to
+   * its string representation.
+   *
+   * @param column column index
+   * @return true for temporal and unsigned BIGINT columns
+   */
+  boolean binaryEncoded(int column) {
+    switch (columns[column].getType()) {
+      case BIGINT:
+      case DATE:
+      case NEWDATE:
+      case TIME:
+      case DATETIME:
+      case TIMESTAMP:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Indicate if batch has been created for these columns
+   *
+   * @param columns columns metadata
+   * @return true if same columns array
+   */
+  boolean isFor(ColumnDecoder[] columns) {
+    return this.columns == columns;
+  }
+
+  /** Empty batch before filling it. */
+  void clear() {
+    size = 0;
+    for (long[] bitmap : nulls) Arrays.fill(bitmap, 0L);
+  }
+
+  void setNull(int column, int row) {
+    nulls[column][row >>> 6] |= 1L << row;
+    switch (kinds[column]) {
+      case LONG:
+        longs[column][row] = 0L;
+        break;
+      case DOUBLE:
+        doubles[column][row] = 0D;
+        break;
+      default:
+        offsets[column][row + 1] = offsets[column][row];
+        break;
+    }
+  }
+
+  void setLong(int column, int row, long value) {
+    longs[column][row] = value;
+  }
+
+  void setDouble(int column, int row, double value) {
+    doubles[column][row] = value;
+  }
+
+  void setBytes(int column, int row, byte[] buf, int off, int len) {
+    int start = offsets[column][row];
+    byte[] bytes = data[column];
+    if (bytes.length - start < len) {
+      long newLength = Math.max((long) bytes.length << 1, (long) start + len);
+      if (newLength > Integer.MAX_VALUE - 8) {
+        throw new IllegalStateException("batch column data exceeds maximum array size");
+      }
+      bytes = Arrays.copyOf(bytes, (int) newLength);
+      data[column] = bytes;
+    }
+    System.arraycopy(buf, off, bytes, start, len);
+    offsets[column][row + 1] = start + len;
+  }
+
+  void setSize(int size) {
+    this.size = size;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public int capacity() {
+    return capacity;
+  }
+
+  @Override
+  public int columnCount() {
+    return kinds.length;
+  }
+
+  @Override
+  public Kind kind(int column) {
+    return kinds[column];
+  }
+
+  @Override
+  public boolean isNull(int column, int row) {
+    return (nulls[column][row >>> 6] & (1L << row)) != 0;
+  }
+
+  @Override
+  public long[] nulls(int column) {
+    return nulls[column];
+  }
+
+  @Override
+  public long[] longs(int column) {
+    return longs[column];
+  }
+
+  @Override
+  public double[] doubles(int column) {
+    return doubles[column];
+  }
+
+  @Override
+  public int[] offsets(int column) {
+    return offsets[column];
+  }
+
+  @Override
+  public byte[] data(int column) {
+    return data[column];
+  }
+
+  @Override
+  public String getString(int column, int row) {
+    if (isNull(column, row)) return null;
+    int start = offsets[column][row];
+    return new String(
+        data[column], start, offsets[column][row + 1] - start, StandardCharsets.UTF_8);
+  }
+}
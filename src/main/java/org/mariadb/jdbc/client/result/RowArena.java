@@ -0,0 +1,325 @@
+// SPDX-License-Identifier: LGPL-2.1-or-later
+// Copyright (c) 2012-2014 Monty Program Ab
+// Copyright (c) 2015-2021 MariaDB Corporation Ab
+
+package org.mariadb.jdbc.client.result;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import org.mariadb.jdbc.client.impl.StandardReadableByteBuf;
+import org.mariadb.jdbc.util.log.Logger;
+import org.mariadb.jdbc.util.log.Loggers;
+
+/**
+ * Row storage appending rows into large contiguous chunks, instead of one array per row.
+ *
+ * <p>Each row is indexed by its chunk, offset and length. Chunks size doubles from {@link
+ * #MIN_CHUNK_SIZE} to {@link #MAX_CHUNK_SIZE}, so small results stay small, and rows bigger than
+ * {@link #MAX_CHUNK_SIZE} get a chunk of their own.
+ *
+ * <p>Chunks are on heap, until optional thresholds are reached: once stored data exceed off-heap
+ * threshold, new chunks are direct buffers, and once exceeding file threshold, new chunks are
+ * memory-mapped regions of a temporary file. Rows not on heap are copied to a scratch array reused
+ * for each accessed row, and direct buffers and mappings are released on {@link #close()}.
+ */
+public final class RowArena {
+
+  private static final Logger logger = Loggers.getLogger(RowArena.class);
+
+  /** frees direct buffers and mappings, null if not available */
+  private static final Consumer<ByteBuffer> CLEANER = cleaner();
+
+  /** first chunk size */
+  static final int MIN_CHUNK_SIZE = 1024;
+
+  /** maximum chunk size */
+  static final int MAX_CHUNK_SIZE = 1024 * 1024;
+
+  /** memory-mapped chunk size, limiting the number of mappings */
+  static final int FILE_CHUNK_SIZE = 64 * 1024 * 1024;
+
+  private final long offHeapThreshold;
+  private final long fileThreshold;
+
+  private ByteBuffer[] chunks = new ByteBuffer[4];
+  private int chunkCount;
+  private ByteBuffer current;
+  private int currentPos;
+  private long storedBytes;
+
+  private FileChannel spillFile;
+  private long spillFileLength;
+
+  /** off-heap row currently accessed */
+  private byte[] scratch;
+
+  /** (chunk index &lt;&lt; 32) | offset of each row */
+  private long[] positions = new long[10];
+
+  private int[] lengths = new int[10];
+  private int size;
+
+  /** Constructor, keeping all rows on heap */
+  public RowArena() {
+    this(0, 0);
+  }
+
+  /**
+   * Constructor
+   *
+   * @param offHeapThreshold stored data size before using direct buffers. 0 to disable
+   * @param fileThreshold stored data size before using a memory-mapped temporary file. 0 to disable
+   */
+  public RowArena(long offHeapThreshold, long fileThreshold) {
+    this.offHeapThreshold = offHeapThreshold;
+    this.fileThreshold = fileThreshold;
+  }
+
+  /**
+   * Append a row.
+   *
+   * @param buf buffer containing row
+   * @param off row offset in buffer
+   * @param len row length
+   */
+  public void add(byte[] buf, int off, int len) {
+    if (current == null || current.capacity() - currentPos < len) newChunk(len);
+    if (current.hasArray()) {
+      System.arraycopy(buf, off, current.array(), currentPos, len);
+    } else {
+      ((Buffer) current).position(currentPos);
+      current.put(buf, off, len);
+    }
+
+    if (size == positions.length) {
+      int newCapacity = size + (size >> 1);
+      positions = Arrays.copyOf(positions, newCapacity);
+      lengths = Arrays.copyOf(lengths, newCapacity);
+    }
+    positions[size] = ((long) (chunkCount - 1) << 32) | currentPos;
+    lengths[size++] = len;
+    currentPos += len;
+    storedBytes += len;
+  }
+
+  private void newChunk(int len) {
+    if (fileThreshold > 0 && storedBytes >= fileThreshold) {
+      current = mapChunk(Math.max(FILE_CHUNK_SIZE, len));
+    } else {
+      current = null;
+    }
+
+    if (current == null) {
+      int chunkSize =
+          chunkCount == 0
+              ? MIN_CHUNK_SIZE
+              : Math.min(MAX_CHUNK_SIZE, chunks[chunkCount - 1].capacity() << 1);
+      chunkSize = Math.max(chunkSize, len);
+      current =
+          offHeapThreshold > 0 && storedBytes >= offHeapThreshold
+              ? ByteBuffer.allocateDirect(chunkSize)
+              : ByteBuffer.wrap(new byte[chunkSize]);
+    }
+
+    currentPos = 0;
+    if (chunkCount == chunks.length) chunks = Arrays.copyOf(chunks, chunkCount << 1);
+    chunks[chunkCount++] = current;
+  }
+
+  /**
+   * Map a new region of temporary file.
+   *
+   * @param chunkSize region size
+   * @return mapped region, or null if file cannot be used
+   */
+  private ByteBuffer mapChunk(int chunkSize) {
+    try {
+      if (spillFile == null) {
+        Path path = Files.createTempFile("mariadb-rows", ".tmp");
+        spillFile =
+            FileChannel.open(
+                path,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.DELETE_ON_CLOSE);
+        try {
+          // mapping stays valid after deletion on unix systems
+          Files.delete(path);
+        } catch (IOException e) {
+          // file in use: deleted when closed
+        }
+      }
+      ByteBuffer region = spillFile.map(FileChannel.MapMode.READ_WRITE, spillFileLength, chunkSize);
+      spillFileLength += chunkSize;
+      return region;
+    } catch (IOException e) {
+      logger.warn("Cannot spill result-set rows to temporary file, using memory", e);
+      return null;
+    }
+  }
+
+  /**
+   * Point buffer to indicated row.
+   *
+   * @param index row index
+   * @param rowBuf row buffer
+   */
+  public void setRow(int index, StandardReadableByteBuf rowBuf) {
+    long position = positions[index];
+    ByteBuffer chunk = chunks[(int) (position >>> 32)];
+    if (chunk.hasArray()) {
+      rowBuf.slice(chunk.array(), (int) position, lengths[index]);
+    } else {
+      int len = lengths[index];
+      if (scratch == null || scratch.length < len)
+        scratch = new byte[Math.max(len, MIN_CHUNK_SIZE)];
+      ((Buffer) chunk).position((int) position);
+      chunk.get(scratch, 0, len);
+      rowBuf.slice(scratch, 0, len);
+    }
+  }
+
+  /**
+   * Indicate that current row data is referenced by a returned value (blob, clob, stream), so next
+   * off-heap row must not overwrite it.
+   */
+  public void retainRow() {
+    scratch = null;
+  }
+
+  /**
+   * Copy of indicated row.
+   *
+   * @param index row index
+   * @return row data
+   */
+  public byte[] getRow(int index) {
+    long position = positions[index];
+    int off = (int) position;
+    ByteBuffer chunk = chunks[(int) (position >>> 32)];
+    if (chunk.hasArray()) return Arrays.copyOfRange(chunk.array(), off, off + lengths[index]);
+
+    byte[] row = new byte[lengths[index]];
+    ((Buffer) chunk).position(off);
+    chunk.get(row);
+    return row;
+  }
+
+  /**
+   * Number of rows.
+   *
+   * @return row number
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Size of stored rows.
+   *
+   * @return stored bytes
+   */
+  public long storedBytes() {
+    return storedBytes;
+  }
+
+  /**
+   * Number of chunks not on heap.
+   *
+   * @return off-heap chunk number
+   */
+  public int offHeapChunks() {
+    int count = 0;
+    for (int i = 0; i < chunkCount; i++) {
+      if (!chunks[i].hasArray()) count++;
+    }
+    return count;
+  }
+
+  /**
+   * Indicate if rows have been spilled to a temporary file.
+   *
+   * @return true if a temporary file is used
+   */
+  public boolean spilledToFile() {
+    return spillFile != null;
+  }
+
+  /** Release rows, freeing direct buffers and mappings without waiting for garbage collection. */
+  public void close() {
+    for (int i = 0; i < chunkCount; i++) {
+      if (!chunks[i].hasArray()) release(chunks[i]);
+    }
+    chunks = new ByteBuffer[0];
+    chunkCount = 0;
+    current = null;
+    scratch = null;
+    if (spillFile != null) {
+      try {
+        // temporary file is deleted on close if not already
+        spillFile.close();
+      } catch (IOException e) {
+        logger.warn("Cannot close result-set rows temporary file", e);
+      }
+      spillFile = null;
+    }
+  }
+
+  /**
+   * Free direct buffer or mapping. Buffer must not be used anymore.
+   *
+   * @param buffer direct or mapped buffer
+   */
+  private static void release(ByteBuffer buffer) {
+    if (CLEANER != null) CLEANER.accept(buffer);
+  }
+
+  /**
+   * Get function freeing direct buffers and mappings.
+   *
+   * @return cleaner, or null if not available on this JVM (buffers are then freed when garbage
+   *     collected)
+   */
+  private static Consumer<ByteBuffer> cleaner() {
+    try {
+      // java 9+
+      Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+      Field field = unsafeClass.getDeclaredField("theUnsafe");
+      field.setAccessible(true);
+      Object unsafe = field.get(null);
+      Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+      return buffer -> {
+        try {
+          invokeCleaner.invoke(unsafe, buffer);
+        } catch (Exception e) {
+          // freed when garbage collected
+        }
+      };
+    } catch (Exception e) {
+      // java 8
+      try {
+        Method cleanerMethod = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+        Method clean = Class.forName("sun.misc.Cleaner").getMethod("clean");
+        return buffer -> {
+          try {
+            Object cleaner = cleanerMethod.invoke(buffer);
+            if (cleaner != null) clean.invoke(cleaner);
+          } catch (Exception ex) {
+            // freed when garbage collected
+          }
+        };
+      } catch (Exception ex) {
+        return null;
+      }
+    }
+  }
+}
@@ -0,0 +1,201 @@
+// SPDX-License-Identifier: LGPL-2.1-or-later
+// Copyright (c) 2012-2014 Monty Program Ab
+// Copyright (c) 2015-2021 MariaDB Corporation Ab
+
+package org.mariadb.jdbc.client.result;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.mariadb.jdbc.RowMapper;
+
+/**
+ * Emit query rows, mapped to objects, following reactive-streams rules: rows are only read from
+ * socket as demand arrives, and signals are emitted by a single drain task at a time, scheduled on
+ * executor when demand arrives or emission is cancelled.
+ *
+ * <p>Query is executed when first rows are requested, reading rows by windows of statement fetch
+ * size (or {@link #DEFAULT_FETCH_SIZE} if not set). Result-set is closed on completion, error or
+ * cancellation.
+ *
+ * <p>This is java 8 compatible core of java 9+ {@code org.mariadb.jdbc.RowPublisher}.
+ *
+ * @param <T> row object type
+ */
+public final class RowEmitter<T> implements Runnable {
+
+  /** fetch size used when statement has none */
+  public static final int DEFAULT_FETCH_SIZE = 256;
+
+  /**
+   * Row signals receiver
+   *
+   * @param <T> row object type
+   */
+  public interface Sink<T> {
+
+    /**
+     * Row emission
+     *
+     * @param row mapped row
+     */
+    void onNext(T row);
+
+    /**
+     * Emission ends with an error
+     *
+     * @param error error
+     */
+    void onError(Throwable error);
+
+    /** Emission ends with all rows emitted */
+    void onComplete();
+  }
+
+  private final Statement statement;
+  private final String sql;
+  private final RowMapper<T> mapper;
+  private final Executor executor;
+  private final Sink<? super T> sink;
+  private final AtomicLong demand = new AtomicLong();
+  private final AtomicInteger pendingDrains = new AtomicInteger();
+  private volatile boolean cancelled;
+  private volatile IllegalArgumentException invalidRequest;
+
+  // only accessed by drain task
+  private ResultSet rs;
+  private boolean done;
+
+  /**
+   * Constructor
+   *
+   * @param statement statement executing query
+   * @param sql query, null for a prepared statement executed with current parameters
+   * @param mapper row mapper
+   * @param executor executor running drain task, null for {@link StreamingExecutor#INSTANCE}
+   * @param sink signal receiver
+   */
+  public RowEmitter(
+      Statement statement,
+      String sql,
+      RowMapper<T> mapper,
+      Executor executor,
+      Sink<? super T> sink) {
+    this.statement = Objects.requireNonNull(statement);
+    this.sql = sql;
+    this.mapper = Objects.requireNonNull(mapper);
+    this.executor = executor == null ? StreamingExecutor.INSTANCE : executor;
+    this.sink = Objects.requireNonNull(sink);
+  }
+
+  /**
+   * Add demand. A non-positive value ends emission with an {@link IllegalArgumentException}.
+   *
+   * @param n number of additional rows requested
+   */
+  public void request(long n) {
+    if (n <= 0) {
+      invalidRequest =
+          new IllegalArgumentException("Requested rows must be positive, but was " + n);
+    } else {
+      // demand is capped at Long.MAX_VALUE, meaning unbounded
+      demand.getAndAccumulate(
+          n, (current, add) -> current + add < 0 ? Long.MAX_VALUE : current + add);
+    }
+    schedule();
+  }
+
+  /** Stop emission, closing result-set without signal. */
+  public void cancel() {
+    cancelled = true;
+    schedule();
+  }
+
+  private void schedule() {
+    if (pendingDrains.getAndIncrement() == 0) {
+      try {
+        executor.execute(this);
+      } catch (RejectedExecutionException e) {
+        // no drain task can run anymore
+        end(e, false);
+      }
+    }
+  }
+
+  @Override
+  public void run() {
+    int missed = 1;
+    do {
+      if (!done) drain();
+      missed = pendingDrains.addAndGet(-missed);
+    } while (missed != 0);
+  }
+
+  private ResultSet execute() throws SQLException {
+    if (statement.getFetchSize() == 0) statement.setFetchSize(DEFAULT_FETCH_SIZE);
+    return sql == null
+        ? ((PreparedStatement) statement).executeQuery()
+        : statement.executeQuery(sql);
+  }
+
+  private void drain() {
+    try {
+      while (true) {
+        if (cancelled) {
+          end(null, false);
+          return;
+        }
+        if (invalidRequest != null) {
+          end(invalidRequest, false);
+          return;
+        }
+        long requested = demand.get();
+        if (requested == 0) return;
+
+        if (rs == null) rs = execute();
+        if (!rs.next()) {
+          end(null, true);
+          return;
+        }
+        T row = mapper.map(rs);
+        if (row == null) throw new NullPointerException("Row mapper returned null");
+        sink.onNext(row);
+        if (requested != Long.MAX_VALUE) demand.decrementAndGet();
+      }
+    } catch (Throwable t) {
+      if (!done) end(t, false);
+    }
+  }
+
+  /**
+   * Close result-set, then signal completion or error.
+   *
+   * @param error error to signal, if any
+   * @param complete signal completion
+   */
+  private void end(Throwable error, boolean complete) {
+    done = true;
+    if (rs != null) {
+      try {
+        rs.close();
+      } catch (SQLException e) {
+        if (error == null && complete) {
+          error = e;
+          complete = false;
+        }
+      }
+      rs = null;
+    }
+    if (error != null) {
+      sink.onError(error);
+    } else if (complete) {
+      sink.onComplete();
+    }
+  }
+}
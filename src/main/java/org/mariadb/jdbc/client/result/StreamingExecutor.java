@@ -0,0 +1,35 @@
+// SPDX-License-Identifier: LGPL-2.1-or-later
+// Copyright (c) 2012-2014 Monty Program Ab
+// Copyright (c) 2015-2021 MariaDB Corporation Ab
+
+package org.mariadb.jdbc.client.result;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Executor of background socket reading (streaming prefetch, row publishing): virtual threads when
+ * available (java 21+), daemon threads otherwise
+ */
+public final class StreamingExecutor {
+
+  /** shared executor */
+  public static final Executor INSTANCE = create();
+
+  private StreamingExecutor() {}
+
+  private static Executor create() {
+    try {
+      Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return (Executor) method.invoke(null);
+    } catch (Exception e) {
+      return Executors.newCachedThreadPool(
+          r -> {
+            Thread thread = new Thread(r, "mariadb-streaming");
+            thread.setDaemon(true);
+            return thread;
+          });
+    }
+  }
+}
@@ -6,10 +6,12 @@ package org.mariadb.jdbc.client.result;
 
 import java.io.IOException;
 import java.sql.SQLException;
+import java.util.concurrent.*;
 import java.util.concurrent.locks.ReentrantLock;
 import org.mariadb.jdbc.Statement;
 import org.mariadb.jdbc.client.ColumnDecoder;
 import org.mariadb.jdbc.client.Context;
+import org.mariadb.jdbc.client.ReadableByteBuf;
 import org.mariadb.jdbc.client.socket.Reader;
 
 /**
@@ -37,12 +39,25 @@ import org.mariadb.jdbc.client.socket.Reader;
  * <p>If another query is executed on the same connection when a streaming result-set has not been
  * fully read, the connector will put the whole remaining streaming result-set in memory in order to
  * execute the next query. This can lead to OutOfMemoryError if not handled.
+ *
+ * <p>With option `streamingPrefetch`, forward only result-sets read following windows of fetch size
+ * rows in background (using a virtual thread when available), while the application consumes
+ * current window. Any other operation than {@link #next()} that needs more rows stops prefetching,
+ * following windows being then read synchronously.
  */
 public class StreamingResult extends Result {
 
   private final ReentrantLock lock;
   private int dataFetchTime;
-  private int fetchSize;
+  // read by prefetch thread
+  private volatile int fetchSize;
+
+  // background prefetch. prefetchQueue is null when not prefetching
+  private BlockingQueue<Window> prefetchQueue;
+  private final Semaphore prefetchPermits;
+  private final CountDownLatch prefetchDone;
+  private volatile boolean prefetchStopped;
+  private final ConcurrentLinkedQueue<byte[][]> freeWindows = new ConcurrentLinkedQueue<>();
 
   /**
    * Constructor
@@ -90,6 +105,143 @@ public class StreamingResult extends Result {
     this.data = new byte[Math.max(fetchSize, 10)][];
 
     addStreamingValue();
+
+    int windows = context.getConf().streamingPrefetch();
+    if (windows > 0 && fetchSize > 0 && resultSetType == TYPE_FORWARD_ONLY && !loaded) {
+      BlockingQueue<Window> queue = new LinkedBlockingQueue<>();
+      prefetchQueue = queue;
+      prefetchPermits = new Semaphore(windows);
+      prefetchDone = new CountDownLatch(1);
+      long rowsRead = (long) dataFetchTime * fetchSize;
+      StreamingExecutor.INSTANCE.execute(() -> prefetch(queue, rowsRead));
+    } else {
+      prefetchPermits = null;
+      prefetchDone = null;
+    }
+  }
+
+  /**
+   * Read following windows in background, until end of result-set or until stopped.
+   *
+   * <p>Windows are queued while holding connection lock: a thread stopping prefetch while owning
+   * the lock then finds all read windows in queue, and prefetch won't read anymore once it gets the
+   * lock.
+   *
+   * @param queue prefetched windows queue
+   * @param rowsRead number of rows already read
+   */
+  private void prefetch(BlockingQueue<Window> queue, long rowsRead) {
+    try {
+      while (true) {
+        prefetchPermits.acquire();
+        if (prefetchStopped) return;
+        lock.lock();
+        try {
+          if (prefetchStopped) return;
+          Window window = readWindow(rowsRead);
+          rowsRead += window.size;
+          queue.add(window);
+          if (window.last) return;
+        } finally {
+          lock.unlock();
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      prefetchDone.countDown();
+    }
+  }
+
+  /**
+   * Request background prefetch to stop, waking it if waiting for a permit.
+   *
+   * @return true if prefetch end has to be awaited. When current thread owns connection lock,
+   *     prefetch is not reading, and will stop without reading once it gets the lock.
+   */
+  private boolean requestPrefetchStop() {
+    prefetchStopped = true;
+    prefetchPermits.release();
+    return !lock.isHeldByCurrentThread();
+  }
+
+  /**
+   * Read a window of fetch size rows. Must be called with lock.
+   *
+   * @param rowsRead number of rows already read
+   * @return window
+   */
+  private Window readWindow(long rowsRead) {
+    int windowSize = fetchSize;
+    byte[][] rows = freeWindows.poll();
+    if (rows == null || rows.length < windowSize) rows = new byte[windowSize][];
+    int size = 0;
+    int fetchSizeTmp =
+        (maxRows <= 0) ? windowSize : (int) Math.min(windowSize, Math.max(0, maxRows - rowsRead));
+    try {
+      while (size < fetchSizeTmp) {
+        ReadableByteBuf buf = readRowPacket(false);
+        if (buf == null) break;
+        rows[size++] = buf.buf();
+      }
+      if (maxRows > 0 && rowsRead + size >= maxRows && !loaded) skipRemaining();
+      return new Window(rows, size, loaded, null);
+    } catch (IOException ioe) {
+      return new Window(
+          rows,
+          size,
+          true,
+          exceptionFactory.create("Error while streaming resultSet data", "08000", ioe));
+    } catch (SQLException e) {
+      return new Window(rows, size, true, e);
+    }
+  }
+
+  /**
+   * Replace current window by next prefetched one.
+   *
+   * @throws SQLException if an error occurred while reading window
+   */
+  private void nextPrefetchedWindow() throws SQLException {
+    Window window;
+    try {
+      window = prefetchQueue.take();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw exceptionFactory.create("Interrupted while streaming resultSet data", "08000", e);
+    }
+    prefetchPermits.release();
+    if (window.last) prefetchQueue = null;
+    freeWindows.add(data);
+    data = window.rows;
+    dataSize = window.size;
+    rowPointer = 0;
+    dataFetchTime++;
+    if (window.error != null) throw window.error;
+  }
+
+  /**
+   * Stop background prefetch, adding already prefetched rows to current rows.
+   *
+   * @throws SQLException if an error occurred while prefetching
+   */
+  private void stopPrefetch() throws SQLException {
+    if (prefetchQueue == null) return;
+    try {
+      if (requestPrefetchStop()) prefetchDone.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw exceptionFactory.create("Interrupted while streaming resultSet data", "08000", e);
+    }
+    SQLException error = null;
+    Window window;
+    while ((window = prefetchQueue.poll()) != null) {
+      for (int i = 0; i < window.size; i++) addRowData(window.rows[i]);
+      dataFetchTime++;
+      if (window.error != null) error = window.error;
+    }
+    prefetchQueue = null;
+    if (error != null) throw error;
   }
 
   @Override
@@ -140,6 +292,7 @@ public class StreamingResult extends Result {
    * @throws SQLException if any error occur
    */
   public void fetchRemaining() throws SQLException {
+    stopPrefetch();
     if (!loaded) {
       while (!loaded) {
         addStreamingValue();
@@ -156,6 +309,15 @@ public class StreamingResult extends Result {
       setRow(data[rowPointer]);
       return true;
     } else {
+      if (prefetchQueue != null) {
+        nextPrefetchedWindow();
+        if (dataSize > 0) {
+          setRow(data[rowPointer]);
+          return true;
+        }
+        setNullRowBuf();
+        return false;
+      }
       if (!loaded) {
         lock.lock();
         try {
@@ -222,7 +384,9 @@ public class StreamingResult extends Result {
     checkClose();
     if (rowPointer < dataSize - 1) {
       return false;
-    } else if (loaded) {
+    }
+    stopPrefetch();
+    if (loaded) {
       return rowPointer == dataSize - 1 && dataSize > 0;
     } else {
       // when streaming and not having read all results,
@@ -347,6 +511,7 @@ public class StreamingResult extends Result {
       return false;
     }
 
+    if (newPos >= dataSize) stopPrefetch();
     while (newPos >= dataSize) {
       if (loaded) {
         rowPointer = dataSize;
@@ -387,6 +552,7 @@ public class StreamingResult extends Result {
       throw exceptionFactory.create(String.format("invalid fetch size %s", fetchSize));
     }
     if (fetchSize == 0) {
+      stopPrefetch();
       // fetch all results
       while (!loaded) {
         addStreamingValue();
@@ -394,4 +560,66 @@ public class StreamingResult extends Result {
     }
     this.fetchSize = fetchSize;
   }
+
+  @Override
+  public void close() throws SQLException {
+    SQLException prefetchError = dropPrefetch();
+    try {
+      super.close();
+    } catch (SQLException e) {
+      if (prefetchError != null) e.addSuppressed(prefetchError);
+      throw e;
+    }
+  }
+
+  /**
+   * Stop background prefetch when closing, discarding already prefetched rows. Waiting for prefetch
+   * end is not interruptible, since connection must not be read concurrently when skipping
+   * remaining rows.
+   *
+   * @return prefetch error if any
+   */
+  private SQLException dropPrefetch() {
+    if (prefetchQueue == null) return null;
+    if (requestPrefetchStop()) {
+      boolean interrupted = false;
+      while (true) {
+        try {
+          prefetchDone.await();
+          break;
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+      if (interrupted) Thread.currentThread().interrupt();
+    }
+    SQLException error = null;
+    Window window;
+    while ((window = prefetchQueue.poll()) != null) {
+      if (window.error != null) error = window.error;
+    }
+    prefetchQueue = null;
+    return error;
+  }
+
+  @Override
+  public void abort() {
+    if (prefetchPermits != null) requestPrefetchStop();
+    super.abort();
+  }
+
+  /** Window of prefetched rows */
+  private static final class Window {
+    private final byte[][] rows;
+    private final int size;
+    private final boolean last;
+    private final SQLException error;
+
+    Window(byte[][] rows, int size, boolean last, SQLException error) {
+      this.rows = rows;
+      this.size = size;
+      this.last = last;
+      this.error = error;
+    }
+  }
 }
@@ -79,7 +79,8 @@ public class UpdatableResult extends CompleteResult {
         context,
         resultSetType,
         closeOnCompletion,
-        traceEnable);
+        traceEnable,
+        false);
     checkIfUpdatable();
     parameters = new ParameterList(metadataList.length);
   }
@@ -1053,7 +1054,7 @@ public class UpdatableResult extends CompleteResult {
   private void resetToRowPointer() {
     rowPointer = savedRowPointer;
     if (rowPointer != BEFORE_FIRST_POS && rowPointer < dataSize - 1) {
-      setRow(data[rowPointer]);
+      setRowAt(rowPointer);
     } else {
       // all data are reads and pointer is after last
       setNullRowBuf();
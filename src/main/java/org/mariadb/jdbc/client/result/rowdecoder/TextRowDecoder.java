@@ -161,7 +161,7 @@ public class TextRowDecoder implements RowDecoder {
       final ColumnDecoder[] metadataList) {
     if (fieldIndex.get() >= newIndex) {
       fieldIndex.set(0);
-      rowBuf.pos(0);
+      rowBuf.pos(rowBuf.offset());
     } else {
       fieldIndex.incrementAndGet();
     }
@@ -57,6 +57,19 @@ public interface Reader {
    */
   void skipPacket() throws IOException;
 
+  /**
+   * Skip next row packet, only parsing its header and first byte. Row content is discarded without
+   * allocation, while ERR packets and EOF/OK packets (first byte 0xFE and length less than
+   * eofMaxLength) are read entirely and returned. When trace is enabled, all packets are read.
+   *
+   * @param traceEnable must trace packet.
+   * @param eofMaxLength maximum length (exclusive) of a packet starting with 0xFE to be an EOF/OK
+   *     packet
+   * @return ERR or EOF/OK packet, or null if a row packet has been skipped
+   * @throws IOException if socket exception occur.
+   */
+  ReadableByteBuf skipRowPacket(boolean traceEnable, int eofMaxLength) throws IOException;
+
   /**
    * Get current sequence object
    *
@@ -64,6 +77,14 @@ public interface Reader {
    */
   MutableByte getSequence();
 
+  /**
+   * Number of bytes that can be read without blocking, i.e. data already received but not read yet.
+   *
+   * @return available bytes
+   * @throws IOException if any error occurs
+   */
+  int available() throws IOException;
+
   /**
    * Close stream
    *
@@ -7,20 +7,28 @@ package org.mariadb.jdbc.client.socket.impl;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.zip.DataFormatException;
-import java.util.zip.Inflater;
 import org.mariadb.jdbc.client.util.MutableByte;
+import org.mariadb.jdbc.plugin.CompressionPlugin;
 
 /**
  * Compression handler, permitting decompression of mysql packet if needed. When compression is set,
  * using a 7 byte header to identify is packet is compressed or not.
  */
 public class CompressInputStream extends InputStream {
+  private static final int REUSABLE_BUFFER_LENGTH = 8192;
+  private static final int MAX_REUSABLE_BUFFER_LENGTH = 1024 * 1024;
+
   private final InputStream in;
   private final MutableByte sequence;
 
   private final byte[] header = new byte[7];
 
+  /** connection decompressor */
+  private final CompressionPlugin.Decompressor decompressor;
+
+  private byte[] packetBuf = new byte[REUSABLE_BUFFER_LENGTH];
+  private byte[] compressedBuf = new byte[REUSABLE_BUFFER_LENGTH];
+
   private int end;
   private int pos;
   private byte[] buf;
@@ -30,10 +38,15 @@ public class CompressInputStream extends InputStream {
    *
    * @param in socket input stream
    * @param compressionSequence compression sequence
+   * @param decompressor connection decompressor
    */
-  public CompressInputStream(InputStream in, MutableByte compressionSequence) {
+  public CompressInputStream(
+      InputStream in,
+      MutableByte compressionSequence,
+      CompressionPlugin.Decompressor decompressor) {
     this.in = in;
     this.sequence = compressionSequence;
+    this.decompressor = decompressor;
   }
 
   /**
@@ -127,7 +140,10 @@ public class CompressInputStream extends InputStream {
     int packetLength = (header[4] & 0xff) + ((header[5] & 0xff) << 8) + ((header[6] & 0xff) << 16);
     boolean compressed = (packetLength != 0);
     remaining = compressedPacketLength;
-    byte[] intermediaryBuf = new byte[remaining];
+    byte[] intermediaryBuf =
+        compressed
+            ? compressedBuffer(compressedPacketLength)
+            : packetBuffer(compressedPacketLength);
 
     // ***************************************************
     // Read content
@@ -149,22 +165,8 @@ public class CompressInputStream extends InputStream {
     } while (remaining > 0);
 
     if (compressed) {
-      buf = new byte[packetLength];
-      Inflater inflater = new Inflater();
-      inflater.setInput(intermediaryBuf);
-      try {
-        int actualUncompressBytes = inflater.inflate(buf);
-        if (actualUncompressBytes != packetLength) {
-          throw new IOException(
-              "Invalid exception length after decompression "
-                  + actualUncompressBytes
-                  + ",expected "
-                  + packetLength);
-        }
-      } catch (DataFormatException dfe) {
-        throw new IOException(dfe);
-      }
-      inflater.end();
+      buf = packetBuffer(packetLength);
+      decompressor.decompress(intermediaryBuf, 0, compressedPacketLength, buf, 0, packetLength);
       end = packetLength;
     } else {
       buf = intermediaryBuf;
@@ -173,6 +175,37 @@ public class CompressInputStream extends InputStream {
     pos = 0;
   }
 
+  /**
+   * Buffer for uncompressed packet data. Buffer is reused, growing up to a maximum length, bigger
+   * packets using a dedicated array.
+   *
+   * @param length packet length
+   * @return buffer
+   */
+  private byte[] packetBuffer(int length) {
+    if (length <= packetBuf.length) return packetBuf;
+    if (length > MAX_REUSABLE_BUFFER_LENGTH) return new byte[length];
+    packetBuf = new byte[reusableLength(length)];
+    return packetBuf;
+  }
+
+  /**
+   * Buffer for compressed packet data, reused like {@link #packetBuffer(int)}.
+   *
+   * @param length compressed length
+   * @return buffer
+   */
+  private byte[] compressedBuffer(int length) {
+    if (length <= compressedBuf.length) return compressedBuf;
+    if (length > MAX_REUSABLE_BUFFER_LENGTH) return new byte[length];
+    compressedBuf = new byte[reusableLength(length)];
+    return compressedBuf;
+  }
+
+  private static int reusableLength(int length) {
+    return Math.min(Integer.highestOneBit(length - 1) << 1, MAX_REUSABLE_BUFFER_LENGTH);
+  }
+
   /**
    * Skips over and discards <code>n</code> bytes of data from this input stream. The <code>skip
    * </code> method may, for a variety of reasons, end up skipping over some smaller number of
@@ -231,7 +264,11 @@ public class CompressInputStream extends InputStream {
    */
   @Override
   public void close() throws IOException {
-    in.close();
+    try {
+      in.close();
+    } finally {
+      decompressor.close();
+    }
   }
 
   /**
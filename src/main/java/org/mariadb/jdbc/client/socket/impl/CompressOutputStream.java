@@ -4,33 +4,72 @@
 
 package org.mariadb.jdbc.client.socket.impl;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.util.zip.DeflaterOutputStream;
 import org.mariadb.jdbc.client.util.MutableByte;
+import org.mariadb.jdbc.plugin.CompressionPlugin;
 
 /**
  * Compression writer handler Permit to wrap standard packet to compressed packet ( 7 byte header).
- * Driver will compress packet only if packet size is meaningful (1536 bytes) &gt; to one TCP
- * packet.
+ * Driver will compress packet only if packet size is meaningful (by default 1536 bytes) &gt; to one
+ * TCP packet. In adaptive mode, packets are sent uncompressed while recent packets have a poor
+ * compression ratio, compression being probed again periodically.
  */
 public class CompressOutputStream extends OutputStream {
-  private static final int MIN_COMPRESSION_SIZE = 1536; // TCP-IP single packet
+  private static final int MAX_REUSABLE_BUFFER_LENGTH = 1024 * 1024;
+
+  /** compression ratio (compressed length percentage) from which compression is considered poor */
+  private static final int POOR_RATIO_PERCENT = 90;
+
+  /** number of packets sent uncompressed before probing compression again */
+  private static final int MIN_PROBE_INTERVAL = 16;
+
+  private static final int MAX_PROBE_INTERVAL = 1024;
   private final OutputStream out;
   private final MutableByte sequence;
   private final byte[] header = new byte[7];
   private byte[] longPacketBuffer = null;
 
+  /** connection compressor */
+  private final CompressionPlugin.Compressor compressor;
+
+  /** minimum packet size to compress */
+  private final int minCompressionSize;
+
+  /** compressed data buffer */
+  private byte[] compressBuf = new byte[8192];
+
+  /** skip compression of packets with poor compression ratio */
+  private final boolean adaptive;
+
+  /** moving average of recent compression ratios, in percent, -1 before first sample */
+  private int averageRatio = -1;
+
+  /** remaining packets to send uncompressed before probing compression */
+  private int skipCompression = 0;
+
+  private int probeInterval = MIN_PROBE_INTERVAL;
+
   /**
    * Constructor.
    *
    * @param out socket output stream
    * @param compressionSequence compression sequence
+   * @param compressor connection compressor
+   * @param minCompressionSize minimum packet size to compress
+   * @param adaptive send packets uncompressed when recent packets compress poorly
    */
-  public CompressOutputStream(OutputStream out, MutableByte compressionSequence) {
+  public CompressOutputStream(
+      OutputStream out,
+      MutableByte compressionSequence,
+      CompressionPlugin.Compressor compressor,
+      int minCompressionSize,
+      boolean adaptive) {
     this.out = out;
     this.sequence = compressionSequence;
+    this.compressor = compressor;
+    this.minCompressionSize = minCompressionSize;
+    this.adaptive = adaptive;
   }
 
   /**
@@ -58,7 +97,7 @@ public class CompressOutputStream extends OutputStream {
    */
   @Override
   public void write(byte[] b, int off, int len) throws IOException {
-    if (len + ((longPacketBuffer != null) ? longPacketBuffer.length : 0) < MIN_COMPRESSION_SIZE) {
+    if (len + ((longPacketBuffer != null) ? longPacketBuffer.length : 0) < minCompressionSize) {
       // *******************************************************************************
       // small packet, no compression
       // *******************************************************************************
@@ -66,7 +105,7 @@ public class CompressOutputStream extends OutputStream {
       if (longPacketBuffer != null) {
         header[0] = (byte) (len + longPacketBuffer.length);
         header[1] = (byte) ((len + longPacketBuffer.length) >>> 8);
-        header[2] = 0;
+        header[2] = (byte) ((len + longPacketBuffer.length) >>> 16);
         header[3] = sequence.incrementAndGet();
         header[4] = 0;
         header[5] = 0;
@@ -80,7 +119,7 @@ public class CompressOutputStream extends OutputStream {
 
       header[0] = (byte) len;
       header[1] = (byte) (len >>> 8);
-      header[2] = 0;
+      header[2] = (byte) (len >>> 16);
       header[3] = sequence.incrementAndGet();
       header[4] = 0;
       header[5] = 0;
@@ -92,36 +131,53 @@ public class CompressOutputStream extends OutputStream {
       // *******************************************************************************
       // compressing packet
       // *******************************************************************************
-      int sent = 0;
-      try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-        try (DeflaterOutputStream deflater = new DeflaterOutputStream(baos)) {
-
-          /**
-           * For multi packet, len will be 0x00ffffff + 4 bytes for header. but compression can only
-           * compress up to 0x00ffffff bytes (header initial length size cannot be > 3 bytes) so,
-           * for this specific case, a buffer will save remaining data
-           */
-          if (longPacketBuffer != null) {
-            deflater.write(longPacketBuffer, 0, longPacketBuffer.length);
-            sent = longPacketBuffer.length;
-            longPacketBuffer = null;
-          }
-          if (len + sent > 0x00ffffff) {
-            int remaining = len + sent - 0x00ffffff;
-            longPacketBuffer = new byte[remaining];
-            System.arraycopy(b, off + 0x00ffffff - sent, longPacketBuffer, 0, remaining);
-          }
-
-          int bufLenSent = Math.min(0x00ffffff - sent, len);
-          deflater.write(b, off, bufLenSent);
-          sent += bufLenSent;
-          deflater.finish();
-        }
+      /*
+       * For multi packet, len will be 0x00ffffff + 4 bytes for header. but compression can only
+       * compress up to 0x00ffffff bytes (header initial length size cannot be > 3 bytes) so,
+       * for this specific case, a buffer will save remaining data
+       */
+      byte[] pending = longPacketBuffer;
+      longPacketBuffer = null;
+      int pendingLen = pending == null ? 0 : pending.length;
+      if (len + pendingLen > 0x00ffffff) {
+        int remaining = len + pendingLen - 0x00ffffff;
+        longPacketBuffer = new byte[remaining];
+        System.arraycopy(b, off + 0x00ffffff - pendingLen, longPacketBuffer, 0, remaining);
+      }
 
-        byte[] compressedBytes = baos.toByteArray();
+      int bufLenSent = Math.min(0x00ffffff - pendingLen, len);
+      int sent = pendingLen + bufLenSent;
 
-        int compressLen = compressedBytes.length;
+      if (adaptive && skipCompression > 0) {
+        // recent packets compress poorly
+        skipCompression--;
+        writeUncompressed(pending, b, off, bufLenSent);
+        return;
+      }
+
+      int maxLength = compressor.maxCompressedLength(sent);
+      if (compressBuf.length < maxLength) compressBuf = new byte[maxLength];
+      // saved data followed by new data are compressed without being copied in a single array
+      int compressLen =
+          pending == null
+              ? compressor.compress(b, off, bufLenSent, compressBuf, 0)
+              : compressor.compress(pending, 0, pendingLen, b, off, bufLenSent, compressBuf, 0);
 
+      if (adaptive) {
+        int ratio = (int) (compressLen * 100L / sent);
+        averageRatio = averageRatio < 0 ? ratio : (averageRatio * 3 + ratio) / 4;
+        if (averageRatio >= POOR_RATIO_PERCENT) {
+          // probe again later, less often while data stays incompressible
+          skipCompression = probeInterval;
+          probeInterval = Math.min(probeInterval * 2, MAX_PROBE_INTERVAL);
+        } else {
+          probeInterval = MIN_PROBE_INTERVAL;
+        }
+      }
+
+      if (adaptive && compressLen >= sent) {
+        writeUncompressed(pending, b, off, bufLenSent);
+      } else {
         header[0] = (byte) compressLen;
         header[1] = (byte) (compressLen >>> 8);
         header[2] = (byte) (compressLen >>> 16);
@@ -131,12 +187,36 @@ public class CompressOutputStream extends OutputStream {
         header[6] = (byte) (sent >>> 16);
 
         out.write(header, 0, 7);
-        out.write(compressedBytes, 0, compressLen);
+        out.write(compressBuf, 0, compressLen);
         out.flush();
       }
     }
   }
 
+  /**
+   * Send data in a compressed packet without compression (uncompressed length 0).
+   *
+   * @param pending data saved from previous packet, sent first, if any
+   * @param b data
+   * @param off data offset
+   * @param len data length
+   * @throws IOException if an I/O error occurs
+   */
+  private void writeUncompressed(byte[] pending, byte[] b, int off, int len) throws IOException {
+    int totalLen = len + (pending == null ? 0 : pending.length);
+    header[0] = (byte) totalLen;
+    header[1] = (byte) (totalLen >>> 8);
+    header[2] = (byte) (totalLen >>> 16);
+    header[3] = sequence.incrementAndGet();
+    header[4] = 0;
+    header[5] = 0;
+    header[6] = 0;
+    out.write(header, 0, 7);
+    if (pending != null) out.write(pending, 0, pending.length);
+    out.write(b, off, len);
+    out.flush();
+  }
+
   /**
    * Flushes this output stream and forces any buffered output bytes to be written out. The general
    * contract of <code>flush</code> is that calling it is an indication that, if any bytes
@@ -161,6 +241,9 @@ public class CompressOutputStream extends OutputStream {
     }
     out.flush();
     sequence.set((byte) -1);
+
+    // buffer is kept for all packets of a command, but huge buffers are not retained afterward
+    if (compressBuf.length > MAX_REUSABLE_BUFFER_LENGTH) compressBuf = new byte[8192];
   }
 
   /**
@@ -174,7 +257,11 @@ public class CompressOutputStream extends OutputStream {
    */
   @Override
   public void close() throws IOException {
-    out.close();
+    try {
+      out.close();
+    } finally {
+      compressor.close();
+    }
   }
 
   /**
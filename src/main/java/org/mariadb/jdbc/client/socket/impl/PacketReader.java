@@ -7,6 +7,8 @@ package org.mariadb.jdbc.client.socket.impl;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 import org.mariadb.jdbc.Configuration;
 import org.mariadb.jdbc.HostAddress;
 import org.mariadb.jdbc.client.ReadableByteBuf;
@@ -23,11 +25,19 @@ public class PacketReader implements Reader {
   private StandardReadableByteBuf readBuf = new StandardReadableByteBuf(null, 0);
 
   private static final int REUSABLE_BUFFER_LENGTH = 1024;
+
+  /**
+   * Reusable buffer grows up to this length. Bigger packets get their own array, to avoid keeping a
+   * huge buffer for the connection lifetime.
+   */
+  private static final int MAX_REUSABLE_BUFFER_LENGTH = 1024 * 1024;
+
   private static final int MAX_PACKET_SIZE = 0xffffff;
+  private static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
   private static final Logger logger = Loggers.getLogger(PacketReader.class);
 
   private final byte[] header = new byte[4];
-  private final byte[] reusableArray = new byte[REUSABLE_BUFFER_LENGTH];
+  private byte[] reusableArray = new byte[REUSABLE_BUFFER_LENGTH];
   private final InputStream inputStream;
   private final int maxQuerySizeToLog;
 
@@ -57,59 +67,25 @@ public class PacketReader implements Reader {
   }
 
   public ReadableByteBuf readReusablePacket(boolean traceEnable) throws IOException {
-    // ***************************************************
-    // Read 4 byte header
-    // ***************************************************
-    int remaining = 4;
-    int off = 0;
-    do {
-      int count = inputStream.read(header, off, remaining);
-      if (count < 0) {
-        throw new EOFException(
-            "unexpected end of stream, read "
-                + off
-                + " bytes from 4 (socket was closed by server)");
-      }
-      remaining -= count;
-      off += count;
-    } while (remaining > 0);
-
-    int lastPacketLength =
-        (header[0] & 0xff) + ((header[1] & 0xff) << 8) + ((header[2] & 0xff) << 16);
+    int lastPacketLength = readHeader();
     sequence.set(header[3]);
 
     // prepare array
-    byte[] rawBytes;
-    if (lastPacketLength < REUSABLE_BUFFER_LENGTH) {
-      rawBytes = reusableArray;
-    } else {
-      rawBytes = new byte[lastPacketLength];
-    }
+    byte[] rawBytes = reusableBuffer(lastPacketLength);
 
     // ***************************************************
     // Read content
     // ***************************************************
-    remaining = lastPacketLength;
-    off = 0;
-    do {
-      int count = inputStream.read(rawBytes, off, remaining);
-      if (count < 0) {
-        throw new EOFException(
-            "unexpected end of stream, read "
-                + (lastPacketLength - remaining)
-                + " bytes from "
-                + lastPacketLength
-                + " (socket was closed by server)");
-      }
-      remaining -= count;
-      off += count;
-    } while (remaining > 0);
+    readFully(rawBytes, 0, lastPacketLength);
+    if (traceEnable) trace(rawBytes, 0, lastPacketLength);
 
-    if (traceEnable) {
-      logger.trace(
-          "read: {}\n{}",
-          serverThreadLog,
-          LoggerHelper.hex(header, rawBytes, 0, lastPacketLength, maxQuerySizeToLog));
+    // ***************************************************
+    // In case content length is big, content will be separate in many 16Mb packets
+    // ***************************************************
+    if (lastPacketLength == MAX_PACKET_SIZE) {
+      // first packet is bigger than reusable buffer, so has its own array
+      rawBytes = readMultiPacket(rawBytes, traceEnable);
+      lastPacketLength = rawBytes.length;
     }
 
     readBuf.buf(rawBytes, lastPacketLength, 0);
@@ -125,9 +101,71 @@ public class PacketReader implements Reader {
    * @throws IOException if socket exception occur.
    */
   public byte[] readPacket(boolean traceEnable) throws IOException {
+    int lastPacketLength = readHeader();
+
+    // prepare array
+    byte[] rawBytes = new byte[lastPacketLength];
+
     // ***************************************************
-    // Read 4 byte header
+    // Read content
+    // ***************************************************
+    readFully(rawBytes, 0, lastPacketLength);
+    if (traceEnable) trace(rawBytes, 0, lastPacketLength);
+
     // ***************************************************
+    // In case content length is big, content will be separate in many 16Mb packets
+    // ***************************************************
+    if (lastPacketLength == MAX_PACKET_SIZE) {
+      return readMultiPacket(rawBytes, traceEnable);
+    }
+    return rawBytes;
+  }
+
+  /**
+   * Read following packets of a multi-packet content, then assemble them. Each packet is read in
+   * its own array, so assembly copies data only once, whatever the number of packets.
+   *
+   * @param first first packet content, of length MAX_PACKET_SIZE
+   * @param traceEnable must trace packet.
+   * @return complete content
+   * @throws IOException if socket exception occur.
+   */
+  private byte[] readMultiPacket(byte[] first, boolean traceEnable) throws IOException {
+    List<byte[]> packets = new ArrayList<>();
+    packets.add(first);
+    long totalLength = first.length;
+    int packetLength;
+    do {
+      packetLength = readHeader();
+      sequence.set(header[3]);
+      byte[] packet = new byte[packetLength];
+      readFully(packet, 0, packetLength);
+      if (traceEnable) trace(packet, 0, packetLength);
+      packets.add(packet);
+      totalLength += packetLength;
+    } while (packetLength == MAX_PACKET_SIZE);
+
+    if (totalLength > MAX_ARRAY_LENGTH) {
+      throw new IOException(
+          "packet of " + totalLength + " bytes exceeds maximum array size " + MAX_ARRAY_LENGTH);
+    }
+
+    byte[] rawBytes = new byte[(int) totalLength];
+    int off = 0;
+    for (byte[] packet : packets) {
+      System.arraycopy(packet, 0, rawBytes, off, packet.length);
+      off += packet.length;
+    }
+    return rawBytes;
+  }
+
+  /**
+   * Read 4 byte header
+   *
+   * @return packet length
+   * @throws IOException if socket exception occur.
+   */
+  private int readHeader() throws IOException {
     int remaining = 4;
     int off = 0;
     do {
@@ -141,94 +179,66 @@ public class PacketReader implements Reader {
       remaining -= count;
       off += count;
     } while (remaining > 0);
+    return (header[0] & 0xff) + ((header[1] & 0xff) << 8) + ((header[2] & 0xff) << 16);
+  }
 
-    int lastPacketLength =
-        (header[0] & 0xff) + ((header[1] & 0xff) << 8) + ((header[2] & 0xff) << 16);
-
-    // prepare array
-    byte[] rawBytes = new byte[lastPacketLength];
-
-    // ***************************************************
-    // Read content
-    // ***************************************************
-    remaining = lastPacketLength;
-    off = 0;
-    do {
+  /**
+   * Read packet content
+   *
+   * @param rawBytes destination array
+   * @param off destination offset
+   * @param length content length
+   * @throws IOException if socket exception occur.
+   */
+  private void readFully(byte[] rawBytes, int off, int length) throws IOException {
+    int remaining = length;
+    while (remaining > 0) {
       int count = inputStream.read(rawBytes, off, remaining);
       if (count < 0) {
         throw new EOFException(
             "unexpected end of stream, read "
-                + (lastPacketLength - remaining)
+                + (length - remaining)
                 + " bytes from "
-                + lastPacketLength
+                + length
                 + " (socket was closed by server)");
       }
       remaining -= count;
       off += count;
-    } while (remaining > 0);
-
-    if (traceEnable) {
-      logger.trace(
-          "read: {}\n{}",
-          serverThreadLog,
-          LoggerHelper.hex(header, rawBytes, 0, lastPacketLength, maxQuerySizeToLog));
     }
+  }
 
-    // ***************************************************
-    // In case content length is big, content will be separate in many 16Mb packets
-    // ***************************************************
-    if (lastPacketLength == MAX_PACKET_SIZE) {
-      int packetLength;
-      do {
-        remaining = 4;
-        off = 0;
-        do {
-          int count = inputStream.read(header, off, remaining);
-          if (count < 0) {
-            throw new EOFException("unexpected end of stream, read " + off + " bytes from 4");
-          }
-          remaining -= count;
-          off += count;
-        } while (remaining > 0);
-
-        packetLength = (header[0] & 0xff) + ((header[1] & 0xff) << 8) + ((header[2] & 0xff) << 16);
-
-        int currentbufLength = rawBytes.length;
-        byte[] newRawBytes = new byte[currentbufLength + packetLength];
-        System.arraycopy(rawBytes, 0, newRawBytes, 0, currentbufLength);
-        rawBytes = newRawBytes;
-
-        // ***************************************************
-        // Read content
-        // ***************************************************
-        remaining = packetLength;
-        off = currentbufLength;
-        do {
-          int count = inputStream.read(rawBytes, off, remaining);
-          if (count < 0) {
-            throw new EOFException(
-                "unexpected end of stream, read "
-                    + (packetLength - remaining)
-                    + " bytes from "
-                    + packetLength);
-          }
-          remaining -= count;
-          off += count;
-        } while (remaining > 0);
-
-        if (traceEnable) {
-          logger.trace(
-              "read: {}\n{}",
-              serverThreadLog,
-              LoggerHelper.hex(
-                  header, rawBytes, currentbufLength, packetLength, maxQuerySizeToLog));
-        }
-
-        lastPacketLength += packetLength;
-      } while (packetLength == MAX_PACKET_SIZE);
+  private void trace(byte[] rawBytes, int off, int length) {
+    logger.trace(
+        "read: {}\n{}",
+        serverThreadLog,
+        LoggerHelper.hex(header, rawBytes, off, length, maxQuerySizeToLog));
+  }
+
+  /**
+   * Get reusable buffer, growing it if needed. Packets bigger than maximum reusable length get
+   * their own array.
+   *
+   * @param packetLength packet length
+   * @return buffer of at least packet length
+   */
+  private byte[] reusableBuffer(int packetLength) {
+    if (packetLength <= reusableArray.length) return reusableArray;
+    if (packetLength <= MAX_REUSABLE_BUFFER_LENGTH) {
+      reusableArray = new byte[reusableLength(packetLength)];
+      return reusableArray;
     }
+    return new byte[packetLength];
+  }
 
-    return rawBytes;
+  /**
+   * Reusable buffer length for a packet: next power of two, limited to maximum reusable length.
+   *
+   * @param packetLength packet length
+   * @return buffer length
+   */
+  private static int reusableLength(int packetLength) {
+    int length = Integer.highestOneBit(packetLength - 1) << 1;
+    return Math.min(length, MAX_REUSABLE_BUFFER_LENGTH);
   }
 
   public void skipPacket() throws IOException {
@@ -237,57 +247,62 @@ public class PacketReader implements Reader {
       return;
     }
 
-    // ***************************************************
-    // Read 4 byte header
-    // ***************************************************
-    int remaining = 4;
-    int off = 0;
-    do {
-      int count = inputStream.read(header, off, remaining);
-      if (count < 0) {
-        throw new EOFException(
-            "unexpected end of stream, read "
-                + off
-                + " bytes from 4 (socket was closed by server)");
-      }
-      remaining -= count;
-      off += count;
-    } while (remaining > 0);
+    int lastPacketLength = readHeader();
+    sequence.set(header[3]);
+    skipFully(lastPacketLength);
+    skipContinuationPackets(lastPacketLength);
+  }
 
-    int lastPacketLength =
-        (header[0] & 0xff) + ((header[1] & 0xff) << 8) + ((header[2] & 0xff) << 16);
+  public ReadableByteBuf skipRowPacket(boolean traceEnable, int eofMaxLength) throws IOException {
+    if (traceEnable) return readReusablePacket(true);
 
-    remaining = lastPacketLength;
-    do {
-      remaining -= inputStream.skip(remaining);
-    } while (remaining > 0);
+    int lastPacketLength = readHeader();
+    sequence.set(header[3]);
+    if (lastPacketLength == 0) return null;
+
+    // only first byte is needed to identify ERR and EOF/OK packets
+    readFully(reusableArray, 0, 1);
+    int firstByte = reusableArray[0] & 0xff;
+    if (firstByte == 0xFF || (firstByte == 0xFE && lastPacketLength < eofMaxLength)) {
+      byte[] rawBytes = reusableBuffer(lastPacketLength);
+      rawBytes[0] = (byte) firstByte;
+      readFully(rawBytes, 1, lastPacketLength - 1);
+      readBuf.buf(rawBytes, lastPacketLength, 0);
+      return readBuf;
+    }
 
-    // ***************************************************
-    // In case content length is big, content will be separate in many 16Mb packets
-    // ***************************************************
-    if (lastPacketLength == MAX_PACKET_SIZE) {
-      int packetLength;
-      do {
-        remaining = 4;
-        off = 0;
-        do {
-          int count = inputStream.read(header, off, remaining);
-          if (count < 0) {
-            throw new EOFException("unexpected end of stream, read " + off + " bytes from 4");
-          }
-          remaining -= count;
-          off += count;
-        } while (remaining > 0);
-
-        packetLength = (header[0] & 0xff) + ((header[1] & 0xff) << 8) + ((header[2] & 0xff) << 16);
-
-        remaining = packetLength;
-        do {
-          remaining -= inputStream.skip(remaining);
-        } while (remaining > 0);
-
-        lastPacketLength += packetLength;
-      } while (packetLength == MAX_PACKET_SIZE);
+    skipFully(lastPacketLength - 1);
+    skipContinuationPackets(lastPacketLength);
+    return null;
+  }
+
+  /**
+   * Skip following packets of a multi-packet content.
+   *
+   * @param lastPacketLength first packet length
+   * @throws IOException if socket exception occur.
+   */
+  private void skipContinuationPackets(int lastPacketLength) throws IOException {
+    while (lastPacketLength == MAX_PACKET_SIZE) {
+      lastPacketLength = readHeader();
+      sequence.set(header[3]);
+      skipFully(lastPacketLength);
+    }
+  }
+
+  /**
+   * Discard packet content, reading it in reusable buffer whatever the underlying stream, so
+   * skipping never allocates.
+   *
+   * @param length length to discard
+   * @throws IOException if socket exception occur.
+   */
+  private void skipFully(int length) throws IOException {
+    int remaining = length;
+    while (remaining > 0) {
+      int chunk = Math.min(remaining, reusableArray.length);
+      readFully(reusableArray, 0, chunk);
+      remaining -= chunk;
     }
   }
 
@@ -295,6 +310,10 @@ public class PacketReader implements Reader {
     return sequence;
   }
 
+  public int available() throws IOException {
+    return inputStream.available();
+  }
+
   public void close() throws IOException {
     inputStream.close();
   }
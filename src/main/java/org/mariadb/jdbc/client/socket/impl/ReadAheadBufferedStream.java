@@ -40,7 +40,7 @@ public class ReadAheadBufferedStream extends FilterInputStream {
    * @return number of added bytes
    * @throws IOException if exception during socket reading
    */
-  public synchronized int read(byte[] externalBuf, int off, int len) throws IOException {
+  public int read(byte[] externalBuf, int off, int len) throws IOException {
 
     if (len == 0) {
       return 0;
@@ -104,7 +104,7 @@ public class ReadAheadBufferedStream extends FilterInputStream {
     pos = 0;
   }
 
-  public synchronized int available() throws IOException {
+  public int available() throws IOException {
     return end - pos + super.available();
   }
 
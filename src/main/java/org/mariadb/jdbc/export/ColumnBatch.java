@@ -0,0 +1,123 @@
+// SPDX-License-Identifier: LGPL-2.1-or-later
+// Copyright (c) 2012-2014 Monty Program Ab
+// Copyright (c) 2015-2021 MariaDB Corporation Ab
+
+package org.mariadb.jdbc.export;
+
+/**
+ * Block of rows decoded by column, filled by {@link ColumnBatchResultSet#nextBatch(ColumnBatch)}.
+ *
+ * <p>Each column is stored in a primitive vector, according to its type:
+ *
+ * <ul>
+ *   <li>{@link Kind#LONG}: integer and year columns (except unsigned BIGINT), in a long array
+ *   <li>{@link Kind#DOUBLE}: float and double columns, in a double array
+ *   <li>{@link Kind#BYTES}: other columns, as value bytes in a data array, row n being from {@code
+ *       offsets[n]} (inclusive) to {@code offsets[n + 1]} (exclusive). Values are bytes sent by
+ *       server, except temporal and unsigned BIGINT values of binary result-sets, that are
+ *       converted to their string representation
+ * </ul>
+ *
+ * <p>Null values are indicated by a bitmap for each column, and have value 0 or empty bytes in
+ * vectors. Column indexes start at 0, like row indexes. A batch can be reused for following batches
+ * of the same result-set, vectors are then overwritten.
+ */
+public interface ColumnBatch {
+
+  /** Column vector type */
+  enum Kind {
+    /** long vector */
+    LONG,
+    /** double vector */
+    DOUBLE,
+    /** bytes vector: offsets and data */
+    BYTES
+  }
+
+  /**
+   * Number of rows in batch.
+   *
+   * @return row number, 0 when result-set has no more rows
+   */
+  int size();
+
+  /**
+   * Maximum number of rows in batch.
+   *
+   * @return capacity
+   */
+  int capacity();
+
+  /**
+   * Number of columns.
+   *
+   * @return column number
+   */
+  int columnCount();
+
+  /**
+   * Vector type of a column.
+   *
+   * @param column column index
+   * @return vector type
+   */
+  Kind kind(int column);
+
+  /**
+   * Indicate if a value is null.
+   *
+   * @param column column index
+   * @param row row index
+   * @return true if value is null
+   */
+  boolean isNull(int column, int row);
+
+  /**
+   * Null bitmap of a column: bit (row % 64) of word (row / 64) is set for null values.
+   *
+   * @param column column index
+   * @return null bitmap
+   */
+  long[] nulls(int column);
+
+  /**
+   * Long vector of a {@link Kind#LONG} column.
+   *
+   * @param column column index
+   * @return values, or null for other kind of column
+   */
+  long[] longs(int column);
+
+  /**
+   * Double vector of a {@link Kind#DOUBLE} column.
+   *
+   * @param column column index
+   * @return values, or null for other kind of column
+   */
+  double[] doubles(int column);
+
+  /**
+   * Value offsets of a {@link Kind#BYTES} column, of length capacity + 1.
+   *
+   * @param column column index
+   * @return offsets in data array, or null for other kind of column
+   */
+  int[] offsets(int column);
+
+  /**
+   * Value data of a {@link Kind#BYTES} column.
+   *
+   * @param column column index
+   * @return data, or null for other kind of column
+   */
+  byte[] data(int column);
+
+  /**
+   * Value of a {@link Kind#BYTES} column, as an UTF-8 string.
+   *
+   * @param column column index
+   * @param row row index
+   * @return string value, or null if value is null
+   */
+  String getString(int column, int row);
+}
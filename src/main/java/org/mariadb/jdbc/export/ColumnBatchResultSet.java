@@ -0,0 +1,36 @@
+// SPDX-License-Identifier: LGPL-2.1-or-later
+// Copyright (c) 2012-2014 Monty Program Ab
+// Copyright (c) 2015-2021 MariaDB Corporation Ab
+
+package org.mariadb.jdbc.export;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Result-set reading rows by batch, decoded by column. Driver result-sets implement it, and are
+ * obtained with {@code resultSet.unwrap(ColumnBatchResultSet.class)}.
+ */
+public interface ColumnBatchResultSet extends ResultSet {
+
+  /**
+   * Read up to indicated number of rows, decoded by column. This avoids per-value getter calls and
+   * boxing when rows are copied into column vectors.
+   *
+   * @param rows maximum number of rows
+   * @return batch of rows, empty when there is no more rows
+   * @throws SQLException if any error occurs
+   * @see ColumnBatch
+   */
+  ColumnBatch nextBatch(int rows) throws SQLException;
+
+  /**
+   * Read following rows in an existing batch, decoded by column, up to batch capacity. Batch
+   * vectors are overwritten.
+   *
+   * @param batch batch created by this result-set
+   * @return number of rows read, 0 when there is no more rows
+   * @throws SQLException if any error occurs
+   */
+  int nextBatch(ColumnBatch batch) throws SQLException;
+}
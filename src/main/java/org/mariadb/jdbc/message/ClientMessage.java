@@ -16,6 +16,7 @@ import org.mariadb.jdbc.BasePreparedStatement;
 import org.mariadb.jdbc.Statement;
 import org.mariadb.jdbc.client.*;
 import org.mariadb.jdbc.client.impl.StandardReadableByteBuf;
+import org.mariadb.jdbc.client.result.ColumnDefinitionCache;
 import org.mariadb.jdbc.client.result.CompleteResult;
 import org.mariadb.jdbc.client.result.StreamingResult;
 import org.mariadb.jdbc.client.result.UpdatableResult;
@@ -23,6 +24,7 @@ import org.mariadb.jdbc.client.socket.Reader;
 import org.mariadb.jdbc.client.socket.Writer;
 import org.mariadb.jdbc.client.util.Parameters;
 import org.mariadb.jdbc.export.ExceptionFactory;
+import org.mariadb.jdbc.export.Prepare;
 import org.mariadb.jdbc.message.server.ErrorPacket;
 import org.mariadb.jdbc.message.server.OkPacket;
 import org.mariadb.jdbc.util.constants.ServerStatus;
@@ -76,6 +78,16 @@ public interface ClientMessage {
     return false;
   }
 
+  /**
+   * Prepare result of the executed statement, whose columns are reused when server skips metadata.
+   * Null if unknown, caller prepare result being used then.
+   *
+   * @return executed prepare result
+   */
+  default Prepare executedPrepare() {
+    return null;
+  }
+
   /**
    * default packet resultset parser
    *
@@ -207,19 +219,40 @@ public interface ClientMessage {
         ColumnDecoder[] ci;
         boolean canSkipMeta = context.canSkipMeta() && this.canSkipMeta();
         boolean skipMeta = canSkipMeta ? buf.readByte() == 0 : false;
+        Prepare executedPrepare = canSkipMeta ? executedPrepare() : null;
+        if (canSkipMeta) context.countMetadata(skipMeta);
         if (canSkipMeta && skipMeta) {
-          ci = ((BasePreparedStatement) stmt).getMeta();
+          ci =
+              executedPrepare != null
+                  ? executedPrepare.getColumns()
+                  : ((BasePreparedStatement) stmt).getMeta();
         } else {
           // read columns information's
           ci = new ColumnDecoder[fieldCount];
-          for (int i = 0; i < fieldCount; i++) {
-            ci[i] =
-                ColumnDecoder.decode(
-                    new StandardReadableByteBuf(reader.readPacket(traceEnable)),
-                    context.isExtendedInfo());
+          if (context.getConf().cacheResultMetadata()) {
+            // identical column definitions share the same decoders, then the same columns array
+            for (int i = 0; i < fieldCount; i++) {
+              ci[i] =
+                  ColumnDefinitionCache.column(
+                      reader.readReusablePacket(traceEnable), context.isExtendedInfo());
+            }
+            ci = ColumnDefinitionCache.shape(ci);
+          } else {
+            for (int i = 0; i < fieldCount; i++) {
+              ci[i] =
+                  ColumnDecoder.decode(
+                      new StandardReadableByteBuf(reader.readPacket(traceEnable)),
+                      context.isExtendedInfo());
+            }
+          }
+        }
+        if (canSkipMeta && !skipMeta) {
+          if (executedPrepare != null) {
+            executedPrepare.setColumns(ci);
+          } else {
+            ((BasePreparedStatement) stmt).updateMeta(ci);
           }
         }
-        if (canSkipMeta && !skipMeta) ((BasePreparedStatement) stmt).updateMeta(ci);
 
         // intermediate EOF
         if (!context.isEofDeprecated()) {
@@ -26,6 +26,7 @@ public final class ExecutePacket implements RedoableWithPrepareClientMessage {
   private final String command;
   private final ServerPreparedStatement prep;
   private Prepare prepareResult;
+  private Prepare executedPrepare;
   private InputStream localInfileInputStream;
 
   /**
@@ -73,6 +74,13 @@ public final class ExecutePacket implements RedoableWithPrepareClientMessage {
         (newPrepareResult != null && newPrepareResult.getStatementId() != -1)
             ? newPrepareResult.getStatementId()
             : (this.prepareResult != null ? this.prepareResult.getStatementId() : -1);
+    // statement -1 executes last prepare of a pipeline, caller holding its result
+    executedPrepare =
+        statementId == -1
+            ? null
+            : (newPrepareResult != null && newPrepareResult.getStatementId() != -1
+                ? newPrepareResult
+                : this.prepareResult);
 
     int parameterCount = parameters.size();
 
@@ -131,6 +139,11 @@ public final class ExecutePacket implements RedoableWithPrepareClientMessage {
     return true;
   }
 
+  @Override
+  public Prepare executedPrepare() {
+    return executedPrepare;
+  }
+
   public int batchUpdateLength() {
     return 1;
   }
@@ -16,6 +16,7 @@ import org.mariadb.jdbc.client.socket.impl.PacketWriter;
 import org.mariadb.jdbc.message.ClientMessage;
 import org.mariadb.jdbc.plugin.Credential;
 import org.mariadb.jdbc.plugin.authentication.standard.NativePasswordPlugin;
+import org.mariadb.jdbc.plugin.compression.main.ZstdCompressionPlugin;
 import org.mariadb.jdbc.util.VersionFactory;
 
 /**
@@ -39,6 +40,7 @@ public final class HandshakeResponse implements ClientMessage {
   private final String host;
   private final long clientCapabilities;
   private final byte exchangeCharset;
+  private final int zstdCompressionLevel;
   private final byte[] seed;
   private String authenticationPluginType;
 
@@ -70,6 +72,7 @@ public final class HandshakeResponse implements ClientMessage {
     this.host = host;
     this.clientCapabilities = clientCapabilities;
     this.exchangeCharset = exchangeCharset;
+    this.zstdCompressionLevel = ZstdCompressionPlugin.level(conf);
   }
 
   private static void writeStringLengthAscii(Writer encoder, String value) throws IOException {
@@ -178,6 +181,10 @@ public final class HandshakeResponse implements ClientMessage {
     if (context.hasServerCapability(CONNECT_ATTRS)) {
       writeConnectAttributes(writer, connectionAttributes, host);
     }
+
+    if (context.hasClientCapability(ZSTD_COMPRESSION_ALGORITHM)) {
+      writer.writeByte(zstdCompressionLevel);
+    }
     writer.flush();
     return 1;
   }
@@ -0,0 +1,162 @@
+// SPDX-License-Identifier: LGPL-2.1-or-later
+// Copyright (c) 2012-2014 Monty Program Ab
+// Copyright (c) 2015-2021 MariaDB Corporation Ab
+
+package org.mariadb.jdbc.message.client;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.mariadb.jdbc.client.Context;
+import org.mariadb.jdbc.client.socket.Writer;
+import org.mariadb.jdbc.client.util.Parameter;
+import org.mariadb.jdbc.client.util.Parameters;
+import org.mariadb.jdbc.plugin.codec.ByteArrayCodec;
+import org.mariadb.jdbc.util.ClientParser;
+
+/**
+ * Batch of INSERT rewritten as multi-values COM_QUERY: "INSERT INTO t(a, b) VALUES (?, ?)" with 3
+ * parameter sets is sent as "INSERT INTO t(a, b) VALUES (1, 'a'),(2, 'b'),(3, 'c')". Values
+ * parenthesis are added until query reaches max_allowed_packet, a new query being created for
+ * remaining parameter sets.
+ */
+public final class MultiValuesQueryPacket implements RedoableClientMessage {
+
+  private final String preSqlCmd;
+  private final ClientParser parser;
+  private final int maxQueryLength;
+  private List<Parameters> batchParameterList;
+  private int[] rowsPerQuery;
+
+  /**
+   * Constructor
+   *
+   * @param preSqlCmd additional pre command
+   * @param parser command parser result, must be rewritable
+   * @param batchParameterList batch parameter list
+   * @param maxQueryLength maximum length of a query (max_allowed_packet)
+   */
+  public MultiValuesQueryPacket(
+      String preSqlCmd,
+      ClientParser parser,
+      List<Parameters> batchParameterList,
+      int maxQueryLength) {
+    this.preSqlCmd = preSqlCmd;
+    this.parser = parser;
+    this.batchParameterList = batchParameterList;
+    this.maxQueryLength = maxQueryLength;
+  }
+
+  @Override
+  public void ensureReplayable(Context context) throws IOException, SQLException {
+    for (Parameters parameters : batchParameterList) {
+      int parameterCount = parameters.size();
+      for (int i = 0; i < parameterCount; i++) {
+        Parameter p = parameters.get(i);
+        if (!p.isNull() && p.canEncodeLongData()) {
+          parameters.set(
+              i, new org.mariadb.jdbc.codec.Parameter<>(ByteArrayCodec.INSTANCE, p.encodeData()));
+        }
+      }
+    }
+  }
+
+  public void saveParameters() {
+    List<Parameters> savedList = new ArrayList<>(batchParameterList.size());
+    for (Parameters parameterList : batchParameterList) {
+      savedList.add(parameterList.clone());
+    }
+    this.batchParameterList = savedList;
+  }
+
+  @Override
+  public int encode(Writer encoder, Context context) throws IOException, SQLException {
+    byte[] query = parser.getQuery();
+    int valuesStart = parser.getValuesBracketStart();
+    int valuesEnd = parser.getValuesBracketEnd();
+    int suffixLength = query.length - valuesEnd - 1;
+    int parameterSetNumber = batchParameterList.size();
+
+    int[] rows = new int[parameterSetNumber];
+    int queryNo = 0;
+    int index = 0;
+    byte[] pendingValues = null;
+    while (index < parameterSetNumber) {
+      encoder.initPacket();
+      encoder.writeByte(0x03);
+      if (preSqlCmd != null) encoder.writeAscii(preSqlCmd);
+      encoder.writeBytes(query, 0, valuesStart);
+
+      int queryRows = 0;
+      if (pendingValues != null) {
+        // values that didn't fit in previous query
+        encoder.writeBytes(pendingValues);
+        pendingValues = null;
+        queryRows++;
+        index++;
+      }
+
+      while (index < parameterSetNumber) {
+        int valuesPos = encoder.pos();
+        long flushedLength = encoder.getCmdLength();
+        if (queryRows > 0) encoder.writeByte(',');
+        writeValues(encoder, context, query, valuesStart, valuesEnd, batchParameterList.get(index));
+
+        if (queryRows > 0
+            && encoder.getCmdLength() == flushedLength
+            && flushedLength + encoder.pos() - 4 + suffixLength >= maxQueryLength) {
+          // query would exceed max_allowed_packet: values will be sent in next query
+          pendingValues = Arrays.copyOfRange(encoder.buf(), valuesPos + 1, encoder.pos());
+          encoder.pos(valuesPos);
+          break;
+        }
+        queryRows++;
+        index++;
+      }
+
+      encoder.writeBytes(query, valuesEnd + 1, suffixLength);
+      encoder.flush();
+      rows[queryNo++] = queryRows;
+    }
+    rowsPerQuery = Arrays.copyOf(rows, queryNo);
+    return queryNo;
+  }
+
+  private void writeValues(
+      Writer encoder,
+      Context context,
+      byte[] query,
+      int valuesStart,
+      int valuesEnd,
+      Parameters parameters)
+      throws IOException, SQLException {
+    int[] paramPositions = parser.getParamPositions();
+    int pos = valuesStart;
+    for (int i = 0; i < paramPositions.length; i++) {
+      encoder.writeBytes(query, pos, paramPositions[i] - pos);
+      pos = paramPositions[i] + 1;
+      parameters.get(i).encodeText(encoder, context);
+    }
+    encoder.writeBytes(query, pos, valuesEnd + 1 - pos);
+  }
+
+  public int batchUpdateLength() {
+    return batchParameterList.size();
+  }
+
+  /**
+   * Number of parameter sets of each query sent by last encoding.
+   *
+   * @return parameter set number per query
+   */
+  public int[] getRowsPerQuery() {
+    return rowsPerQuery;
+  }
+
+  @Override
+  public String description() {
+    return parser.getSql();
+  }
+}
@@ -35,6 +35,7 @@ public final class PrepareExecutePacket implements RedoableWithPrepareClientMess
   private Parameters parameters;
   private final ServerPreparedStatement prep;
   private PrepareResultPacket prepareResult;
+  private Prepare executedPrepare;
   private InputStream localInfileInputStream;
   /**
    * Construct prepare packet
@@ -60,6 +61,8 @@ public final class PrepareExecutePacket implements RedoableWithPrepareClientMess
   public int encode(Writer writer, Context context, Prepare newPrepareResult)
       throws IOException, SQLException {
     int statementId = -1;
+    // when replaying, statement is already prepared, otherwise set when reading prepare response
+    executedPrepare = newPrepareResult;
     if (newPrepareResult == null) {
 
       writer.initPacket();
@@ -156,7 +159,7 @@ public final class PrepareExecutePacket implements RedoableWithPrepareClientMess
       if (context.getConf().useServerPrepStmts()
           && context.getConf().cachePrepStmts()
           && sql.length() < 8192) {
-        PrepareResultPacket prepare = new CachedPrepareResultPacket(buf, reader, context);
+        PrepareResultPacket prepare = new CachedPrepareResultPacket(buf, reader, context, sql);
         PrepareResultPacket previousCached =
             (PrepareResultPacket)
                 context
@@ -172,13 +175,16 @@ public final class PrepareExecutePacket implements RedoableWithPrepareClientMess
               .setPrepareResult(previousCached != null ? previousCached : prepare);
         }
         this.prepareResult = previousCached != null ? previousCached : prepare;
+        // execute used the statement just prepared, even if an identical one was already cached
+        this.executedPrepare = prepare;
         return this.prepareResult;
       }
-      PrepareResultPacket prepareResult = new PrepareResultPacket(buf, reader, context);
+      PrepareResultPacket prepareResult = new PrepareResultPacket(buf, reader, context, sql);
       if (stmt != null) {
         ((BasePreparedStatement) stmt).setPrepareResult(prepareResult);
       }
       this.prepareResult = prepareResult;
+      this.executedPrepare = prepareResult;
       return prepareResult;
     } else {
       return RedoableWithPrepareClientMessage.super.readPacket(
@@ -218,6 +224,11 @@ public final class PrepareExecutePacket implements RedoableWithPrepareClientMess
     return true;
   }
 
+  @Override
+  public Prepare executedPrepare() {
+    return executedPrepare;
+  }
+
   @Override
   public String description() {
     return "PREPARE + EXECUTE " + sql;
@@ -28,11 +28,12 @@ public final class CachedPrepareResultPacket extends PrepareResultPacket {
    * @param buffer prepare packet buffer
    * @param reader packet reader
    * @param context connection context
+   * @param sql prepared query
    * @throws IOException if any socket error occurs
    */
-  public CachedPrepareResultPacket(ReadableByteBuf buffer, Reader reader, Context context)
-      throws IOException {
-    super(buffer, reader, context);
+  public CachedPrepareResultPacket(
+      ReadableByteBuf buffer, Reader reader, Context context, String sql) throws IOException {
+    super(buffer, reader, context, sql);
   }
 
   /**
@@ -4,6 +4,7 @@
 
 package org.mariadb.jdbc.message.server;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Objects;
 import org.mariadb.jdbc.client.Column;
 import org.mariadb.jdbc.client.DataType;
@@ -69,29 +70,70 @@ public class ColumnDefinitionPacket implements Column, ServerMessage {
     this.extTypeFormat = extTypeFormat;
   }
 
+  /**
+   * Read identifier at indicated string position index. Buffer position is not used, so column
+   * definition can be shared between connections.
+   *
+   * @param index string position index
+   * @return identifier value
+   */
+  private String readIdentifier(int index) {
+    byte[] bytes = buf.buf();
+    int pos = stringPos[index];
+    int len = bytes[pos++] & 0xff;
+    switch (len) {
+      case 252:
+        len = (bytes[pos] & 0xff) + ((bytes[pos + 1] & 0xff) << 8);
+        pos += 2;
+        break;
+      case 253:
+        len =
+            (bytes[pos] & 0xff) + ((bytes[pos + 1] & 0xff) << 8) + ((bytes[pos + 2] & 0xff) << 16);
+        pos += 3;
+        break;
+      default:
+        // identifier length is always less than 16M
+        break;
+    }
+    return new String(bytes, pos, len, StandardCharsets.UTF_8);
+  }
+
   public String getSchema() {
-    buf.pos(stringPos[0]);
-    return buf.readString(buf.readIntLengthEncodedNotNull());
+    return readIdentifier(0);
   }
 
   public String getTableAlias() {
-    buf.pos(stringPos[1]);
-    return buf.readString(buf.readIntLengthEncodedNotNull());
+    return readIdentifier(1);
   }
 
   public String getTable() {
-    buf.pos(stringPos[useAliasAsName ? 1 : 2]);
-    return buf.readString(buf.readIntLengthEncodedNotNull());
+    return readIdentifier(useAliasAsName ? 1 : 2);
   }
 
   public String getColumnAlias() {
-    buf.pos(stringPos[3]);
-    return buf.readString(buf.readIntLengthEncodedNotNull());
+    return readIdentifier(3);
   }
 
   public String getColumnName() {
-    buf.pos(stringPos[4]);
-    return buf.readString(buf.readIntLengthEncodedNotNull());
+    return readIdentifier(4);
+  }
+
+  /**
+   * Indicate if column definition has been decoded from exactly these packet bytes.
+   *
+   * @param packet packet buffer, position at packet start
+   * @return true if packet bytes are identical
+   */
+  public boolean hasSameDefinition(ReadableByteBuf packet) {
+    byte[] bytes = buf.buf();
+    int len = packet.readableBytes();
+    if (bytes.length != len) return false;
+    byte[] packetBytes = packet.buf();
+    int off = packet.pos();
+    for (int i = 0; i < len; i++) {
+      if (bytes[i] != packetBytes[off + i]) return false;
+    }
+    return true;
   }
 
   public long getColumnLength() {
@@ -19,6 +19,18 @@ public class OkPacket implements Completion {
   private final long affectedRows;
   private final long lastInsertId;
 
+  /**
+   * Constructor for results computed by client, when a server OK_Packet applies to multiple
+   * commands (rewritten batch)
+   *
+   * @param affectedRows affected rows
+   * @param lastInsertId last insert id
+   */
+  public OkPacket(long affectedRows, long lastInsertId) {
+    this.affectedRows = affectedRows;
+    this.lastInsertId = lastInsertId;
+  }
+
   /**
    * Parser
    *
@@ -0,0 +1,107 @@
+// SPDX-License-Identifier: LGPL-2.1-or-later
+// Copyright (c) 2012-2014 Monty Program Ab
+// Copyright (c) 2015-2021 MariaDB Corporation Ab
+
+package org.mariadb.jdbc.message.server;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import org.mariadb.jdbc.HostAddress;
+import org.mariadb.jdbc.client.ColumnDecoder;
+
+/**
+ * Prepare result metadata cache, shared by all connections of the JVM.
+ *
+ * <p>Statement ids are connection specific, so each connection still has to prepare the query, but
+ * column definitions of a query are most of the time identical from one connection to another.
+ * Cached decoders are only reused when server sends exactly the same column definition bytes, so a
+ * stale entry (schema change, key collision) only results in decoding columns again.
+ */
+final class PrepareMetadataCache {
+
+  /** maximum number of cached queries */
+  static final int MAX_SIZE = 2048;
+
+  private static final ConcurrentHashMap<Key, ColumnDecoder[]> cache = new ConcurrentHashMap<>();
+
+  private PrepareMetadataCache() {}
+
+  /**
+   * Get cached columns
+   *
+   * @param key cache key
+   * @return cached columns, or null if not cached
+   */
+  static ColumnDecoder[] get(Key key) {
+    return cache.get(key);
+  }
+
+  /**
+   * Cache columns. If cache is full, an arbitrary entry is evicted.
+   *
+   * @param key cache key
+   * @param columns columns
+   */
+  static void put(Key key, ColumnDecoder[] columns) {
+    if (cache.size() >= MAX_SIZE && !cache.containsKey(key)) {
+      Iterator<Key> iterator = cache.keySet().iterator();
+      if (iterator.hasNext()) {
+        iterator.next();
+        iterator.remove();
+      }
+    }
+    cache.put(key, columns);
+  }
+
+  /** Empty cache */
+  static void clear() {
+    cache.clear();
+  }
+
+  /**
+   * Number of cached queries
+   *
+   * @return cache size
+   */
+  static int size() {
+    return cache.size();
+  }
+
+  /** Cache key: server, database, query, and column format */
+  static final class Key {
+    private final String host;
+    private final int port;
+    private final String database;
+    private final String sql;
+    private final boolean extendedInfo;
+    private final int hash;
+
+    Key(HostAddress hostAddress, String database, String sql, boolean extendedInfo) {
+      this.host = hostAddress == null ? null : hostAddress.host;
+      this.port = hostAddress == null ? 0 : hostAddress.port;
+      this.database = database;
+      this.sql = sql;
+      this.extendedInfo = extendedInfo;
+      this.hash = Objects.hash(host, port, database, sql, extendedInfo);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (!(o instanceof Key)) return false;
+      Key key = (Key) o;
+      return hash == key.hash
+          && port == key.port
+          && extendedInfo == key.extendedInfo
+          && sql.equals(key.sql)
+          && Objects.equals(host, key.host)
+          && Objects.equals(database, key.database);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+}
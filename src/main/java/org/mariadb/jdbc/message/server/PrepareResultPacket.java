@@ -6,9 +6,11 @@ package org.mariadb.jdbc.message.server;
 
 import java.io.IOException;
 import java.sql.SQLException;
+import java.util.Arrays;
 import org.mariadb.jdbc.ServerPreparedStatement;
 import org.mariadb.jdbc.client.*;
 import org.mariadb.jdbc.client.impl.StandardReadableByteBuf;
+import org.mariadb.jdbc.client.result.ColumnLabelIndex;
 import org.mariadb.jdbc.client.socket.Reader;
 import org.mariadb.jdbc.export.Prepare;
 import org.mariadb.jdbc.util.constants.Capabilities;
@@ -54,6 +56,7 @@ public class PrepareResultPacket implements Completion, Prepare {
   private static final Logger logger = Loggers.getLogger(PrepareResultPacket.class);
   private final ColumnDecoder[] parameters;
   private ColumnDecoder[] columns;
+  private volatile ColumnLabelIndex labelIndex;
 
   /** prepare statement id */
   protected int statementId;
@@ -64,9 +67,10 @@ public class PrepareResultPacket implements Completion, Prepare {
    * @param buffer packet buffer
    * @param reader packet reader
    * @param context connection context
+   * @param sql prepared query
    * @throws IOException if socket exception occurs
    */
-  public PrepareResultPacket(ReadableByteBuf buffer, Reader reader, Context context)
+  public PrepareResultPacket(ReadableByteBuf buffer, Reader reader, Context context, String sql)
       throws IOException {
     boolean trace = logger.isTraceEnabled();
     buffer.readByte(); /* skip COM_STMT_PREPARE_OK */
@@ -88,11 +92,15 @@ public class PrepareResultPacket implements Completion, Prepare {
       }
     }
     if (numColumns > 0) {
-      for (int i = 0; i < numColumns; i++) {
-        columns[i] =
-            ColumnDecoder.decode(
-                new StandardReadableByteBuf(reader.readPacket(trace)),
-                context.hasClientCapability(Capabilities.EXTENDED_TYPE_INFO));
+      boolean extendedInfo = context.hasClientCapability(Capabilities.EXTENDED_TYPE_INFO);
+      if (context.getConf().cachePrepMetadata()) {
+        readSharedColumns(reader, context, sql, extendedInfo, trace);
+      } else {
+        for (int i = 0; i < numColumns; i++) {
+          columns[i] =
+              ColumnDecoder.decode(
+                  new StandardReadableByteBuf(reader.readPacket(trace)), extendedInfo);
+        }
       }
       if (!context.isEofDeprecated()) {
         reader.skipPacket();
@@ -100,6 +108,49 @@ public class PrepareResultPacket implements Completion, Prepare {
     }
   }
 
+  /**
+   * Read column definitions, reusing decoders of other connections when server sends identical
+   * column definitions for the same query.
+   *
+   * @param reader packet reader
+   * @param context connection context
+   * @param sql prepared query
+   * @param extendedInfo server sends extended type information
+   * @param trace must packets be logged
+   * @throws IOException if socket exception occurs
+   */
+  private void readSharedColumns(
+      Reader reader, Context context, String sql, boolean extendedInfo, boolean trace)
+      throws IOException {
+    PrepareMetadataCache.Key key =
+        new PrepareMetadataCache.Key(
+            context.getHostAddress(), context.getDatabase(), sql, extendedInfo);
+    ColumnDecoder[] cached = PrepareMetadataCache.get(key);
+    if (cached == null || cached.length != columns.length) {
+      for (int i = 0; i < columns.length; i++) {
+        columns[i] =
+            ColumnDecoder.decode(
+                new StandardReadableByteBuf(reader.readPacket(trace)), extendedInfo);
+      }
+      PrepareMetadataCache.put(key, columns);
+      return;
+    }
+
+    boolean changed = false;
+    for (int i = 0; i < columns.length; i++) {
+      ReadableByteBuf packet = reader.readReusablePacket(trace);
+      if (cached[i].hasSameDefinition(packet)) {
+        columns[i] = cached[i];
+      } else {
+        byte[] bytes =
+            Arrays.copyOfRange(packet.buf(), packet.pos(), packet.pos() + packet.readableBytes());
+        columns[i] = ColumnDecoder.decode(new StandardReadableByteBuf(bytes), extendedInfo);
+        changed = true;
+      }
+    }
+    if (changed) PrepareMetadataCache.put(key, columns);
+  }
+
   /**
    * Close prepare packet
    *
@@ -142,4 +193,19 @@ public class PrepareResultPacket implements Completion, Prepare {
   public void setColumns(ColumnDecoder[] columns) {
     this.columns = columns;
   }
+
+  /**
+   * Label index of current result-set columns, shared by all results using these columns.
+   *
+   * @return label index
+   */
+  public ColumnLabelIndex getColumnLabelIndex() {
+    ColumnDecoder[] current = columns;
+    ColumnLabelIndex index = labelIndex;
+    if (index == null || !index.isFor(current)) {
+      index = new ColumnLabelIndex(current);
+      labelIndex = index;
+    }
+    return index;
+  }
 }
@@ -0,0 +1,139 @@
+// SPDX-License-Identifier: LGPL-2.1-or-later
+// Copyright (c) 2012-2014 Monty Program Ab
+// Copyright (c) 2015-2021 MariaDB Corporation Ab
+
+package org.mariadb.jdbc.plugin;
+
+import java.io.Closeable;
+import java.io.IOException;
+import org.mariadb.jdbc.Configuration;
+
+/**
+ * Compression algorithm plugin for compressed protocol. Packets keep the compressed protocol
+ * framing (7 bytes header), only payload compression depends on algorithm.
+ */
+public interface CompressionPlugin {
+
+  /**
+   * plugin type, as used in `compressionAlgorithms` option.
+   *
+   * @return plugin type
+   */
+  String type();
+
+  /**
+   * Client capability negotiating this algorithm with server.
+   *
+   * @return capability flag
+   */
+  long capability();
+
+  /**
+   * Indicate if algorithm can be used, when depending on optional libraries.
+   *
+   * @return true if available
+   */
+  default boolean isAvailable() {
+    return true;
+  }
+
+  /**
+   * Create compressor for a connection.
+   *
+   * @param conf configuration
+   * @return compressor
+   */
+  Compressor compressor(Configuration conf);
+
+  /**
+   * Create decompressor for a connection.
+   *
+   * @param conf configuration
+   * @return decompressor
+   */
+  Decompressor decompressor(Configuration conf);
+
+  /** Connection compressor. Not thread safe. */
+  interface Compressor extends Closeable {
+
+    /**
+     * Maximum compressed length of data.
+     *
+     * @param length data length
+     * @return maximum compressed length
+     */
+    int maxCompressedLength(int length);
+
+    /**
+     * Compress data.
+     *
+     * @param src data
+     * @param srcOff data offset
+     * @param srcLen data length
+     * @param dst destination, of at least {@link #maxCompressedLength(int)} bytes from dstOff
+     * @param dstOff destination offset
+     * @return compressed length
+     * @throws IOException if compression fails
+     */
+    int compress(byte[] src, int srcOff, int srcLen, byte[] dst, int dstOff) throws IOException;
+
+    /**
+     * Compress data made of two consecutive segments, like the data remaining from previous packet
+     * of a multi-packet command followed by new data. Default implementation copies segments in a
+     * single array, algorithms supporting streaming input compress them directly.
+     *
+     * @param src first segment
+     * @param srcOff first segment offset
+     * @param srcLen first segment length
+     * @param src2 second segment
+     * @param src2Off second segment offset
+     * @param src2Len second segment length
+     * @param dst destination, of at least {@link #maxCompressedLength(int)} bytes of total length
+     *     from dstOff
+     * @param dstOff destination offset
+     * @return compressed length
+     * @throws IOException if compression fails
+     */
+    default int compress(
+        byte[] src,
+        int srcOff,
+        int srcLen,
+        byte[] src2,
+        int src2Off,
+        int src2Len,
+        byte[] dst,
+        int dstOff)
+        throws IOException {
+      byte[] data = new byte[srcLen + src2Len];
+      System.arraycopy(src, srcOff, data, 0, srcLen);
+      System.arraycopy(src2, src2Off, data, srcLen, src2Len);
+      return compress(data, 0, data.length, dst, dstOff);
+    }
+
+    /** Release compressor resources. */
+    @Override
+    default void close() {}
+  }
+
+  /** Connection decompressor. Not thread safe. */
+  interface Decompressor extends Closeable {
+
+    /**
+     * Decompress data.
+     *
+     * @param src compressed data
+     * @param srcOff compressed data offset
+     * @param srcLen compressed data length
+     * @param dst destination
+     * @param dstOff destination offset
+     * @param dstLen expected decompressed length
+     * @throws IOException if data cannot be decompressed to expected length
+     */
+    void decompress(byte[] src, int srcOff, int srcLen, byte[] dst, int dstOff, int dstLen)
+        throws IOException;
+
+    /** Release decompressor resources. */
+    @Override
+    default void close() {}
+  }
+}
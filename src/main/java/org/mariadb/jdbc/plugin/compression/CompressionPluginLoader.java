@@ -0,0 +1,62 @@
+// SPDX-License-Identifier: LGPL-2.1-or-later
+// Copyright (c) 2012-2014 Monty Program Ab
+// Copyright (c) 2015-2021 MariaDB Corporation Ab
+
+package org.mariadb.jdbc.plugin.compression;
+
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.ServiceLoader;
+import org.mariadb.jdbc.Configuration;
+import org.mariadb.jdbc.Driver;
+import org.mariadb.jdbc.plugin.CompressionPlugin;
+import org.mariadb.jdbc.plugin.compression.main.ZlibCompressionPlugin;
+
+/** Compression plugin loader */
+public final class CompressionPluginLoader {
+
+  /**
+   * Get compression plugin from type String. Custom compression algorithms can be added
+   * implementing CompressionPlugin and registering new type in resources services.
+   *
+   * @param type compression plugin type
+   * @return Compression plugin corresponding to type
+   * @throws SQLException if no compression plugin in classpath have indicated type
+   */
+  public static CompressionPlugin get(String type) throws SQLException {
+    if (ZlibCompressionPlugin.TYPE.equals(type)) return ZlibCompressionPlugin.INSTANCE;
+
+    ServiceLoader<CompressionPlugin> loader =
+        ServiceLoader.load(CompressionPlugin.class, Driver.class.getClassLoader());
+
+    for (CompressionPlugin implClass : loader) {
+      if (implClass.type().equals(type)) {
+        return implClass;
+      }
+    }
+    throw new SQLException(
+        "Client has not found any compression plugin with name '" + type + "'.", "08004", 1251);
+  }
+
+  /**
+   * Choose compression algorithm: first algorithm of `compressionAlgorithms` option that is
+   * available and that server supports.
+   *
+   * @param conf configuration
+   * @param capabilities server capabilities, or client capabilities once negotiated
+   * @return compression plugin, or null if none can be used
+   * @throws SQLException if an algorithm has no plugin
+   */
+  public static CompressionPlugin negotiate(Configuration conf, long capabilities)
+      throws SQLException {
+    String algorithms = conf.compressionAlgorithms();
+    if (algorithms == null) algorithms = ZlibCompressionPlugin.TYPE;
+    for (String type : algorithms.split(",")) {
+      type = type.trim().toLowerCase(Locale.ROOT);
+      if (type.isEmpty()) continue;
+      CompressionPlugin plugin = get(type);
+      if (plugin.isAvailable() && (capabilities & plugin.capability()) != 0) return plugin;
+    }
+    return null;
+  }
+}
@@ -0,0 +1,147 @@
+// SPDX-License-Identifier: LGPL-2.1-or-later
+// Copyright (c) 2012-2014 Monty Program Ab
+// Copyright (c) 2015-2021 MariaDB Corporation Ab
+
+package org.mariadb.jdbc.plugin.compression.main;
+
+import java.io.IOException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import org.mariadb.jdbc.Configuration;
+import org.mariadb.jdbc.plugin.CompressionPlugin;
+import org.mariadb.jdbc.util.constants.Capabilities;
+
+/** zlib compression, supported by all servers. Uses one deflater/inflater per connection. */
+public class ZlibCompressionPlugin implements CompressionPlugin {
+
+  /** plugin type */
+  public static final String TYPE = "zlib";
+
+  /** shared instance */
+  public static final ZlibCompressionPlugin INSTANCE = new ZlibCompressionPlugin();
+
+  @Override
+  public String type() {
+    return TYPE;
+  }
+
+  @Override
+  public long capability() {
+    return Capabilities.COMPRESS;
+  }
+
+  @Override
+  public Compressor compressor(Configuration conf) {
+    // 0 (or invalid negative value) means zlib default level
+    int level = conf.compressionLevel();
+    return new ZlibCompressor(level <= 0 ? Deflater.DEFAULT_COMPRESSION : Math.min(level, 9));
+  }
+
+  @Override
+  public Decompressor decompressor(Configuration conf) {
+    return new ZlibDecompressor();
+  }
+
+  private static final class ZlibCompressor implements Compressor {
+    private final Deflater deflater;
+
+    ZlibCompressor(int level) {
+      deflater = new Deflater(level);
+    }
+
+    @Override
+    public int maxCompressedLength(int length) {
+      // zlib conservative deflate bound, including zlib header and trailer
+      return length + ((length + 7) >> 3) + ((length + 63) >> 6) + 11;
+    }
+
+    @Override
+    public int compress(byte[] src, int srcOff, int srcLen, byte[] dst, int dstOff)
+        throws IOException {
+      deflater.reset();
+      deflater.setInput(src, srcOff, srcLen);
+      deflater.finish();
+      return deflate(dst, dstOff, 0);
+    }
+
+    @Override
+    public int compress(
+        byte[] src,
+        int srcOff,
+        int srcLen,
+        byte[] src2,
+        int src2Off,
+        int src2Len,
+        byte[] dst,
+        int dstOff)
+        throws IOException {
+      deflater.reset();
+      deflater.setInput(src, srcOff, srcLen);
+      int length = 0;
+      while (!deflater.needsInput()) {
+        int count = deflater.deflate(dst, dstOff + length, dst.length - dstOff - length);
+        if (count == 0 && dstOff + length == dst.length) {
+          throw new IOException("compression buffer too small");
+        }
+        length += count;
+      }
+      deflater.setInput(src2, src2Off, src2Len);
+      deflater.finish();
+      return deflate(dst, dstOff, length);
+    }
+
+    /**
+     * Deflate until all input has been compressed.
+     *
+     * @param dst destination
+     * @param dstOff destination offset
+     * @param length length already written from dstOff
+     * @return compressed length
+     * @throws IOException if destination is too small
+     */
+    private int deflate(byte[] dst, int dstOff, int length) throws IOException {
+      while (!deflater.finished()) {
+        int count = deflater.deflate(dst, dstOff + length, dst.length - dstOff - length);
+        if (count == 0 && dstOff + length == dst.length) {
+          throw new IOException("compression buffer too small");
+        }
+        length += count;
+      }
+      return length;
+    }
+
+    @Override
+    public void close() {
+      deflater.end();
+    }
+  }
+
+  private static final class ZlibDecompressor implements Decompressor {
+    private final Inflater inflater = new Inflater();
+
+    @Override
+    public void decompress(byte[] src, int srcOff, int srcLen, byte[] dst, int dstOff, int dstLen)
+        throws IOException {
+      inflater.reset();
+      inflater.setInput(src, srcOff, srcLen);
+      try {
+        int actualUncompressBytes = inflater.inflate(dst, dstOff, dstLen);
+        if (actualUncompressBytes != dstLen) {
+          throw new IOException(
+              "Invalid exception length after decompression "
+                  + actualUncompressBytes
+                  + ",expected "
+                  + dstLen);
+        }
+      } catch (DataFormatException dfe) {
+        throw new IOException(dfe);
+      }
+    }
+
+    @Override
+    public void close() {
+      inflater.end();
+    }
+  }
+}
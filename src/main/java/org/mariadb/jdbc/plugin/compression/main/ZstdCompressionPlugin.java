@@ -0,0 +1,179 @@
+// SPDX-License-Identifier: LGPL-2.1-or-later
+// Copyright (c) 2012-2014 Monty Program Ab
+// Copyright (c) 2015-2021 MariaDB Corporation Ab
+
+package org.mariadb.jdbc.plugin.compression.main;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import org.mariadb.jdbc.Configuration;
+import org.mariadb.jdbc.plugin.CompressionPlugin;
+import org.mariadb.jdbc.util.constants.Capabilities;
+
+/**
+ * zstd compression, negotiated with servers having CLIENT_ZSTD_COMPRESSION_ALGORITHM capability
+ * (MySQL 8). Driver doesn't depend on a zstd implementation: plugin is only available when zstd-jni
+ * (com.github.luben:zstd-jni) is in classpath.
+ */
+public class ZstdCompressionPlugin implements CompressionPlugin {
+
+  /** plugin type */
+  public static final String TYPE = "zstd";
+
+  /** zstd default compression level */
+  public static final int DEFAULT_LEVEL = 3;
+
+  @Override
+  public String type() {
+    return TYPE;
+  }
+
+  @Override
+  public long capability() {
+    return Capabilities.ZSTD_COMPRESSION_ALGORITHM;
+  }
+
+  @Override
+  public boolean isAvailable() {
+    return Zstd.COMPRESS != null;
+  }
+
+  /**
+   * zstd compression level sent to server.
+   *
+   * @param conf configuration
+   * @return compression level
+   */
+  public static int level(Configuration conf) {
+    int level = conf.compressionLevel();
+    return level <= 0 ? DEFAULT_LEVEL : Math.min(level, 22);
+  }
+
+  @Override
+  public Compressor compressor(Configuration conf) {
+    int level = level(conf);
+    return new Compressor() {
+      @Override
+      public int maxCompressedLength(int length) {
+        try {
+          return (int) (long) Zstd.COMPRESS_BOUND.invokeExact((long) length);
+        } catch (Throwable t) {
+          throw new IllegalStateException(t);
+        }
+      }
+
+      @Override
+      public int compress(byte[] src, int srcOff, int srcLen, byte[] dst, int dstOff)
+          throws IOException {
+        long result;
+        try {
+          result =
+              (long)
+                  Zstd.COMPRESS.invokeExact(
+                      dst, dstOff, dst.length - dstOff, src, srcOff, srcLen, level);
+        } catch (Throwable t) {
+          throw new IOException("zstd compression failed", t);
+        }
+        return (int) Zstd.check(result);
+      }
+    };
+  }
+
+  @Override
+  public Decompressor decompressor(Configuration conf) {
+    return (src, srcOff, srcLen, dst, dstOff, dstLen) -> {
+      long result;
+      try {
+        result = (long) Zstd.DECOMPRESS.invokeExact(dst, dstOff, dstLen, src, srcOff, srcLen);
+      } catch (Throwable t) {
+        throw new IOException("zstd decompression failed", t);
+      }
+      if (Zstd.check(result) != dstLen) {
+        throw new IOException(
+            "Invalid exception length after decompression " + result + ",expected " + dstLen);
+      }
+    };
+  }
+
+  /** zstd-jni static methods, null if library is not available */
+  private static final class Zstd {
+    static final MethodHandle COMPRESS;
+    static final MethodHandle DECOMPRESS;
+    static final MethodHandle COMPRESS_BOUND;
+    static final MethodHandle IS_ERROR;
+    static final MethodHandle ERROR_NAME;
+
+    static {
+      MethodHandle compress = null;
+      MethodHandle decompress = null;
+      MethodHandle compressBound = null;
+      MethodHandle isError = null;
+      MethodHandle errorName = null;
+      try {
+        Class<?> zstd =
+            Class.forName(
+                "com.github.luben.zstd.Zstd", true, ZstdCompressionPlugin.class.getClassLoader());
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        compress =
+            lookup.findStatic(
+                zstd,
+                "compressByteArray",
+                MethodType.methodType(
+                    long.class,
+                    byte[].class,
+                    int.class,
+                    int.class,
+                    byte[].class,
+                    int.class,
+                    int.class,
+                    int.class));
+        decompress =
+            lookup.findStatic(
+                zstd,
+                "decompressByteArray",
+                MethodType.methodType(
+                    long.class,
+                    byte[].class,
+                    int.class,
+                    int.class,
+                    byte[].class,
+                    int.class,
+                    int.class));
+        compressBound =
+            lookup.findStatic(zstd, "compressBound", MethodType.methodType(long.class, long.class));
+        isError =
+            lookup.findStatic(zstd, "isError", MethodType.methodType(boolean.class, long.class));
+        errorName =
+            lookup.findStatic(
+                zstd, "getErrorName", MethodType.methodType(String.class, long.class));
+      } catch (Throwable t) {
+        // zstd-jni not in classpath (or native library cannot be loaded)
+        compress = null;
+        decompress = null;
+        compressBound = null;
+        isError = null;
+        errorName = null;
+      }
+      COMPRESS = compress;
+      DECOMPRESS = decompress;
+      COMPRESS_BOUND = compressBound;
+      IS_ERROR = isError;
+      ERROR_NAME = errorName;
+    }
+
+    static long check(long result) throws IOException {
+      try {
+        if ((boolean) IS_ERROR.invokeExact(result)) {
+          throw new IOException("zstd error: " + (String) ERROR_NAME.invokeExact(result));
+        }
+      } catch (IOException e) {
+        throw e;
+      } catch (Throwable t) {
+        throw new IOException(t);
+      }
+      return result;
+    }
+  }
+}
@@ -0,0 +1,208 @@
+// SPDX-License-Identifier: LGPL-2.1-or-later
+// Copyright (c) 2012-2014 Monty Program Ab
+// Copyright (c) 2015-2021 MariaDB Corporation Ab
+
+package org.mariadb.jdbc.pool;
+
+import static org.mariadb.jdbc.pool.MariaDbInnerPoolConnection.*;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Lock-free pool connection container.
+ *
+ * <p>Each connection holds its own state (see {@link MariaDbInnerPoolConnection#getState()}), and
+ * borrowing consists of a compare-and-set of that state:
+ *
+ * <ul>
+ *   <li>the last connection released by a thread is tried first, permitting a thread to get back
+ *       the same connection without contention
+ *   <li>then all connections are scanned
+ *   <li>if none is available, thread waits for a connection to be handed off by a releasing thread
+ *       or by connection creation
+ * </ul>
+ */
+public class ConnectionBag {
+
+  private final CopyOnWriteArrayList<MariaDbInnerPoolConnection> sharedList =
+      new CopyOnWriteArrayList<>();
+  private final ThreadLocal<WeakReference<MariaDbInnerPoolConnection>> threadLastUsed =
+      new ThreadLocal<>();
+  private final SynchronousQueue<MariaDbInnerPoolConnection> handoffQueue =
+      new SynchronousQueue<>(true);
+  private final AtomicInteger waiters = new AtomicInteger();
+
+  /**
+   * Borrow a connection, waiting up to timeout if none is available.
+   *
+   * @param timeout timeout, 0 to return immediately if no connection is available
+   * @param timeUnit timeout unit
+   * @return a connection, marked as {@link MariaDbInnerPoolConnection#STATE_IN_USE}, or null if
+   *     timeout is reached
+   * @throws InterruptedException if thread is interrupted while waiting
+   */
+  public MariaDbInnerPoolConnection borrow(long timeout, TimeUnit timeUnit)
+      throws InterruptedException {
+    // try last used connection of this thread
+    WeakReference<MariaDbInnerPoolConnection> ref = threadLastUsed.get();
+    if (ref != null) {
+      MariaDbInnerPoolConnection item = ref.get();
+      if (item != null && item.compareAndSetState(STATE_NOT_IN_USE, STATE_IN_USE)) {
+        return item;
+      }
+    }
+
+    waiters.incrementAndGet();
+    try {
+      for (MariaDbInnerPoolConnection item : sharedList) {
+        if (item.compareAndSetState(STATE_NOT_IN_USE, STATE_IN_USE)) {
+          return item;
+        }
+      }
+
+      long remaining = timeUnit.toNanos(timeout);
+      while (remaining > 0) {
+        long start = System.nanoTime();
+        MariaDbInnerPoolConnection item = handoffQueue.poll(remaining, TimeUnit.NANOSECONDS);
+        if (item == null) return null;
+        if (item.compareAndSetState(STATE_NOT_IN_USE, STATE_IN_USE)) {
+          return item;
+        }
+        remaining -= System.nanoTime() - start;
+      }
+      return null;
+    } finally {
+      waiters.decrementAndGet();
+    }
+  }
+
+  /**
+   * Release a borrowed connection, giving it to a waiting thread if any.
+   *
+   * @param item connection
+   */
+  public void requite(MariaDbInnerPoolConnection item) {
+    item.setState(STATE_NOT_IN_USE);
+    if (!handoff(item)) threadLastUsed.set(new WeakReference<>(item));
+  }
+
+  /**
+   * Release a reserved connection, giving it to a waiting thread if any.
+   *
+   * @param item connection
+   */
+  public void unreserve(MariaDbInnerPoolConnection item) {
+    if (item.compareAndSetState(STATE_RESERVED, STATE_NOT_IN_USE)) handoff(item);
+  }
+
+  private boolean handoff(MariaDbInnerPoolConnection item) {
+    for (int i = 0; waiters.get() > 0; i++) {
+      if (item.getState() != STATE_NOT_IN_USE || handoffQueue.offer(item)) {
+        return true;
+      } else if ((i & 0xff) == 0xff) {
+        LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(10));
+      } else {
+        Thread.yield();
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Add a new idle connection, giving it to a waiting thread if any.
+   *
+   * @param item new connection
+   */
+  public void add(MariaDbInnerPoolConnection item) {
+    item.setState(STATE_NOT_IN_USE);
+    sharedList.add(item);
+
+    // spin until a waiting thread takes it or there is no more waiting thread
+    while (waiters.get() > 0 && item.getState() == STATE_NOT_IN_USE && !handoffQueue.offer(item)) {
+      Thread.yield();
+    }
+  }
+
+  /**
+   * Reserve an idle connection, so it cannot be borrowed any more.
+   *
+   * @param item connection
+   * @return true if connection was idle and is now reserved
+   */
+  public boolean reserve(MariaDbInnerPoolConnection item) {
+    return item.compareAndSetState(STATE_NOT_IN_USE, STATE_RESERVED);
+  }
+
+  /**
+   * Remove connection from bag, whatever its state.
+   *
+   * @param item connection
+   * @return true if connection was in bag
+   */
+  public boolean remove(MariaDbInnerPoolConnection item) {
+    item.setState(STATE_REMOVED);
+    return sharedList.remove(item);
+  }
+
+  /**
+   * List connections with indicated state.
+   *
+   * @param state state
+   * @return connection list
+   */
+  public List<MariaDbInnerPoolConnection> values(int state) {
+    List<MariaDbInnerPoolConnection> list = new ArrayList<>();
+    for (MariaDbInnerPoolConnection item : sharedList) {
+      if (item.getState() == state) list.add(item);
+    }
+    return list;
+  }
+
+  /**
+   * List all connections.
+   *
+   * @return connection list
+   */
+  public List<MariaDbInnerPoolConnection> values() {
+    return new ArrayList<>(sharedList);
+  }
+
+  /**
+   * Number of connections with indicated state.
+   *
+   * @param state state
+   * @return connection number
+   */
+  public int getCount(int state) {
+    int count = 0;
+    for (MariaDbInnerPoolConnection item : sharedList) {
+      if (item.getState() == state) count++;
+    }
+    return count;
+  }
+
+  /**
+   * Number of threads currently waiting for a connection.
+   *
+   * @return waiting thread number
+   */
+  public int getWaitingThreadCount() {
+    return waiters.get();
+  }
+
+  /**
+   * Number of connections in bag, whatever their state.
+   *
+   * @return connection number
+   */
+  public int size() {
+    return sharedList.size();
+  }
+}
@@ -0,0 +1,109 @@
+// SPDX-License-Identifier: LGPL-2.1-or-later
+// Copyright (c) 2012-2014 Monty Program Ab
+// Copyright (c) 2015-2021 MariaDB Corporation Ab
+
+package org.mariadb.jdbc.pool;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Low overhead duration histogram.
+ *
+ * <p>Durations are recorded in microseconds into power of two buckets: bucket 0 holds durations
+ * below 1 µs, and bucket i (i &gt; 0) durations in [2^(i-1), 2^i) µs. Counters are {@link
+ * LongAdder}, so concurrent recording does not contend, and percentiles are approximated to the
+ * upper bound of the bucket.
+ */
+public final class LatencyHistogram {
+
+  /** bucket number. Last bucket holds all durations above 2^38 µs (about 3 days) */
+  public static final int BUCKETS = 40;
+
+  private final LongAdder[] buckets = new LongAdder[BUCKETS];
+  private final LongAdder count = new LongAdder();
+  private final LongAdder total = new LongAdder();
+  private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+  /** Constructor */
+  public LatencyHistogram() {
+    for (int i = 0; i < BUCKETS; i++) buckets[i] = new LongAdder();
+  }
+
+  /**
+   * Record a duration.
+   *
+   * @param nanos duration in nanoseconds
+   */
+  public void record(long nanos) {
+    long micros = Math.max(0L, TimeUnit.NANOSECONDS.toMicros(nanos));
+    buckets[Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros))].increment();
+    count.increment();
+    total.add(micros);
+    max.accumulate(micros);
+  }
+
+  /**
+   * Number of recorded durations.
+   *
+   * @return count
+   */
+  public long getCount() {
+    return count.sum();
+  }
+
+  /**
+   * Mean duration.
+   *
+   * @return mean duration in microseconds, 0 if nothing has been recorded
+   */
+  public long getMean() {
+    long cnt = count.sum();
+    return cnt == 0 ? 0 : total.sum() / cnt;
+  }
+
+  /**
+   * Maximum duration.
+   *
+   * @return maximum duration in microseconds
+   */
+  public long getMax() {
+    return max.get();
+  }
+
+  /**
+   * Approximate percentile.
+   *
+   * @param percentile percentile, between 0 and 100
+   * @return upper bound in microseconds of the bucket containing the percentile, limited to maximum
+   *     duration. 0 if nothing has been recorded
+   */
+  public long getPercentile(double percentile) {
+    long[] counts = getBuckets();
+    long cnt = 0;
+    for (long bucketCount : counts) cnt += bucketCount;
+    if (cnt == 0) return 0;
+
+    long rank = (long) Math.ceil(cnt * Math.min(100d, Math.max(0d, percentile)) / 100d);
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += counts[i];
+      if (seen >= rank && counts[i] > 0) {
+        return Math.min(getMax(), (1L << i) - 1);
+      }
+    }
+    return getMax();
+  }
+
+  /**
+   * Snapshot of bucket counts.
+   *
+   * @return bucket counts
+   */
+  public long[] getBuckets() {
+    long[] counts = new long[BUCKETS];
+    for (int i = 0; i < BUCKETS; i++) counts[i] = buckets[i].sum();
+    return counts;
+  }
+}
@@ -4,6 +4,7 @@
 
 package org.mariadb.jdbc.pool;
 
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import javax.sql.*;
 import org.mariadb.jdbc.Connection;
@@ -14,7 +15,22 @@ import org.mariadb.jdbc.MariaDbPoolConnection;
  * connection after staying in pool for long time.
  */
 public class MariaDbInnerPoolConnection extends MariaDbPoolConnection {
+
+  /** connection is idle in pool */
+  public static final int STATE_NOT_IN_USE = 0;
+
+  /** connection is borrowed */
+  public static final int STATE_IN_USE = 1;
+
+  /** connection is reserved by pool maintenance, to be removed */
+  public static final int STATE_RESERVED = 2;
+
+  /** connection has been removed from pool */
+  public static final int STATE_REMOVED = -1;
+
   private final AtomicLong lastUsed;
+  private final AtomicLong lastValidated;
+  private final AtomicInteger state = new AtomicInteger(STATE_NOT_IN_USE);
 
   /**
    * Constructor.
@@ -24,6 +40,7 @@ public class MariaDbInnerPoolConnection extends MariaDbPoolConnection {
   public MariaDbInnerPoolConnection(Connection connection) {
     super(connection);
     lastUsed = new AtomicLong(System.nanoTime());
+    lastValidated = new AtomicLong(lastUsed.get());
   }
 
   /**
@@ -40,8 +57,52 @@ public class MariaDbInnerPoolConnection extends MariaDbPoolConnection {
     lastUsed.set(System.nanoTime());
   }
 
+  /**
+   * Indicate last time this pool connection has been validated by pool maintenance.
+   *
+   * @return last validation time (nano).
+   */
+  public AtomicLong getLastValidated() {
+    return lastValidated;
+  }
+
+  /** Set last poolConnection validation to now. */
+  public void lastValidatedToNow() {
+    lastValidated.set(System.nanoTime());
+  }
+
   /** Reset last used time, to ensure next retrieval will validate connection before borrowing */
   public void ensureValidation() {
     lastUsed.set(0L);
+    lastValidated.set(0L);
+  }
+
+  /**
+   * Current pool state of this connection.
+   *
+   * @return state
+   */
+  public int getState() {
+    return state.get();
+  }
+
+  /**
+   * Set pool state
+   *
+   * @param newState new state
+   */
+  public void setState(int newState) {
+    state.set(newState);
+  }
+
+  /**
+   * Atomically change pool state if current state is the expected one.
+   *
+   * @param expect expected state
+   * @param update new state
+   * @return true if successful
+   */
+  public boolean compareAndSetState(int expect, int update) {
+    return state.compareAndSet(expect, update);
   }
 }
@@ -4,16 +4,20 @@
 
 package org.mariadb.jdbc.pool;
 
+import static org.mariadb.jdbc.pool.MariaDbInnerPoolConnection.*;
+
 import java.lang.management.ManagementFactory;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.text.NumberFormat;
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 import javax.management.MBeanServer;
 import javax.management.ObjectName;
 import javax.sql.ConnectionEvent;
@@ -34,19 +38,35 @@ public class Pool implements AutoCloseable, PoolMBean {
   private static final int POOL_STATE_OK = 0;
   private static final int POOL_STATE_CLOSING = 1;
 
+  private static final int VALIDATION_UNKNOWN = 0;
+  private static final int VALIDATION_VALID = 1;
+  private static final int VALIDATION_INVALID = 2;
+
   private final AtomicInteger poolState = new AtomicInteger();
+  private final ReentrantLock closeLock = new ReentrantLock();
 
   private final Configuration conf;
   private final AtomicInteger pendingRequestNumber = new AtomicInteger();
   private final AtomicInteger totalConnection = new AtomicInteger();
-
-  private final LinkedBlockingDeque<MariaDbInnerPoolConnection> idleConnections;
+  private final AtomicInteger creatingConnection = new AtomicInteger();
+  private final AtomicLong validationHits = new AtomicLong();
+  private final AtomicLong validationMisses = new AtomicLong();
+  private final AtomicLong replacedConnections = new AtomicLong();
+
+  private final LatencyHistogram waitTime = new LatencyHistogram();
+  private final LatencyHistogram usageTime = new LatencyHistogram();
+  private final LatencyHistogram creationTime = new LatencyHistogram();
+  private final LatencyHistogram validationTime = new LatencyHistogram();
+  private final PoolMetricsListener metricsListener;
+
+  private final ConnectionBag connections;
   private final ThreadPoolExecutor connectionAppender;
   private final BlockingQueue<Runnable> connectionAppenderQueue;
 
   private final String poolTag;
   private final ScheduledThreadPoolExecutor poolExecutor;
   private final ScheduledFuture<?> scheduledFuture;
+  private final ScheduledFuture<?> validationFuture;
 
   private int waitTimeout;
 
@@ -61,22 +81,24 @@ public class Pool implements AutoCloseable, PoolMBean {
 
     this.conf = conf;
     poolTag = generatePoolTag(poolIndex);
+    metricsListener = loadMetricsListener(conf);
 
-    // one thread to add new connection to pool.
+    // threads to add new connection to pool (one by default).
+    int creationThreads = Math.max(1, Math.min(conf.poolCreationThreads(), conf.maxPoolSize()));
     connectionAppenderQueue = new ArrayBlockingQueue<>(conf.maxPoolSize());
     connectionAppender =
         new ThreadPoolExecutor(
-            1,
-            1,
+            creationThreads,
+            creationThreads,
             10,
             TimeUnit.SECONDS,
             connectionAppenderQueue,
             new PoolThreadFactory(poolTag + "-appender"));
     connectionAppender.allowCoreThreadTimeOut(true);
     // create workers, since driver only interact with queue after that (i.e. not using .execute() )
-    connectionAppender.prestartCoreThread();
+    connectionAppender.prestartAllCoreThreads();
 
-    idleConnections = new LinkedBlockingDeque<>();
+    connections = new ConnectionBag();
     int minDelay =
         Integer.parseInt(conf.nonMappedOptions().getProperty("testMinRemovalDelay", "30"));
     int scheduleDelay = Math.min(minDelay, conf.maxIdleTime() / 2);
@@ -84,6 +106,15 @@ public class Pool implements AutoCloseable, PoolMBean {
     scheduledFuture =
         poolExecutor.scheduleAtFixedRate(
             this::removeIdleTimeoutConnection, scheduleDelay, scheduleDelay, TimeUnit.SECONDS);
+    int validationInterval = conf.poolBackgroundValidationInterval();
+    validationFuture =
+        validationInterval > 0
+            ? poolExecutor.scheduleWithFixedDelay(
+                this::validateIdleConnections,
+                validationInterval,
+                validationInterval,
+                TimeUnit.MILLISECONDS)
+            : null;
 
     if (conf.registerJmxPool()) {
       try {
@@ -93,14 +124,41 @@ public class Pool implements AutoCloseable, PoolMBean {
       }
     }
 
-    // create minimal connection in pool
-    try {
-      for (int i = 0; i < Math.max(1, conf.minPoolSize()); i++) {
-        addConnection();
+    // create minimal connection in pool, in parallel if multiple appender threads
+    AtomicReference<SQLException> initError = new AtomicReference<>();
+    List<Future<?>> initTasks = new ArrayList<>();
+    for (int i = 0; i < Math.min(Math.max(1, conf.minPoolSize()), conf.maxPoolSize()); i++) {
+      initTasks.add(
+          connectionAppender.submit(
+              () -> {
+                // stop creating connections after a failure
+                if (initError.get() == null) {
+                  try {
+                    creatingConnection.incrementAndGet();
+                    addConnection();
+                  } catch (SQLException sqle) {
+                    initError.compareAndSet(null, sqle);
+                  }
+                }
+              }));
+    }
+    for (Future<?> initTask : initTasks) {
+      try {
+        initTask.get();
+      } catch (InterruptedException e) {
+        // stop waiting: remaining connections are still created in background
+        Thread.currentThread().interrupt();
+        break;
+      } catch (ExecutionException e) {
+        // eat
       }
+    }
+
+    try {
+      if (initError.get() != null) throw initError.get();
       waitTimeout = 28800;
-      if (!idleConnections.isEmpty()) {
-        Statement stmt = idleConnections.getFirst().getConnection().createStatement();
+      if (connections.size() > 0) {
+        Statement stmt = connections.values().get(0).getConnection().createStatement();
         ResultSet rs = stmt.executeQuery("SELECT @@wait_timeout");
         if (rs.next()) waitTimeout = rs.getInt(1);
       }
@@ -110,24 +168,30 @@ public class Pool implements AutoCloseable, PoolMBean {
   }
 
   /**
-   * Add new connection if needed. Only one thread create new connection, so new connection request
-   * will wait to newly created connection or for a released connection.
+   * Add new connection if needed. Only "poolCreationThreads" threads create new connections, so new
+   * connection request will wait to newly created connection or for a released connection.
    */
   private void addConnectionRequest() {
     if (totalConnection.get() < conf.maxPoolSize() && poolState.get() == POOL_STATE_OK) {
 
-      // ensure to have one worker if was timeout
-      connectionAppender.prestartCoreThread();
+      // ensure to have workers if was timeout
+      connectionAppender.prestartAllCoreThreads();
       boolean unused =
           connectionAppenderQueue.offer(
               () -> {
-                if ((totalConnection.get() < conf.minPoolSize() || pendingRequestNumber.get() > 0)
-                    && totalConnection.get() < conf.maxPoolSize()) {
+                // count connections being created by other appender threads as well
+                int creating = creatingConnection.incrementAndGet();
+                int total = totalConnection.get();
+                if ((total + creating <= conf.minPoolSize()
+                        || pendingRequestNumber.get() >= creating)
+                    && total + creating <= conf.maxPoolSize()) {
                   try {
                     addConnection();
                   } catch (SQLException sqle) {
                     logger.error("error adding connection to pool", sqle);
                   }
+                } else {
+                  creatingConnection.decrementAndGet();
                 }
               });
     }
@@ -139,13 +203,7 @@ public class Pool implements AutoCloseable, PoolMBean {
    */
   private void removeIdleTimeoutConnection() {
 
-    // descending iterator since first from queue are the first to be used
-    Iterator<MariaDbInnerPoolConnection> iterator = idleConnections.descendingIterator();
-
-    MariaDbInnerPoolConnection item;
-
-    while (iterator.hasNext()) {
-      item = iterator.next();
+    for (MariaDbInnerPoolConnection item : connections.values(STATE_NOT_IN_USE)) {
 
       long idleTime = System.nanoTime() - item.getLastUsed().get();
       boolean timedOut = idleTime > TimeUnit.SECONDS.toNanos(conf.maxIdleTime());
@@ -168,8 +226,9 @@ public class Pool implements AutoCloseable, PoolMBean {
         shouldBeReleased = true;
       }
 
-      if (shouldBeReleased && idleConnections.remove(item)) {
-
+      // reserve connection, so it cannot be borrowed meanwhile
+      if (shouldBeReleased && connections.reserve(item)) {
+        connections.remove(item);
         totalConnection.decrementAndGet();
         silentCloseConnection(con);
         addConnectionRequest();
@@ -187,14 +246,88 @@ public class Pool implements AutoCloseable, PoolMBean {
   }
 
   /**
-   * Create new connection.
+   * Validate idle connections that have not been used nor validated since
+   * poolBackgroundValidationInterval, replacing dead ones, so borrowing threads do not have to.
+   */
+  private void validateIdleConnections() {
+    long validationInterval =
+        TimeUnit.MILLISECONDS.toNanos(conf.poolBackgroundValidationInterval());
+
+    for (MariaDbInnerPoolConnection item : connections.values(STATE_NOT_IN_USE)) {
+      if (poolState.get() != POOL_STATE_OK) return;
+
+      long lastChecked = Math.max(item.getLastUsed().get(), item.getLastValidated().get());
+      // reserve connection, so it cannot be borrowed during validation
+      if (System.nanoTime() - lastChecked > validationInterval && connections.reserve(item)) {
+        Connection con = item.getConnection();
+        if (validate(con)) {
+          item.lastValidatedToNow();
+          connections.unreserve(item);
+        } else {
+          // error listener has normally removed connection already
+          if (connections.remove(item)) {
+            totalConnection.decrementAndGet();
+            silentCloseConnection(con);
+            addConnectionRequest();
+          }
+          replacedConnections.incrementAndGet();
+          if (logger.isDebugEnabled()) {
+            logger.debug(
+                "pool {} connection {} replaced due to failed background validation (total:{}, active:{}, pending:{})",
+                poolTag,
+                con.getThreadId(),
+                totalConnection.get(),
+                getActiveConnections(),
+                pendingRequestNumber.get());
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Validate connection with a server round-trip, recording validation time.
+   *
+   * @param con connection
+   * @return true if connection is valid
+   */
+  private boolean validate(Connection con) {
+    long start = System.nanoTime();
+    boolean valid;
+    try {
+      valid = con.isValid(10); // 10 seconds timeout
+    } catch (SQLException sqle) {
+      valid = false;
+    }
+    long duration = System.nanoTime() - start;
+    validationTime.record(duration);
+    if (metricsListener != null) {
+      boolean validated = valid;
+      notifyListener(l -> l.connectionValidated(poolTag, duration, validated));
+    }
+    return valid;
+  }
+
+  /**
+   * Create new connection. Caller must have incremented creatingConnection, which is decremented
+   * once connection is created, before connection is made available: that way, a connection handed
+   * to a waiting request is not counted as still being created.
    *
    * @throws SQLException if connection creation failed
    */
   private void addConnection() throws SQLException {
 
     // create new connection
-    Connection connection = Driver.connect(conf);
+    Connection connection;
+    long start = System.nanoTime();
+    try {
+      connection = Driver.connect(conf);
+    } finally {
+      creatingConnection.decrementAndGet();
+    }
+    long duration = System.nanoTime() - start;
+    creationTime.record(duration);
+    if (metricsListener != null) notifyListener(l -> l.connectionCreated(poolTag, duration));
     MariaDbInnerPoolConnection item = new MariaDbInnerPoolConnection(connection);
     item.addConnectionEventListener(
         new ConnectionEventListener() {
@@ -204,15 +337,22 @@ public class Pool implements AutoCloseable, PoolMBean {
             MariaDbInnerPoolConnection item = (MariaDbInnerPoolConnection) event.getSource();
             if (poolState.get() == POOL_STATE_OK) {
               try {
-                if (!idleConnections.contains(item)) {
+                // state change ensure connection is not released twice
+                if (item.compareAndSetState(STATE_IN_USE, STATE_RESERVED)) {
+                  long usage = System.nanoTime() - item.getLastUsed().get();
+                  usageTime.record(usage);
+                  if (metricsListener != null) {
+                    notifyListener(l -> l.connectionReleased(poolTag, usage));
+                  }
                   item.getConnection().setPoolConnection(null);
                   item.getConnection().reset();
-                  idleConnections.addFirst(item);
                   item.getConnection().setPoolConnection(item);
+                  connections.requite(item);
                 }
               } catch (SQLException sqle) {
 
                 // sql exception during reset, removing connection from pool
+                connections.remove(item);
                 totalConnection.decrementAndGet();
                 silentCloseConnection(item.getConnection());
                 logger.debug(
@@ -230,6 +370,7 @@ public class Pool implements AutoCloseable, PoolMBean {
               } catch (SQLException sqle) {
                 // eat
               }
+              connections.remove(item);
               totalConnection.decrementAndGet();
             }
           }
@@ -239,11 +380,13 @@ public class Pool implements AutoCloseable, PoolMBean {
 
             MariaDbInnerPoolConnection item = ((MariaDbInnerPoolConnection) event.getSource());
             totalConnection.decrementAndGet();
-            boolean unused = idleConnections.remove(item);
+            boolean unused = connections.remove(item);
 
             // ensure that other connection will be validated before being use
             // since one connection failed, better to assume the other might as well
-            idleConnections.forEach(MariaDbInnerPoolConnection::ensureValidation);
+            connections
+                .values(STATE_NOT_IN_USE)
+                .forEach(MariaDbInnerPoolConnection::ensureValidation);
 
             silentCloseConnection(item.getConnection());
             addConnectionRequest();
@@ -256,9 +399,14 @@ public class Pool implements AutoCloseable, PoolMBean {
                 pendingRequestNumber.get());
           }
         });
-    if (poolState.get() == POOL_STATE_OK
-        && totalConnection.incrementAndGet() <= conf.maxPoolSize()) {
-      idleConnections.addFirst(item);
+    if (poolState.get() == POOL_STATE_OK) {
+      if (totalConnection.incrementAndGet() > conf.maxPoolSize()) {
+        // pool has been filled meanwhile
+        totalConnection.decrementAndGet();
+        silentCloseConnection(connection);
+        return;
+      }
+      connections.add(item);
 
       if (logger.isDebugEnabled()) {
         logger.debug(
@@ -284,34 +432,43 @@ public class Pool implements AutoCloseable, PoolMBean {
       throws InterruptedException {
 
     while (true) {
-      MariaDbInnerPoolConnection item =
-          (timeout == 0)
-              ? idleConnections.pollFirst()
-              : idleConnections.pollFirst(timeout, timeUnit);
+      MariaDbInnerPoolConnection item = connections.borrow(timeout, timeUnit);
 
       if (item != null) {
-        try {
-          if (TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - item.getLastUsed().get())
-              > conf.poolValidMinDelay()) {
-
-            // validate connection
-            if (item.getConnection().isValid(10)) { // 10 seconds timeout
-              item.lastUsedToNow();
-              return item;
-            }
+        long idleTime =
+            System.nanoTime() - Math.max(item.getLastUsed().get(), item.getLastValidated().get());
+        if (TimeUnit.NANOSECONDS.toMillis(idleTime) > conf.poolValidMinDelay()) {
 
-          } else {
+          int state =
+              conf.poolHeuristicValidation()
+                  ? heuristicValidation(item, idleTime)
+                  : VALIDATION_UNKNOWN;
 
-            // connection has been retrieved recently -> skip connection validation
+          if (state == VALIDATION_VALID) {
             item.lastUsedToNow();
             return item;
           }
 
-        } catch (SQLException sqle) {
-          // eat
+          // validate connection
+          if (state == VALIDATION_UNKNOWN) {
+            validationMisses.incrementAndGet();
+            if (validate(item.getConnection())) {
+              item.lastUsedToNow();
+              return item;
+            }
+          }
+
+        } else {
+
+          // connection has been retrieved recently -> skip connection validation
+          item.lastUsedToNow();
+          return item;
         }
 
         // validation failed
+        // (connection might already have been removed by error listener when ping failed)
+        if (connections.remove(item)) totalConnection.decrementAndGet();
+        replacedConnections.incrementAndGet();
         silentAbortConnection(item.getConnection());
         addConnectionRequest();
         if (logger.isDebugEnabled()) {
@@ -330,6 +487,30 @@ public class Pool implements AutoCloseable, PoolMBean {
     }
   }
 
+  /**
+   * Validate an idle connection without server round-trip, when possible.
+   *
+   * @param item connection to validate
+   * @param idleTime connection idle time in nanoseconds
+   * @return VALIDATION_VALID or VALIDATION_INVALID if local checks are conclusive,
+   *     VALIDATION_UNKNOWN if connection has to be validated by server
+   */
+  private int heuristicValidation(MariaDbInnerPoolConnection item, long idleTime) {
+    if (!item.getConnection().getClient().isSocketAlive()) {
+      validationHits.incrementAndGet();
+      return VALIDATION_INVALID;
+    }
+
+    // server might have closed connection without client being aware yet
+    if (item.getLastUsed().get() == 0
+        || waitTimeout <= 0
+        || idleTime > TimeUnit.SECONDS.toNanos(waitTimeout - 45)) {
+      return VALIDATION_UNKNOWN;
+    }
+    validationHits.incrementAndGet();
+    return VALIDATION_VALID;
+  }
+
   private void silentCloseConnection(Connection con) {
     con.setPoolConnection(null);
     try {
@@ -357,6 +538,7 @@ public class Pool implements AutoCloseable, PoolMBean {
    * @throws SQLException if no connection is created when reaching timeout (connectTimeout option)
    */
   public MariaDbInnerPoolConnection getPoolConnection() throws SQLException {
+    long start = System.nanoTime();
     pendingRequestNumber.incrementAndGet();
     MariaDbInnerPoolConnection poolConnection;
     try {
@@ -364,7 +546,7 @@ public class Pool implements AutoCloseable, PoolMBean {
       if ((poolConnection =
               getIdleConnection(totalConnection.get() > 4 ? 0 : 50, TimeUnit.MICROSECONDS))
           != null) {
-        return poolConnection;
+        return acquired(poolConnection, start);
       }
 
       // ask for new connection creation if max is not reached
@@ -375,7 +557,7 @@ public class Pool implements AutoCloseable, PoolMBean {
               getIdleConnection(
                   TimeUnit.MILLISECONDS.toNanos(conf.connectTimeout()), TimeUnit.NANOSECONDS))
           != null) {
-        return poolConnection;
+        return acquired(poolConnection, start);
       }
 
       throw new SQLException(
@@ -390,6 +572,38 @@ public class Pool implements AutoCloseable, PoolMBean {
     }
   }
 
+  private MariaDbInnerPoolConnection acquired(MariaDbInnerPoolConnection item, long start) {
+    long duration = System.nanoTime() - start;
+    waitTime.record(duration);
+    if (metricsListener != null) notifyListener(l -> l.connectionAcquired(poolTag, duration));
+    return item;
+  }
+
+  /**
+   * Call metrics listener, listener errors being logged without affecting pool state.
+   *
+   * @param call listener call
+   */
+  private void notifyListener(Consumer<PoolMetricsListener> call) {
+    try {
+      call.accept(metricsListener);
+    } catch (RuntimeException e) {
+      logger.error("pool " + poolTag + " metrics listener error", e);
+    }
+  }
+
+  private static PoolMetricsListener loadMetricsListener(Configuration conf) {
+    if (conf.poolMetricsListener() == null) return null;
+    try {
+      return (PoolMetricsListener)
+          Class.forName(conf.poolMetricsListener()).getConstructor().newInstance();
+    } catch (Exception e) {
+      logger.error(
+          "pool metrics listener \"" + conf.poolMetricsListener() + "\" cannot be loaded", e);
+      return null;
+    }
+  }
+
   /**
    * Get new connection from pool if user and password correspond to pool. If username and password
    * are different from pool, will return a dedicated connection.
@@ -432,71 +646,72 @@ public class Pool implements AutoCloseable, PoolMBean {
   /** Close pool and underlying connections. */
   @Override
   public void close() {
+    closeLock.lock();
     try {
-      synchronized (this) {
-        Pools.remove(this);
-        poolState.set(POOL_STATE_CLOSING);
-        pendingRequestNumber.set(0);
-
-        scheduledFuture.cancel(false);
-        connectionAppender.shutdown();
-
-        try {
-          boolean unused = connectionAppender.awaitTermination(10, TimeUnit.SECONDS);
-        } catch (InterruptedException i) {
-          // eat
-        }
+      Pools.remove(this);
+      poolState.set(POOL_STATE_CLOSING);
+      pendingRequestNumber.set(0);
 
-        if (logger.isInfoEnabled()) {
-          logger.debug(
-              "closing pool {} (total:{}, active:{}, pending:{})",
-              poolTag,
-              totalConnection.get(),
-              getActiveConnections(),
-              pendingRequestNumber.get());
-        }
+      scheduledFuture.cancel(false);
+      if (validationFuture != null) validationFuture.cancel(false);
+      connectionAppender.shutdown();
 
-        ExecutorService connectionRemover =
-            new ThreadPoolExecutor(
-                totalConnection.get(),
-                conf.maxPoolSize(),
-                10,
-                TimeUnit.SECONDS,
-                new LinkedBlockingQueue<>(conf.maxPoolSize()),
-                new PoolThreadFactory(poolTag + "-destroyer"));
-
-        // loop for up to 10 seconds to close not used connection
-        long start = System.nanoTime();
-        do {
-          closeAll(idleConnections);
-          if (totalConnection.get() > 0) {
-            Thread.sleep(0, 10_00);
-          }
-        } while (totalConnection.get() > 0
-            && TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start) < 10);
+      try {
+        boolean unused = connectionAppender.awaitTermination(10, TimeUnit.SECONDS);
+      } catch (InterruptedException i) {
+        // eat
+      }
 
-        // after having wait for 10 seconds, force removal, even if used connections
-        if (totalConnection.get() > 0 || idleConnections.isEmpty()) {
-          closeAll(idleConnections);
-        }
+      if (logger.isInfoEnabled()) {
+        logger.debug(
+            "closing pool {} (total:{}, active:{}, pending:{})",
+            poolTag,
+            totalConnection.get(),
+            getActiveConnections(),
+            pendingRequestNumber.get());
+      }
 
-        connectionRemover.shutdown();
-        try {
-          unRegisterJmx();
-        } catch (Exception exception) {
-          // eat
+      ExecutorService connectionRemover =
+          new ThreadPoolExecutor(
+              totalConnection.get(),
+              conf.maxPoolSize(),
+              10,
+              TimeUnit.SECONDS,
+              new LinkedBlockingQueue<>(conf.maxPoolSize()),
+              new PoolThreadFactory(poolTag + "-destroyer"));
+
+      // loop for up to 10 seconds to close not used connection
+      long start = System.nanoTime();
+      do {
+        closeAll(false);
+        if (totalConnection.get() > 0) {
+          Thread.sleep(0, 10_00);
         }
-        boolean unused = connectionRemover.awaitTermination(10, TimeUnit.SECONDS);
+      } while (totalConnection.get() > 0
+          && TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start) < 10);
+
+      // after having wait for 10 seconds, force removal, even if used connections
+      if (totalConnection.get() > 0) {
+        closeAll(true);
       }
+
+      connectionRemover.shutdown();
+      try {
+        unRegisterJmx();
+      } catch (Exception exception) {
+        // eat
+      }
+      boolean unused = connectionRemover.awaitTermination(10, TimeUnit.SECONDS);
     } catch (Exception e) {
       // eat
+    } finally {
+      closeLock.unlock();
     }
   }
 
-  private void closeAll(Collection<MariaDbInnerPoolConnection> collection) {
-    synchronized (collection) { // synchronized mandatory to iterate Collections.synchronizedList()
-      for (MariaDbInnerPoolConnection item : collection) {
-        collection.remove(item);
+  private void closeAll(boolean force) {
+    for (MariaDbInnerPoolConnection item : connections.values()) {
+      if ((force || connections.reserve(item)) && connections.remove(item)) {
         totalConnection.decrementAndGet();
         silentAbortConnection(item.getConnection());
       }
@@ -514,7 +729,7 @@ public class Pool implements AutoCloseable, PoolMBean {
 
   @Override
   public long getActiveConnections() {
-    return totalConnection.get() - idleConnections.size();
+    return totalConnection.get() - connections.getCount(STATE_NOT_IN_USE);
   }
 
   @Override
@@ -524,13 +739,114 @@ public class Pool implements AutoCloseable, PoolMBean {
 
   @Override
   public long getIdleConnections() {
-    return idleConnections.size();
+    return connections.getCount(STATE_NOT_IN_USE);
   }
 
   public long getConnectionRequests() {
     return pendingRequestNumber.get();
   }
 
+  @Override
+  public long getValidationHits() {
+    return validationHits.get();
+  }
+
+  @Override
+  public long getValidationMisses() {
+    return validationMisses.get();
+  }
+
+  @Override
+  public long getReplacedConnections() {
+    return replacedConnections.get();
+  }
+
+  @Override
+  public long getConnectionWaitTimeMean() {
+    return waitTime.getMean();
+  }
+
+  @Override
+  public long getConnectionWaitTimeP99() {
+    return waitTime.getPercentile(99);
+  }
+
+  @Override
+  public long getConnectionWaitTimeMax() {
+    return waitTime.getMax();
+  }
+
+  @Override
+  public long getConnectionUsageTimeMean() {
+    return usageTime.getMean();
+  }
+
+  @Override
+  public long getConnectionUsageTimeP99() {
+    return usageTime.getPercentile(99);
+  }
+
+  @Override
+  public long getConnectionUsageTimeMax() {
+    return usageTime.getMax();
+  }
+
+  @Override
+  public long getConnectionCreationTimeMean() {
+    return creationTime.getMean();
+  }
+
+  @Override
+  public long getConnectionCreationTimeMax() {
+    return creationTime.getMax();
+  }
+
+  @Override
+  public long getConnectionValidationTimeMean() {
+    return validationTime.getMean();
+  }
+
+  @Override
+  public long getConnectionValidationTimeMax() {
+    return validationTime.getMax();
+  }
+
+  /**
+   * Histogram of time spent by callers waiting for a connection.
+   *
+   * @return wait time histogram
+   */
+  public LatencyHistogram getWaitTimeHistogram() {
+    return waitTime;
+  }
+
+  /**
+   * Histogram of time connections are held by callers.
+   *
+   * @return usage time histogram
+   */
+  public LatencyHistogram getUsageTimeHistogram() {
+    return usageTime;
+  }
+
+  /**
+   * Histogram of physical connection creation time.
+   *
+   * @return creation time histogram
+   */
+  public LatencyHistogram getCreationTimeHistogram() {
+    return creationTime;
+  }
+
+  /**
+   * Histogram of connection validation time (server round-trip).
+   *
+   * @return validation time histogram
+   */
+  public LatencyHistogram getValidationTimeHistogram() {
+    return validationTime;
+  }
+
   private void registerJmx() throws Exception {
     MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
     String jmxName = poolTag.replace(":", "_");
@@ -558,7 +874,7 @@ public class Pool implements AutoCloseable, PoolMBean {
    */
   public List<Long> testGetConnectionIdleThreadIds() {
     List<Long> threadIds = new ArrayList<>();
-    for (MariaDbInnerPoolConnection pooledConnection : idleConnections) {
+    for (MariaDbInnerPoolConnection pooledConnection : connections.values(STATE_NOT_IN_USE)) {
       threadIds.add(pooledConnection.getConnection().getThreadId());
     }
     return threadIds;
@@ -34,4 +34,95 @@ public interface PoolMBean {
    * @return request number
    */
   long getConnectionRequests();
+
+  /**
+   * get number of idle connection validations decided locally, without server round-trip
+   *
+   * @return validation hit number
+   */
+  long getValidationHits();
+
+  /**
+   * get number of idle connection validations that needed a server round-trip
+   *
+   * @return validation miss number
+   */
+  long getValidationMisses();
+
+  /**
+   * get number of connections removed due to failed validation, and replaced
+   *
+   * @return replaced connection number
+   */
+  long getReplacedConnections();
+
+  /**
+   * get mean time waiting for a connection, in microseconds
+   *
+   * @return mean time waiting for a connection
+   */
+  long getConnectionWaitTimeMean();
+
+  /**
+   * get 99th percentile of time waiting for a connection, in microseconds
+   *
+   * @return 99th percentile of time waiting for a connection
+   */
+  long getConnectionWaitTimeP99();
+
+  /**
+   * get maximum time waiting for a connection, in microseconds
+   *
+   * @return maximum time waiting for a connection
+   */
+  long getConnectionWaitTimeMax();
+
+  /**
+   * get mean time a connection is held, in microseconds
+   *
+   * @return mean time a connection is held
+   */
+  long getConnectionUsageTimeMean();
+
+  /**
+   * get 99th percentile of time a connection is held, in microseconds
+   *
+   * @return 99th percentile of time a connection is held
+   */
+  long getConnectionUsageTimeP99();
+
+  /**
+   * get maximum time a connection is held, in microseconds
+   *
+   * @return maximum time a connection is held
+   */
+  long getConnectionUsageTimeMax();
+
+  /**
+   * get mean connection creation time, in microseconds
+   *
+   * @return mean connection creation time
+   */
+  long getConnectionCreationTimeMean();
+
+  /**
+   * get maximum connection creation time, in microseconds
+   *
+   * @return maximum connection creation time
+   */
+  long getConnectionCreationTimeMax();
+
+  /**
+   * get mean connection validation time, in microseconds
+   *
+   * @return mean connection validation time
+   */
+  long getConnectionValidationTimeMean();
+
+  /**
+   * get maximum connection validation time, in microseconds
+   *
+   * @return maximum connection validation time
+   */
+  long getConnectionValidationTimeMax();
 }
@@ -0,0 +1,48 @@
+// SPDX-License-Identifier: LGPL-2.1-or-later
+// Copyright (c) 2012-2014 Monty Program Ab
+// Copyright (c) 2015-2021 MariaDB Corporation Ab
+
+package org.mariadb.jdbc.pool;
+
+/**
+ * Pool metrics listener, set with option `poolMetricsListener`, permitting to feed an external
+ * metrics system.
+ *
+ * <p>Methods are called synchronously on pool hot paths: implementations must be thread-safe, fast,
+ * and must not throw exceptions.
+ */
+public interface PoolMetricsListener {
+
+  /**
+   * Called when a connection has been borrowed from pool.
+   *
+   * @param poolName pool name
+   * @param waitNanos time spent waiting for the connection, in nanoseconds
+   */
+  default void connectionAcquired(String poolName, long waitNanos) {}
+
+  /**
+   * Called when a borrowed connection has been returned to pool.
+   *
+   * @param poolName pool name
+   * @param usageNanos time the connection has been held, in nanoseconds
+   */
+  default void connectionReleased(String poolName, long usageNanos) {}
+
+  /**
+   * Called when a new physical connection has been created.
+   *
+   * @param poolName pool name
+   * @param creationNanos connection creation time, in nanoseconds
+   */
+  default void connectionCreated(String poolName, long creationNanos) {}
+
+  /**
+   * Called when a connection has been validated by server.
+   *
+   * @param poolName pool name
+   * @param validationNanos validation time, in nanoseconds
+   * @param valid validation result
+   */
+  default void connectionValidated(String poolName, long validationNanos, boolean valid) {}
+}
@@ -9,6 +9,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 import org.mariadb.jdbc.Configuration;
 
 /** Pools */
@@ -16,6 +17,9 @@ public final class Pools {
 
   private static final AtomicInteger poolIndex = new AtomicInteger();
   private static final Map<Configuration, Pool> poolMap = new ConcurrentHashMap<>();
+  // pool creation and closing do network exchanges: using a lock rather than a monitor
+  // to avoid pinning virtual thread carrier
+  private static final ReentrantLock lock = new ReentrantLock();
   private static ScheduledThreadPoolExecutor poolExecutor = null;
 
   /**
@@ -26,7 +30,8 @@ public final class Pools {
    */
   public static Pool retrievePool(Configuration conf) {
     if (!poolMap.containsKey(conf)) {
-      synchronized (poolMap) {
+      lock.lock();
+      try {
         if (!poolMap.containsKey(conf)) {
           if (poolExecutor == null) {
             poolExecutor =
@@ -37,6 +42,8 @@ public final class Pools {
           poolMap.put(conf, pool);
           return pool;
         }
+      } finally {
+        lock.unlock();
       }
     }
     return poolMap.get(conf);
@@ -49,7 +56,8 @@ public final class Pools {
    */
   public static void remove(Pool pool) {
     if (poolMap.containsKey(pool.getConf())) {
-      synchronized (poolMap) {
+      lock.lock();
+      try {
         if (poolMap.containsKey(pool.getConf())) {
           poolMap.remove(pool.getConf());
 
@@ -57,13 +65,16 @@ public final class Pools {
             shutdownExecutor();
           }
         }
+      } finally {
+        lock.unlock();
       }
     }
   }
 
   /** Close all pools. */
   public static void close() {
-    synchronized (poolMap) {
+    lock.lock();
+    try {
       for (Pool pool : poolMap.values()) {
         try {
           pool.close();
@@ -73,6 +84,8 @@ public final class Pools {
       }
       shutdownExecutor();
       poolMap.clear();
+    } finally {
+      lock.unlock();
     }
   }
 
@@ -85,7 +98,8 @@ public final class Pools {
     if (poolName == null) {
       return;
     }
-    synchronized (poolMap) {
+    lock.lock();
+    try {
       for (Pool pool : poolMap.values()) {
         if (poolName.equals(pool.getConf().poolName())) {
           try {
@@ -96,6 +110,8 @@ public final class Pools {
           return;
         }
       }
+    } finally {
+      lock.unlock();
     }
   }
 
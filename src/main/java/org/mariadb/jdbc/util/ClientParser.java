@@ -5,21 +5,36 @@
 package org.mariadb.jdbc.util;
 
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
+/**
+ * Parsed query for client side prepared statement. Parsed query is immutable, so it can be shared
+ * (see {@link ClientParserCache}): query bytes and parameter positions must not be modified.
+ */
 public final class ClientParser implements PrepareResult {
 
+  private static final int[] NO_PARAMETER = new int[0];
+
   private final String sql;
+  private final boolean noBackslashEscapes;
   private final byte[] query;
-  private List<Integer> paramPositions;
-  private int paramCount;
+  private final int[] paramPositions;
+  private final int valuesBracketStart;
+  private final int valuesBracketEnd;
 
-  private ClientParser(String sql, byte[] query, List<Integer> paramPositions) {
+  private ClientParser(
+      String sql,
+      boolean noBackslashEscapes,
+      byte[] query,
+      int[] paramPositions,
+      int valuesBracketStart,
+      int valuesBracketEnd) {
     this.sql = sql;
+    this.noBackslashEscapes = noBackslashEscapes;
     this.query = query;
     this.paramPositions = paramPositions;
-    this.paramCount = paramPositions.size();
+    this.valuesBracketStart = valuesBracketStart;
+    this.valuesBracketEnd = valuesBracketEnd;
   }
 
   /**
@@ -29,17 +44,28 @@ public final class ClientParser implements PrepareResult {
    * INTO tableName(id, name) VALUES (?, ?)" result list will be : {"INSERT INTO tableName(id, name)
    * VALUES (", ", ", ")"}
    *
+   * <p>Query is also checked for multi-values rewriting: an INSERT/REPLACE with a single VALUES
+   * parenthesis containing all parameters, optionally followed by an ON DUPLICATE KEY UPDATE clause
+   * without parameter, can have this parenthesis repeated for each parameter set of a batch.
+   *
    * @param queryString query
    * @param noBackslashEscapes escape mode
    * @return ClientPrepareResult
    */
   public static ClientParser parameterParts(String queryString, boolean noBackslashEscapes) {
 
-    List<Integer> paramPositions = new ArrayList<>();
+    int[] paramPositions = NO_PARAMETER;
+    int paramCount = 0;
     LexState state = LexState.Normal;
     byte lastChar = 0x00;
 
     boolean singleQuotes = false;
+    // multi-values rewriting detection
+    int depth = 0;
+    boolean afterValues = false;
+    boolean multiQueries = false;
+    int valuesBracketStart = -1;
+    int valuesBracketEnd = -1;
     byte[] query = queryString.getBytes(StandardCharsets.UTF_8);
     int queryLength = query.length;
     for (int i = 0; i < queryLength; i++) {
@@ -116,7 +142,10 @@ public final class ClientParser implements PrepareResult {
           break;
         case (byte) '?':
           if (state == LexState.Normal) {
-            paramPositions.add(i);
+            if (paramCount == paramPositions.length) {
+              paramPositions = Arrays.copyOf(paramPositions, Math.max(8, paramCount * 2));
+            }
+            paramPositions[paramCount++] = i;
           }
           break;
         case (byte) '`':
@@ -126,27 +155,198 @@ public final class ClientParser implements PrepareResult {
             state = LexState.Backtick;
           }
           break;
+
+        case (byte) '(':
+          if (state == LexState.Normal) {
+            if (depth++ == 0 && afterValues && valuesBracketStart == -1) {
+              valuesBracketStart = i;
+            }
+          }
+          break;
+
+        case (byte) ')':
+          if (state == LexState.Normal) {
+            if (--depth == 0 && valuesBracketStart != -1 && valuesBracketEnd == -1) {
+              valuesBracketEnd = i;
+            }
+          }
+          break;
+
+        case (byte) ';':
+          if (state == LexState.Normal) {
+            multiQueries = true;
+          }
+          break;
+
+        case (byte) 'v':
+        case (byte) 'V':
+          if (state == LexState.Normal
+              && depth == 0
+              && !afterValues
+              && !isIdentifierPart(lastChar)
+              && isValuesKeyword(query, i)) {
+            afterValues = true;
+          }
+          break;
       }
       lastChar = car;
     }
 
-    return new ClientParser(queryString, query, paramPositions);
+    if (paramCount != paramPositions.length) {
+      paramPositions = Arrays.copyOf(paramPositions, paramCount);
+    }
+    if (multiQueries
+        || valuesBracketEnd == -1
+        || !isInsertQuery(query)
+        || (paramCount > 0
+            && (paramPositions[0] < valuesBracketStart
+                || paramPositions[paramCount - 1] > valuesBracketEnd))
+        || !isRewritableEnd(query, valuesBracketEnd + 1)) {
+      valuesBracketStart = -1;
+      valuesBracketEnd = -1;
+    }
+    return new ClientParser(
+        queryString,
+        noBackslashEscapes,
+        query,
+        paramPositions,
+        valuesBracketStart,
+        valuesBracketEnd);
+  }
+
+  private static boolean isIdentifierPart(byte car) {
+    return (car >= 'a' && car <= 'z')
+        || (car >= 'A' && car <= 'Z')
+        || (car >= '0' && car <= '9')
+        || car == '_'
+        || car == '$'
+        || car < 0;
+  }
+
+  /**
+   * Check that query has a "VALUE" or "VALUES" keyword at position.
+   *
+   * @param query query bytes
+   * @param pos position of 'V' character
+   * @return true if keyword
+   */
+  private static boolean isValuesKeyword(byte[] query, int pos) {
+    int end = matchKeyword(query, pos, "VALUE");
+    if (end == -1) return false;
+    if (end < query.length && (query[end] == 'S' || query[end] == 's')) end++;
+    return end == query.length || !isIdentifierPart(query[end]);
+  }
+
+  private static int matchKeyword(byte[] query, int pos, String keyword) {
+    if (pos + keyword.length() > query.length) return -1;
+    for (int i = 0; i < keyword.length(); i++) {
+      if ((query[pos + i] & 0xDF) != keyword.charAt(i)) return -1;
+    }
+    return pos + keyword.length();
+  }
+
+  private static int skipWhitespace(byte[] query, int pos) {
+    while (pos < query.length
+        && (query[pos] == ' ' || query[pos] == '\t' || query[pos] == '\n' || query[pos] == '\r')) {
+      pos++;
+    }
+    return pos;
+  }
+
+  private static boolean isInsertQuery(byte[] query) {
+    int pos = skipWhitespace(query, 0);
+    int end = matchKeyword(query, pos, "INSERT");
+    if (end == -1) end = matchKeyword(query, pos, "REPLACE");
+    return end != -1 && (end == query.length || !isIdentifierPart(query[end]));
+  }
+
+  /**
+   * Check that query ends after VALUES parenthesis, or continues with an ON DUPLICATE KEY UPDATE
+   * clause.
+   *
+   * @param query query bytes
+   * @param pos position following VALUES parenthesis
+   * @return true if values parenthesis can be repeated
+   */
+  private static boolean isRewritableEnd(byte[] query, int pos) {
+    pos = skipWhitespace(query, pos);
+    if (pos == query.length) return true;
+    int end = matchKeyword(query, pos, "ON");
+    if (end == -1 || end == query.length || isIdentifierPart(query[end])) return false;
+    pos = skipWhitespace(query, end);
+    end = matchKeyword(query, pos, "DUPLICATE");
+    return end != -1 && (end == query.length || !isIdentifierPart(query[end]));
   }
 
   public String getSql() {
     return sql;
   }
 
+  /**
+   * Escape mode used for parsing.
+   *
+   * @return true if parsed without backslash escapes
+   */
+  public boolean isNoBackslashEscapes() {
+    return noBackslashEscapes;
+  }
+
+  /**
+   * UTF-8 query bytes. Shared array, must not be modified.
+   *
+   * @return query bytes
+   */
   public byte[] getQuery() {
     return query;
   }
 
-  public List<Integer> getParamPositions() {
+  /**
+   * Positions of parameter placeholders in query bytes. Shared array, must not be modified.
+   *
+   * @return parameter positions
+   */
+  public int[] getParamPositions() {
     return paramPositions;
   }
 
   public int getParamCount() {
-    return paramCount;
+    return paramPositions.length;
+  }
+
+  /**
+   * Indicate if query is an INSERT that can be rewritten with multiple VALUES parenthesis.
+   *
+   * @return true if query can be rewritten
+   */
+  public boolean isInsertValuesRewritable() {
+    return valuesBracketEnd != -1;
+  }
+
+  /**
+   * Indicate if rewritable INSERT continues with an ON DUPLICATE KEY UPDATE clause.
+   *
+   * @return true if rewritable query has an ON DUPLICATE KEY UPDATE clause
+   */
+  public boolean isInsertDuplicateKeyUpdate() {
+    return valuesBracketEnd != -1 && skipWhitespace(query, valuesBracketEnd + 1) != query.length;
+  }
+
+  /**
+   * Position of VALUES opening parenthesis in query bytes, -1 if query cannot be rewritten.
+   *
+   * @return VALUES parenthesis start
+   */
+  public int getValuesBracketStart() {
+    return valuesBracketStart;
+  }
+
+  /**
+   * Position of VALUES closing parenthesis in query bytes, -1 if query cannot be rewritten.
+   *
+   * @return VALUES parenthesis end
+   */
+  public int getValuesBracketEnd() {
+    return valuesBracketEnd;
   }
 
   enum LexState {
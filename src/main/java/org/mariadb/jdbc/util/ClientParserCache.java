@@ -0,0 +1,87 @@
+// SPDX-License-Identifier: LGPL-2.1-or-later
+// Copyright (c) 2012-2014 Monty Program Ab
+// Copyright (c) 2015-2021 MariaDB Corporation Ab
+
+package org.mariadb.jdbc.util;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Client side prepared statement parsed queries cache, shared by all connections of the JVM.
+ *
+ * <p>Cache is direct-mapped with a fixed number of slots: a new entry replaces the one having the
+ * same slot, so cache is bounded and lookups neither lock nor allocate. Parsed queries are
+ * immutable, so the same instance is shared by all statements with the same sql and escape mode.
+ */
+public final class ClientParserCache {
+
+  /** number of cached parsed queries */
+  static final int SLOTS = 2048;
+
+  /** longer queries are not cached */
+  static final int MAX_SQL_LENGTH = 8192;
+
+  private static final AtomicReferenceArray<ClientParser> parsers =
+      new AtomicReferenceArray<>(SLOTS);
+  private static final LongAdder hits = new LongAdder();
+  private static final LongAdder misses = new LongAdder();
+
+  private ClientParserCache() {}
+
+  /**
+   * Get parsed query, parsing query if not cached.
+   *
+   * @param sql query
+   * @param noBackslashEscapes escape mode
+   * @return parsed query
+   */
+  public static ClientParser parameterParts(String sql, boolean noBackslashEscapes) {
+    if (sql.length() > MAX_SQL_LENGTH) {
+      misses.increment();
+      return ClientParser.parameterParts(sql, noBackslashEscapes);
+    }
+    int hash = sql.hashCode() * 31 + (noBackslashEscapes ? 1 : 0);
+    int slot = (hash ^ (hash >>> 16)) & (SLOTS - 1);
+    ClientParser cached = parsers.get(slot);
+    if (cached != null
+        && cached.isNoBackslashEscapes() == noBackslashEscapes
+        && cached.getSql().equals(sql)) {
+      hits.increment();
+      return cached;
+    }
+    misses.increment();
+    ClientParser parser = ClientParser.parameterParts(sql, noBackslashEscapes);
+    parsers.set(slot, parser);
+    return parser;
+  }
+
+  /**
+   * Number of parsed queries found in cache since JVM start.
+   *
+   * @return hit count
+   */
+  public static long hitCount() {
+    return hits.sum();
+  }
+
+  /**
+   * Number of queries parsed since JVM start, because not found in cache.
+   *
+   * @return miss count
+   */
+  public static long missCount() {
+    return misses.sum();
+  }
+
+  /**
+   * Ratio of parsed queries found in cache.
+   *
+   * @return hit ratio, 0 if no query has been parsed
+   */
+  public static double hitRatio() {
+    long hit = hits.sum();
+    long total = hit + misses.sum();
+    return total == 0 ? 0 : (double) hit / total;
+  }
+}
@@ -80,6 +80,9 @@ public final class Capabilities {
   /** EOF packet deprecated */
   public static final int CLIENT_DEPRECATE_EOF = 1 << 24;
 
+  /** zstd compression algorithm (MySQL 8 servers) */
+  public static final int ZSTD_COMPRESSION_ALGORITHM = 1 << 26;
+
   /** Client support progress indicator (before 10.2) */
   public static final int PROGRESS_OLD = 1 << 29;
 
@@ -29,12 +29,14 @@ module org.mariadb.jdbc {
   exports org.mariadb.jdbc.plugin.credential.env;
   exports org.mariadb.jdbc.plugin.credential.system;
   exports org.mariadb.jdbc.plugin.tls.main;
+  exports org.mariadb.jdbc.plugin.compression.main;
 
   uses java.sql.Driver;
   uses org.mariadb.jdbc.plugin.CredentialPlugin;
   uses org.mariadb.jdbc.plugin.Codec;
   uses org.mariadb.jdbc.plugin.AuthenticationPlugin;
   uses org.mariadb.jdbc.plugin.TlsSocketPlugin;
+  uses org.mariadb.jdbc.plugin.CompressionPlugin;
 
   provides java.sql.Driver with
       org.mariadb.jdbc.Driver;
@@ -83,4 +85,7 @@ module org.mariadb.jdbc {
       org.mariadb.jdbc.plugin.credential.system.PropertiesCredentialPlugin;
   provides org.mariadb.jdbc.plugin.TlsSocketPlugin with
       org.mariadb.jdbc.plugin.tls.main.DefaultTlsSocketPlugin;
+  provides org.mariadb.jdbc.plugin.CompressionPlugin with
+      org.mariadb.jdbc.plugin.compression.main.ZlibCompressionPlugin,
+      org.mariadb.jdbc.plugin.compression.main.ZstdCompressionPlugin;
 }
@@ -0,0 +1,177 @@
+// SPDX-License-Identifier: LGPL-2.1-or-later
+// Copyright (c) 2012-2014 Monty Program Ab
+// Copyright (c) 2015-2021 MariaDB Corporation Ab
+
+package org.mariadb.jdbc;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.mariadb.jdbc.client.result.RowEmitter;
+
+/**
+ * Publisher of query rows, mapped to objects.
+ *
+ * <p>Query is only executed when subscriber first requests rows, then rows are read from socket by
+ * windows of statement fetch size (or {@link #DEFAULT_FETCH_SIZE} if not set) as subscriber demand
+ * arrives, and mapped with {@link RowMapper}. Result-set is closed on completion, error or
+ * cancellation, releasing connection for other commands. Signals are emitted from executor threads,
+ * virtual threads by default when available.
+ *
+ * <p>Publisher supports a single subscriber. Connection must not be used by other threads until
+ * publishing ends.
+ *
+ * <p>Only available on java 9 or later, as multi-release class: rows are emitted by java 8
+ * compatible {@link RowEmitter}.
+ *
+ * @param <T> row object type
+ */
+public final class RowPublisher<T> implements Flow.Publisher<T> {
+
+  /** fetch size used when statement has none */
+  public static final int DEFAULT_FETCH_SIZE = RowEmitter.DEFAULT_FETCH_SIZE;
+
+  private final java.sql.Statement statement;
+  private final String sql;
+  private final RowMapper<T> mapper;
+  private final Executor executor;
+  private final AtomicBoolean subscribed = new AtomicBoolean();
+
+  private RowPublisher(
+      java.sql.Statement statement, String sql, RowMapper<T> mapper, Executor executor)
+      throws SQLException {
+    statement.unwrap(Statement.class).checkNotClosed();
+    this.statement = statement;
+    this.sql = Objects.requireNonNull(sql);
+    this.mapper = Objects.requireNonNull(mapper);
+    this.executor = executor;
+  }
+
+  private RowPublisher(PreparedStatement statement, RowMapper<T> mapper, Executor executor)
+      throws SQLException {
+    statement.unwrap(Statement.class).checkNotClosed();
+    this.statement = statement;
+    this.sql = null;
+    this.mapper = Objects.requireNonNull(mapper);
+    this.executor = executor;
+  }
+
+  /**
+   * Publish rows of a query, reading them from socket only as subscriber demand arrives. Query is
+   * executed when first rows are requested, and result-set is closed on completion, error or
+   * cancellation.
+   *
+   * @param statement statement executing query
+   * @param sql query
+   * @param mapper row mapper
+   * @param <T> row object type
+   * @return row publisher
+   * @throws SQLException if statement is closed or is not a driver statement
+   */
+  public static <T> RowPublisher<T> of(
+      java.sql.Statement statement, String sql, RowMapper<T> mapper) throws SQLException {
+    return new RowPublisher<>(statement, sql, mapper, null);
+  }
+
+  /**
+   * Publish rows of a query, emitting signals from indicated executor.
+   *
+   * @param statement statement executing query
+   * @param sql query
+   * @param mapper row mapper
+   * @param executor executor emitting signals
+   * @param <T> row object type
+   * @return row publisher
+   * @throws SQLException if statement is closed or is not a driver statement
+   */
+  public static <T> RowPublisher<T> of(
+      java.sql.Statement statement, String sql, RowMapper<T> mapper, Executor executor)
+      throws SQLException {
+    return new RowPublisher<>(statement, sql, mapper, executor);
+  }
+
+  /**
+   * Publish rows of prepared query, reading them from socket only as subscriber demand arrives.
+   * Query is executed with current parameters when first rows are requested, and result-set is
+   * closed on completion, error or cancellation.
+   *
+   * @param statement prepared statement
+   * @param mapper row mapper
+   * @param <T> row object type
+   * @return row publisher
+   * @throws SQLException if statement is closed or is not a driver statement
+   */
+  public static <T> RowPublisher<T> of(PreparedStatement statement, RowMapper<T> mapper)
+      throws SQLException {
+    return new RowPublisher<>(statement, mapper, null);
+  }
+
+  /**
+   * Publish rows of prepared query, emitting signals from indicated executor.
+   *
+   * @param statement prepared statement
+   * @param mapper row mapper
+   * @param executor executor emitting signals
+   * @param <T> row object type
+   * @return row publisher
+   * @throws SQLException if statement is closed or is not a driver statement
+   */
+  public static <T> RowPublisher<T> of(
+      PreparedStatement statement, RowMapper<T> mapper, Executor executor) throws SQLException {
+    return new RowPublisher<>(statement, mapper, executor);
+  }
+
+  @Override
+  public void subscribe(Flow.Subscriber<? super T> subscriber) {
+    Objects.requireNonNull(subscriber);
+    if (!subscribed.compareAndSet(false, true)) {
+      subscriber.onSubscribe(
+          new Flow.Subscription() {
+            @Override
+            public void request(long n) {}
+
+            @Override
+            public void cancel() {}
+          });
+      subscriber.onError(new IllegalStateException("Publisher only supports a single subscriber"));
+      return;
+    }
+    RowEmitter<T> emitter =
+        new RowEmitter<>(
+            statement,
+            sql,
+            mapper,
+            executor,
+            new RowEmitter.Sink<T>() {
+              @Override
+              public void onNext(T row) {
+                subscriber.onNext(row);
+              }
+
+              @Override
+              public void onError(Throwable error) {
+                subscriber.onError(error);
+              }
+
+              @Override
+              public void onComplete() {
+                subscriber.onComplete();
+              }
+            });
+    subscriber.onSubscribe(
+        new Flow.Subscription() {
+          @Override
+          public void request(long n) {
+            emitter.request(n);
+          }
+
+          @Override
+          public void cancel() {
+            emitter.cancel();
+          }
+        });
+  }
+}
@@ -0,0 +1,534 @@
+// SPDX-License-Identifier: LGPL-2.1-or-later
+// Copyright (c) 2012-2014 Monty Program Ab
+// Copyright (c) 2015-2021 MariaDB Corporation Ab
+
+package org.mariadb.jdbc.integration.tools;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.mariadb.jdbc.client.DataType;
+import org.mariadb.jdbc.util.constants.ColumnFlags;
+import org.mariadb.jdbc.util.constants.ServerStatus;
+
+/**
+ * Canned response of a {@link FakeServer} command: OK, ERR or result set.
+ *
+ * <p>Result set responses are encoded once for each protocol (text / binary) and EOF mode, then
+ * replayed as raw bytes, so serving a result costs the fake server a single socket write.
+ */
+public final class FakeResult {
+
+  private static final int STATUS = ServerStatus.AUTOCOMMIT;
+
+  private final long affectedRows;
+  private final long insertId;
+  private final int errorCode;
+  private final String sqlState;
+  private final String message;
+  private final String[] columnNames;
+  private final DataType[] columnTypes;
+  private final boolean[] unsignedColumns;
+  private final List<Object[]> rows;
+  private final int generatedRows;
+
+  // encoded responses, indexed by metadata flag (none, skipped, sent) * 4 + (binary ? 2 : 0) +
+  // (deprecateEof ? 1 : 0)
+  private final AtomicReferenceArray<byte[]> responses = new AtomicReferenceArray<>(12);
+
+  private FakeResult(
+      long affectedRows,
+      long insertId,
+      int errorCode,
+      String sqlState,
+      String message,
+      String[] columnNames,
+      DataType[] columnTypes,
+      boolean[] unsignedColumns,
+      List<Object[]> rows,
+      int generatedRows) {
+    this.affectedRows = affectedRows;
+    this.insertId = insertId;
+    this.errorCode = errorCode;
+    this.sqlState = sqlState;
+    this.message = message;
+    this.columnNames = columnNames;
+    this.columnTypes = columnTypes;
+    this.unsignedColumns = unsignedColumns;
+    this.rows = rows;
+    this.generatedRows = generatedRows;
+  }
+
+  /**
+   * OK_Packet response
+   *
+   * @param affectedRows affected rows
+   * @param insertId last insert id
+   * @return result
+   */
+  public static FakeResult ok(long affectedRows, long insertId) {
+    return new FakeResult(affectedRows, insertId, 0, null, null, null, null, null, null, 0);
+  }
+
+  /**
+   * ERR_Packet response
+   *
+   * @param errorCode error code
+   * @param sqlState sql state
+   * @param message error message
+   * @return result
+   */
+  public static FakeResult error(int errorCode, String sqlState, String message) {
+    return new FakeResult(0, 0, errorCode, sqlState, message, null, null, null, null, 0);
+  }
+
+  /**
+   * Result set response builder
+   *
+   * @return builder
+   */
+  public static Builder resultSet() {
+    return new Builder();
+  }
+
+  /**
+   * Indicate if response is a result set
+   *
+   * @return true if result set
+   */
+  public boolean isResultSet() {
+    return columnNames != null;
+  }
+
+  /**
+   * Result set column number
+   *
+   * @return column number, 0 if not a result set
+   */
+  public int columnCount() {
+    return columnNames == null ? 0 : columnNames.length;
+  }
+
+  /**
+   * Encoded response, sequence starting at 1.
+   *
+   * @param binary binary protocol
+   * @param deprecateEof client and server use CLIENT_DEPRECATE_EOF
+   * @return response bytes
+   */
+  byte[] response(boolean binary, boolean deprecateEof) {
+    return response(binary, deprecateEof, -1);
+  }
+
+  /**
+   * Encoded response, sequence starting at 1, with MARIADB_CLIENT_CACHE_METADATA column count flag.
+   *
+   * @param binary binary protocol
+   * @param deprecateEof client and server use CLIENT_DEPRECATE_EOF
+   * @param metadataFollows -1 if client doesn't cache metadata, 0 to skip metadata, 1 to send it
+   * @return response bytes
+   */
+  byte[] response(boolean binary, boolean deprecateEof, int metadataFollows) {
+    int idx = (metadataFollows + 1) * 4 + (binary ? 2 : 0) + (deprecateEof ? 1 : 0);
+    byte[] response = responses.get(idx);
+    if (response == null) {
+      PacketOutput out = new PacketOutput(1);
+      if (errorCode != 0) {
+        writeError(out, errorCode, sqlState, message);
+      } else if (!isResultSet()) {
+        writeOk(out, affectedRows, insertId);
+      } else {
+        out.start().writeLength(columnNames.length);
+        if (metadataFollows >= 0) out.writeByte(metadataFollows);
+        out.end();
+        if (metadataFollows != 0) {
+          writeColumnDefinitions(out, deprecateEof);
+        } else if (!deprecateEof) {
+          writeEof(out, false);
+        }
+        int rowNumber = rows.size() + generatedRows;
+        for (int i = 0; i < rowNumber; i++) {
+          Object[] row = i < rows.size() ? rows.get(i) : generateRow(i);
+          out.start();
+          if (binary) {
+            writeBinaryRow(out, row);
+          } else {
+            writeTextRow(out, row);
+          }
+          out.end();
+        }
+        writeEof(out, deprecateEof);
+      }
+      response = out.toByteArray();
+      responses.set(idx, response);
+    }
+    return response;
+  }
+
+  /**
+   * Write column definitions, followed by an EOF_Packet if not deprecated.
+   *
+   * @param out packet output
+   * @param deprecateEof client and server use CLIENT_DEPRECATE_EOF
+   */
+  void writeColumnDefinitions(PacketOutput out, boolean deprecateEof) {
+    for (int i = 0; i < columnNames.length; i++) {
+      DataType type = columnTypes[i];
+      boolean string = isStringType(type);
+      out.start()
+          .writeLengthString("def")
+          .writeLengthString("fake")
+          .writeLengthString("t")
+          .writeLengthString("t")
+          .writeLengthString(columnNames[i])
+          .writeLengthString(columnNames[i])
+          .writeByte(0x0c)
+          .writeShort(string ? 33 : 63)
+          .writeInt(string ? 255 * 3 : 20)
+          .writeByte(type.get())
+          .writeShort(
+              (string ? 0 : ColumnFlags.BINARY_COLLATION)
+                  | (unsignedColumns[i] ? ColumnFlags.UNSIGNED : 0))
+          .writeByte(type == DataType.FLOAT || type == DataType.DOUBLE ? 31 : 0)
+          .writeShort(0)
+          .end();
+    }
+    if (!deprecateEof) writeEof(out, false);
+  }
+
+  static void writeOk(PacketOutput out, long affectedRows, long insertId) {
+    out.start()
+        .writeByte(0x00)
+        .writeLength(affectedRows)
+        .writeLength(insertId)
+        .writeShort(STATUS)
+        .writeShort(0)
+        .end();
+  }
+
+  static void writeEof(PacketOutput out, boolean deprecateEof) {
+    if (deprecateEof) {
+      // OK_Packet with a 0xFE header
+      out.start().writeByte(0xfe).writeLength(0).writeLength(0).writeShort(STATUS).writeShort(0);
+    } else {
+      out.start().writeByte(0xfe).writeShort(0).writeShort(STATUS);
+    }
+    out.end();
+  }
+
+  static void writeError(PacketOutput out, int errorCode, String sqlState, String message) {
+    out.start()
+        .writeByte(0xff)
+        .writeShort(errorCode)
+        .writeByte('#')
+        .writeBytes(sqlState.getBytes(StandardCharsets.US_ASCII))
+        .writeBytes(message.getBytes(StandardCharsets.UTF_8))
+        .end();
+  }
+
+  private Object[] generateRow(int rowIndex) {
+    Object[] row = new Object[columnTypes.length];
+    for (int i = 0; i < columnTypes.length; i++) {
+      switch (columnTypes[i]) {
+        case TINYINT:
+          row[i] = rowIndex % 128;
+          break;
+        case SMALLINT:
+        case YEAR:
+          row[i] = rowIndex % 32768;
+          break;
+        case MEDIUMINT:
+        case INTEGER:
+          row[i] = rowIndex;
+          break;
+        case BIGINT:
+          row[i] = rowIndex * 1000L;
+          break;
+        case FLOAT:
+        case DOUBLE:
+          row[i] = rowIndex + 0.5d;
+          break;
+        case NULL:
+          row[i] = null;
+          break;
+        default:
+          row[i] = columnNames[i] + "-" + rowIndex;
+          break;
+      }
+    }
+    return row;
+  }
+
+  private static void writeTextRow(PacketOutput out, Object[] row) {
+    for (Object value : row) {
+      if (value == null) {
+        out.writeByte(0xfb);
+      } else if (value instanceof byte[]) {
+        out.writeLengthBytes((byte[]) value);
+      } else {
+        out.writeLengthString(value.toString());
+      }
+    }
+  }
+
+  private void writeBinaryRow(PacketOutput out, Object[] row) {
+    out.writeByte(0x00);
+    byte[] nullBitmap = new byte[(row.length + 9) / 8];
+    for (int i = 0; i < row.length; i++) {
+      if (row[i] == null) nullBitmap[(i + 2) / 8] |= (byte) (1 << ((i + 2) % 8));
+    }
+    out.writeBytes(nullBitmap);
+    for (int i = 0; i < row.length; i++) {
+      Object value = row[i];
+      if (value == null) continue;
+      switch (columnTypes[i]) {
+        case TINYINT:
+          out.writeByte(((Number) value).intValue());
+          break;
+        case SMALLINT:
+        case YEAR:
+          out.writeShort(((Number) value).intValue());
+          break;
+        case MEDIUMINT:
+        case INTEGER:
+          out.writeInt(((Number) value).intValue());
+          break;
+        case BIGINT:
+          out.writeLong(((Number) value).longValue());
+          break;
+        case FLOAT:
+          out.writeInt(Float.floatToIntBits(((Number) value).floatValue()));
+          break;
+        case DOUBLE:
+          out.writeLong(Double.doubleToLongBits(((Number) value).doubleValue()));
+          break;
+        default:
+          if (value instanceof byte[]) {
+            out.writeLengthBytes((byte[]) value);
+          } else {
+            out.writeLengthString(value.toString());
+          }
+          break;
+      }
+    }
+  }
+
+  private static boolean isStringType(DataType type) {
+    switch (type) {
+      case VARCHAR:
+      case VARSTRING:
+      case STRING:
+      case NULL:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  /** Result set builder */
+  public static final class Builder {
+    private final List<String> names = new ArrayList<>();
+    private final List<DataType> types = new ArrayList<>();
+    private final List<Boolean> unsigned = new ArrayList<>();
+    private final List<Object[]> rows = new ArrayList<>();
+    private int generatedRows;
+
+    private Builder() {}
+
+    /**
+     * Add a column. Supported types are integer, floating point, string and blob types.
+     *
+     * @param name column name
+     * @param type column type
+     * @return this {@link Builder}
+     */
+    public Builder column(String name, DataType type) {
+      return column(name, type, false);
+    }
+
+    /**
+     * Add an integer column, unsigned if indicated. Unsigned BIGINT values above Long.MAX_VALUE can
+     * be set with BigInteger row values.
+     *
+     * @param name column name
+     * @param type column type
+     * @param unsignedColumn unsigned column
+     * @return this {@link Builder}
+     */
+    public Builder column(String name, DataType type, boolean unsignedColumn) {
+      switch (type) {
+        case TINYINT:
+        case SMALLINT:
+        case YEAR:
+        case MEDIUMINT:
+        case INTEGER:
+        case BIGINT:
+        case FLOAT:
+        case DOUBLE:
+        case NULL:
+        case VARCHAR:
+        case VARSTRING:
+        case STRING:
+        case TINYBLOB:
+        case MEDIUMBLOB:
+        case LONGBLOB:
+        case BLOB:
+          break;
+        default:
+          throw new IllegalArgumentException("Unsupported column type " + type);
+      }
+      names.add(name);
+      types.add(type);
+      unsigned.add(unsignedColumn);
+      return this;
+    }
+
+    /**
+     * Add an explicit row
+     *
+     * @param values row values (Number, String, byte[] or null)
+     * @return this {@link Builder}
+     */
+    public Builder row(Object... values) {
+      if (values.length != names.size()) {
+        throw new IllegalArgumentException(
+            String.format("expected %s values, got %s", names.size(), values.length));
+      }
+      rows.add(values);
+      return this;
+    }
+
+    /**
+     * Add rows with generated values, after explicit rows. Row n has value n for integer columns, n
+     * + 0.5 for floating point columns, and "[column name]-n" for other columns.
+     *
+     * @param generatedRows number of generated rows
+     * @return this {@link Builder}
+     */
+    public Builder generatedRows(int generatedRows) {
+      this.generatedRows = generatedRows;
+      return this;
+    }
+
+    /**
+     * Build result
+     *
+     * @return result
+     */
+    public FakeResult build() {
+      return new FakeResult(
+          0,
+          0,
+          0,
+          null,
+          null,
+          names.toArray(new String[0]),
+          types.toArray(new DataType[0]),
+          unsignedFlags(),
+          rows,
+          generatedRows);
+    }
+
+    private boolean[] unsignedFlags() {
+      boolean[] flags = new boolean[unsigned.size()];
+      for (int i = 0; i < flags.length; i++) flags[i] = unsigned.get(i);
+      return flags;
+    }
+  }
+
+  /** Growable buffer writing MySQL packets, filling packet headers when a packet ends. */
+  static final class PacketOutput {
+    private byte[] buf = new byte[256];
+    private int pos;
+    private int packetStart;
+    private byte sequence;
+
+    PacketOutput(int sequence) {
+      this.sequence = (byte) sequence;
+    }
+
+    PacketOutput start() {
+      ensure(4);
+      packetStart = pos;
+      pos += 4;
+      return this;
+    }
+
+    PacketOutput end() {
+      int length = pos - packetStart - 4;
+      buf[packetStart] = (byte) length;
+      buf[packetStart + 1] = (byte) (length >>> 8);
+      buf[packetStart + 2] = (byte) (length >>> 16);
+      buf[packetStart + 3] = sequence++;
+      return this;
+    }
+
+    PacketOutput writeByte(int value) {
+      ensure(1);
+      buf[pos++] = (byte) value;
+      return this;
+    }
+
+    PacketOutput writeShort(int value) {
+      ensure(2);
+      buf[pos++] = (byte) value;
+      buf[pos++] = (byte) (value >>> 8);
+      return this;
+    }
+
+    PacketOutput writeInt(int value) {
+      ensure(4);
+      for (int i = 0; i < 4; i++) buf[pos++] = (byte) (value >>> (8 * i));
+      return this;
+    }
+
+    PacketOutput writeLong(long value) {
+      ensure(8);
+      for (int i = 0; i < 8; i++) buf[pos++] = (byte) (value >>> (8 * i));
+      return this;
+    }
+
+    PacketOutput writeLength(long length) {
+      if (length < 251) return writeByte((int) length);
+      if (length < 65536) return writeByte(0xfc).writeShort((int) length);
+      if (length < 16777216) {
+        return writeByte(0xfd).writeShort((int) length).writeByte((int) (length >>> 16));
+      }
+      return writeByte(0xfe).writeLong(length);
+    }
+
+    PacketOutput writeBytes(byte[] bytes) {
+      ensure(bytes.length);
+      System.arraycopy(bytes, 0, buf, pos, bytes.length);
+      pos += bytes.length;
+      return this;
+    }
+
+    PacketOutput writeLengthBytes(byte[] bytes) {
+      return writeLength(bytes.length).writeBytes(bytes);
+    }
+
+    PacketOutput writeLengthString(String str) {
+      return writeLengthBytes(str.getBytes(StandardCharsets.UTF_8));
+    }
+
+    PacketOutput writeNullEndString(String str) {
+      return writeBytes(str.getBytes(StandardCharsets.UTF_8)).writeByte(0);
+    }
+
+    byte[] toByteArray() {
+      byte[] bytes = new byte[pos];
+      System.arraycopy(buf, 0, bytes, 0, pos);
+      return bytes;
+    }
+
+    private void ensure(int len) {
+      if (pos + len > buf.length) {
+        byte[] newBuf = new byte[Math.max(buf.length * 2, pos + len)];
+        System.arraycopy(buf, 0, newBuf, 0, pos);
+        buf = newBuf;
+      }
+    }
+  }
+}
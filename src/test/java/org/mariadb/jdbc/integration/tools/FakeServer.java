@@ -0,0 +1,637 @@
+// SPDX-License-Identifier: LGPL-2.1-or-later
+// Copyright (c) 2012-2014 Monty Program Ab
+// Copyright (c) 2015-2021 MariaDB Corporation Ab
+
+package org.mariadb.jdbc.integration.tools;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import org.mariadb.jdbc.client.DataType;
+import org.mariadb.jdbc.integration.tools.FakeResult.PacketOutput;
+import org.mariadb.jdbc.util.ClientParser;
+import org.mariadb.jdbc.util.constants.Capabilities;
+import org.mariadb.jdbc.util.constants.ServerStatus;
+
+/**
+ * In-JVM server speaking enough of the MariaDB protocol to drive the driver without any database:
+ * handshake (any credential is accepted, using mysql_native_password), COM_QUERY, COM_STMT_PREPARE,
+ * COM_STMT_EXECUTE, COM_STMT_BULK_EXECUTE, COM_PING, COM_RESET_CONNECTION, ...
+ *
+ * <p>Commands get the {@link FakeResult} registered for the exact query, with text or binary
+ * encoding depending on command. "SELECT @@var1, @@var2" queries are answered with server
+ * variables, and any other query get an OK_Packet. INSERT queries get an OK_Packet with one
+ * affected row per VALUES parenthesis and auto-increment ids, following "auto_increment_increment"
+ * variable. A latency can be configured to simulate network round trips.
+ *
+ * <p>Result-set metadata of prepared statements is skipped when already sent, if client caches it.
+ *
+ * <p>Only TCP loopback is supported: SSL and compression are not announced in server capabilities.
+ */
+public class FakeServer implements Closeable {
+
+  private static final String SERVER_VERSION = "5.5.5-10.6.12-MariaDB-fake";
+  private static final long SERVER_CAPABILITIES =
+      Capabilities.FOUND_ROWS
+          | Capabilities.CONNECT_WITH_DB
+          | Capabilities.IGNORE_SPACE
+          | Capabilities.CLIENT_PROTOCOL_41
+          | Capabilities.TRANSACTIONS
+          | Capabilities.SECURE_CONNECTION
+          | Capabilities.MULTI_STATEMENTS
+          | Capabilities.MULTI_RESULTS
+          | Capabilities.PS_MULTI_RESULTS
+          | Capabilities.PLUGIN_AUTH
+          | Capabilities.CONNECT_ATTRS
+          | Capabilities.PLUGIN_AUTH_LENENC_CLIENT_DATA
+          | Capabilities.CLIENT_DEPRECATE_EOF
+          | Capabilities.STMT_BULK_OPERATIONS
+          | Capabilities.CACHE_METADATA;
+
+  private final ServerSocket serverSocket;
+  private final Map<String, FakeResult> results = new ConcurrentHashMap<>();
+  private final Map<String, String> variables = new ConcurrentHashMap<>();
+  private final CopyOnWriteArrayList<Socket> sockets = new CopyOnWriteArrayList<>();
+  private final AtomicInteger threadIds = new AtomicInteger();
+  private final AtomicLong commands = new AtomicLong();
+  private final AtomicLong autoIncrement = new AtomicLong(1);
+  private final List<String> queries = new CopyOnWriteArrayList<>();
+  private volatile long latencyNanos;
+  private volatile boolean closed;
+
+  /**
+   * Start a fake server on an ephemeral loopback port.
+   *
+   * @throws IOException if server socket cannot be bound
+   */
+  public FakeServer() throws IOException {
+    this(0);
+  }
+
+  /**
+   * Start a fake server on indicated loopback port.
+   *
+   * @param port port, 0 for an ephemeral port
+   * @throws IOException if server socket cannot be bound
+   */
+  public FakeServer(int port) throws IOException {
+    serverSocket = new ServerSocket(port, 1000, InetAddress.getLoopbackAddress());
+    variables.put("max_allowed_packet", "16777216");
+    variables.put("wait_timeout", "28800");
+    variables.put("auto_increment_increment", "1");
+    variables.put("time_zone", "SYSTEM");
+    variables.put("system_time_zone", "UTC");
+    variables.put("tx_isolation", "REPEATABLE-READ");
+    variables.put("version", SERVER_VERSION.substring(6));
+    Thread acceptor = new Thread(this::acceptLoop, "fake-server-acceptor");
+    acceptor.setDaemon(true);
+    acceptor.start();
+  }
+
+  /**
+   * Server port
+   *
+   * @return port
+   */
+  public int getPort() {
+    return serverSocket.getLocalPort();
+  }
+
+  /**
+   * Connection string to this server
+   *
+   * @param options connection string options, without leading '?'. Can be null
+   * @return connection string
+   */
+  public String getUrl(String options) {
+    return String.format(
+        "jdbc:mariadb://%s:%s/fake?user=fake%s",
+        serverSocket.getInetAddress().getHostAddress(),
+        getPort(),
+        options == null || options.isEmpty() ? "" : "&" + options);
+  }
+
+  /**
+   * Register response of a query (exact match).
+   *
+   * @param sql query
+   * @param result response
+   * @return this {@link FakeServer}
+   */
+  public FakeServer addResult(String sql, FakeResult result) {
+    results.put(sql, result);
+    return this;
+  }
+
+  /**
+   * Set server variable value, returned by "SELECT @@variable" queries
+   *
+   * @param name variable name
+   * @param value variable value
+   * @return this {@link FakeServer}
+   */
+  public FakeServer setVariable(String name, String value) {
+    variables.put(name.toLowerCase(Locale.ROOT), value);
+    return this;
+  }
+
+  /**
+   * Simulated latency, applied before answering each command.
+   *
+   * @param latency latency
+   * @param unit latency unit
+   * @return this {@link FakeServer}
+   */
+  public FakeServer setLatency(long latency, TimeUnit unit) {
+    latencyNanos = unit.toNanos(latency);
+    return this;
+  }
+
+  /**
+   * Number of commands received since server start, handshake response excluded.
+   *
+   * @return command number
+   */
+  public long getCommandCount() {
+    return commands.get();
+  }
+
+  /**
+   * COM_QUERY commands received since server start.
+   *
+   * @return received queries
+   */
+  public List<String> getQueries() {
+    return new ArrayList<>(queries);
+  }
+
+  /**
+   * Number of currently opened client connections
+   *
+   * @return connection number
+   */
+  public int getConnectionCount() {
+    return sockets.size();
+  }
+
+  /** Close all client connections, keeping server running. */
+  public void closeConnections() {
+    for (Socket socket : sockets) {
+      try {
+        socket.close();
+      } catch (IOException e) {
+        // eat
+      }
+    }
+  }
+
+  /**
+   * Close all client connections after sending them an error packet, like server does when
+   * disconnecting an idle connection after wait_timeout.
+   *
+   * @param errorCode error code
+   * @param sqlState sql state
+   * @param message error message
+   */
+  public void closeConnections(int errorCode, String sqlState, String message) {
+    PacketOutput output = new PacketOutput(0);
+    FakeResult.writeError(output, errorCode, sqlState, message);
+    byte[] error = output.toByteArray();
+    for (Socket socket : sockets) {
+      try {
+        socket.getOutputStream().write(error);
+        socket.getOutputStream().flush();
+      } catch (IOException e) {
+        // eat
+      }
+    }
+    closeConnections();
+  }
+
+  @Override
+  public void close() throws IOException {
+    closed = true;
+    serverSocket.close();
+    closeConnections();
+  }
+
+  private void acceptLoop() {
+    while (!closed) {
+      try {
+        Socket socket = serverSocket.accept();
+        socket.setTcpNoDelay(true);
+        sockets.add(socket);
+        Thread thread = new Thread(new Session(socket), "fake-server-session");
+        thread.setDaemon(true);
+        thread.start();
+      } catch (IOException e) {
+        // server socket closed
+      }
+    }
+  }
+
+  private FakeResult variableResult(String sql) {
+    // expect "SELECT @@var1, @@var2 ..."
+    String[] parts = sql.substring(7).split(",");
+    FakeResult.Builder builder = FakeResult.resultSet();
+    Object[] values = new Object[parts.length];
+    for (int i = 0; i < parts.length; i++) {
+      String name = parts[i].trim();
+      builder.column(name, DataType.VARSTRING);
+      String varName = name.substring(2).toLowerCase(Locale.ROOT);
+      if (varName.startsWith("session.")) varName = varName.substring(8);
+      if (varName.startsWith("global.")) varName = varName.substring(7);
+      values[i] = variables.get(varName);
+    }
+    return builder.row(values).build();
+  }
+
+  private FakeResult result(String sql) {
+    FakeResult result = results.get(sql);
+    if (result != null) return result;
+    if (sql.length() > 9 && sql.substring(0, 9).equalsIgnoreCase("SELECT @@")) {
+      return variableResult(sql);
+    }
+    return null;
+  }
+
+  private final class Session implements Runnable {
+    private final Socket socket;
+    private final Map<Integer, String> statements = new HashMap<>();
+    private int statementIdGenerator;
+    private InputStream in;
+    private OutputStream out;
+    private boolean deprecateEof;
+    private boolean cacheMetadata;
+    // statements whose result-set metadata has been sent
+    private final Set<Integer> metadataSent = new HashSet<>();
+    private final byte[] header = new byte[4];
+
+    Session(Socket socket) {
+      this.socket = socket;
+    }
+
+    @Override
+    public void run() {
+      try {
+        in = new BufferedInputStream(socket.getInputStream(), 16384);
+        out = new BufferedOutputStream(socket.getOutputStream(), 16384);
+        handshake();
+        while (!closed) {
+          byte[] packet = readPacket();
+          commands.incrementAndGet();
+          if (!handle(packet)) break;
+          // flush only when client has no more pipelined commands
+          if (in.available() == 0) out.flush();
+        }
+      } catch (IOException e) {
+        // client disconnected
+      } finally {
+        sockets.remove(socket);
+        try {
+          socket.close();
+        } catch (IOException e) {
+          // eat
+        }
+      }
+    }
+
+    private void handshake() throws IOException {
+      PacketOutput handshake = new PacketOutput(0);
+      handshake
+          .start()
+          .writeByte(0x0a)
+          .writeNullEndString(SERVER_VERSION)
+          .writeInt(threadIds.incrementAndGet())
+          .writeBytes("12345678".getBytes(StandardCharsets.US_ASCII))
+          .writeByte(0)
+          .writeShort((int) SERVER_CAPABILITIES)
+          .writeByte(33)
+          .writeShort(ServerStatus.AUTOCOMMIT)
+          .writeShort((int) (SERVER_CAPABILITIES >>> 16))
+          .writeByte(21)
+          .writeBytes(new byte[6])
+          .writeInt((int) (SERVER_CAPABILITIES >>> 32))
+          .writeNullEndString("123456789012")
+          .writeNullEndString("mysql_native_password")
+          .end();
+      out.write(handshake.toByteArray());
+      out.flush();
+
+      // handshake response: any credential is accepted
+      byte[] response = readPacket();
+      long clientCapabilities =
+          (response[0] & 0xffL)
+              + ((response[1] & 0xffL) << 8)
+              + ((response[2] & 0xffL) << 16)
+              + ((response[3] & 0xffL) << 24);
+      clientCapabilities +=
+          ((response[28] & 0xffL)
+                  + ((response[29] & 0xffL) << 8)
+                  + ((response[30] & 0xffL) << 16)
+                  + ((response[31] & 0xffL) << 24))
+              << 32;
+      deprecateEof = (clientCapabilities & Capabilities.CLIENT_DEPRECATE_EOF) != 0;
+      cacheMetadata = (clientCapabilities & Capabilities.CACHE_METADATA) != 0;
+      PacketOutput ok = new PacketOutput(header[3] + 1);
+      FakeResult.writeOk(ok, 0, 0);
+      out.write(ok.toByteArray());
+      out.flush();
+    }
+
+    private byte[] readPacket() throws IOException {
+      byte[] packet = new byte[0];
+      int length;
+      do {
+        readFully(header, 4);
+        length = (header[0] & 0xff) + ((header[1] & 0xff) << 8) + ((header[2] & 0xff) << 16);
+        byte[] newPacket = new byte[packet.length + length];
+        System.arraycopy(packet, 0, newPacket, 0, packet.length);
+        readFully(newPacket, packet.length, length);
+        packet = newPacket;
+      } while (length == 0xffffff);
+      return packet;
+    }
+
+    private void readFully(byte[] buf, int length) throws IOException {
+      readFully(buf, 0, length);
+    }
+
+    private void readFully(byte[] buf, int off, int length) throws IOException {
+      int remaining = length;
+      while (remaining > 0) {
+        int count = in.read(buf, off + length - remaining, remaining);
+        if (count < 0) throw new EOFException("unexpected end of stream");
+        remaining -= count;
+      }
+    }
+
+    private boolean handle(byte[] packet) throws IOException {
+      long latency = latencyNanos;
+      if (latency > 0) LockSupport.parkNanos(latency);
+
+      switch (packet[0]) {
+        case 0x01: // COM_QUIT
+          return false;
+
+        case 0x03: // COM_QUERY
+          String sql = new String(packet, 1, packet.length - 1, StandardCharsets.UTF_8);
+          queries.add(sql);
+          FakeResult result = result(sql);
+          if (result == null && sql.regionMatches(true, 0, "INSERT", 0, 6)) {
+            long rows = valuesCount(sql);
+            long step = Long.parseLong(variables.get("auto_increment_increment"));
+            writeOk(rows, autoIncrement.getAndAdd(rows * step));
+          } else if (result == null) {
+            writeOk(0);
+          } else {
+            write(result.response(false, deprecateEof));
+          }
+          break;
+
+        case 0x16: // COM_STMT_PREPARE
+          prepare(new String(packet, 1, packet.length - 1, StandardCharsets.UTF_8));
+          break;
+
+        case 0x17: // COM_STMT_EXECUTE
+          int stmtId = statementId(packet);
+          String stmtSql = statements.get(stmtId);
+          if (stmtSql == null) {
+            writeError(1243, "HY000", "Unknown prepared statement handler given to EXECUTE");
+            break;
+          }
+          FakeResult stmtResult = result(stmtSql);
+          if (stmtResult == null) {
+            writeOk(0);
+          } else {
+            int metadataFollows =
+                !cacheMetadata || !stmtResult.isResultSet()
+                    ? -1
+                    : (metadataSent.add(stmtId) ? 1 : 0);
+            write(stmtResult.response(true, deprecateEof, metadataFollows));
+          }
+          break;
+
+        case (byte) 0xfa: // COM_STMT_BULK_EXECUTE
+          if (!statements.containsKey(statementId(packet))) {
+            writeError(1243, "HY000", "Unknown prepared statement handler given to EXECUTE");
+            break;
+          }
+          writeOk(bulkRowNumber(packet));
+          break;
+
+        case 0x19: // COM_STMT_CLOSE
+          metadataSent.remove(statementId(packet));
+          statements.remove(statementId(packet));
+          break;
+
+        default:
+          // COM_PING, COM_INIT_DB, COM_RESET_CONNECTION, COM_STMT_RESET, ...
+          writeOk(0);
+          break;
+      }
+      return true;
+    }
+
+    private int statementId(byte[] packet) {
+      int id =
+          (packet[1] & 0xff)
+              + ((packet[2] & 0xff) << 8)
+              + ((packet[3] & 0xff) << 16)
+              + ((packet[4] & 0xff) << 24);
+      // -1 means last prepared statement when pipelining
+      return id == -1 ? statementIdGenerator : id;
+    }
+
+    private void prepare(String sql) throws IOException {
+      int statementId = ++statementIdGenerator;
+      statements.put(statementId, sql);
+      int paramCount = ClientParser.parameterParts(sql, false).getParamCount();
+      FakeResult result = result(sql);
+      int columnCount = result != null && result.isResultSet() ? result.columnCount() : 0;
+
+      PacketOutput output = new PacketOutput(1);
+      output
+          .start()
+          .writeByte(0x00)
+          .writeInt(statementId)
+          .writeShort(columnCount)
+          .writeShort(paramCount)
+          .writeByte(0)
+          .writeShort(0)
+          .end();
+      if (paramCount > 0) {
+        for (int i = 0; i < paramCount; i++) {
+          output
+              .start()
+              .writeLengthString("def")
+              .writeByte(0)
+              .writeByte(0)
+              .writeByte(0)
+              .writeLengthString("?")
+              .writeByte(0)
+              .writeByte(0x0c)
+              .writeShort(63)
+              .writeInt(0)
+              .writeByte(DataType.VARSTRING.get())
+              .writeShort(128)
+              .writeByte(0)
+              .writeShort(0)
+              .end();
+        }
+        if (!deprecateEof) FakeResult.writeEof(output, false);
+      }
+      if (columnCount > 0) {
+        result.writeColumnDefinitions(output, deprecateEof);
+        metadataSent.add(statementId);
+      }
+      write(output.toByteArray());
+    }
+
+    /**
+     * Count rows of a COM_STMT_BULK_EXECUTE packet
+     *
+     * @param packet packet
+     * @return row number
+     */
+    private long bulkRowNumber(byte[] packet) {
+      int pos = 5;
+      int flags = (packet[pos++] & 0xff) + ((packet[pos++] & 0xff) << 8);
+      if ((flags & 128) == 0) return 0;
+      int paramCount =
+          ClientParser.parameterParts(statements.get(statementId(packet)), false).getParamCount();
+      int[] types = new int[paramCount];
+      for (int i = 0; i < paramCount; i++) {
+        types[i] = packet[pos] & 0xff;
+        pos += 2;
+      }
+
+      long rows = 0;
+      while (pos < packet.length) {
+        for (int i = 0; i < paramCount; i++) {
+          if (packet[pos++] != 0) continue; // null / default / ignore indicator
+          switch (DataType.of(types[i])) {
+            case TINYINT:
+              pos += 1;
+              break;
+            case SMALLINT:
+            case YEAR:
+              pos += 2;
+              break;
+            case INTEGER:
+            case MEDIUMINT:
+            case FLOAT:
+              pos += 4;
+              break;
+            case BIGINT:
+            case DOUBLE:
+              pos += 8;
+              break;
+            case DATE:
+            case TIME:
+            case DATETIME:
+            case TIMESTAMP:
+              pos += 1 + (packet[pos] & 0xff);
+              break;
+            default:
+              int len = packet[pos++] & 0xff;
+              switch (len) {
+                case 0xfc:
+                  len = (packet[pos] & 0xff) + ((packet[pos + 1] & 0xff) << 8);
+                  pos += 2;
+                  break;
+                case 0xfd:
+                  len =
+                      (packet[pos] & 0xff)
+                          + ((packet[pos + 1] & 0xff) << 8)
+                          + ((packet[pos + 2] & 0xff) << 16);
+                  pos += 3;
+                  break;
+                case 0xfe:
+                  len =
+                      (packet[pos] & 0xff)
+                          + ((packet[pos + 1] & 0xff) << 8)
+                          + ((packet[pos + 2] & 0xff) << 16)
+                          + ((packet[pos + 3] & 0xff) << 24);
+                  pos += 8;
+                  break;
+                default:
+                  break;
+              }
+              pos += len;
+              break;
+          }
+        }
+        rows++;
+      }
+      return rows;
+    }
+
+    private void writeOk(long affectedRows) throws IOException {
+      writeOk(affectedRows, 0);
+    }
+
+    private void writeOk(long affectedRows, long insertId) throws IOException {
+      PacketOutput output = new PacketOutput(1);
+      FakeResult.writeOk(output, affectedRows, insertId);
+      write(output.toByteArray());
+    }
+
+    /** Number of top-level parenthesis after VALUES, skipping quoted strings. */
+    private long valuesCount(String sql) {
+      int pos = sql.toUpperCase(Locale.ROOT).indexOf("VALUES");
+      if (pos == -1) return 1;
+      long count = 0;
+      int depth = 0;
+      char quote = 0;
+      for (int i = pos; i < sql.length(); i++) {
+        char car = sql.charAt(i);
+        if (quote != 0) {
+          if (car == '\\') {
+            i++;
+          } else if (car == quote) {
+            quote = 0;
+          }
+        } else if (car == '\'' || car == '"') {
+          quote = car;
+        } else if (car == '(') {
+          if (depth++ == 0) count++;
+        } else if (car == ')') {
+          depth--;
+        }
+      }
+      return count;
+    }
+
+    private void writeError(int errorCode, String sqlState, String message) throws IOException {
+      PacketOutput output = new PacketOutput(1);
+      FakeResult.writeError(output, errorCode, sqlState, message);
+      write(output.toByteArray());
+    }
+
+    private void write(byte[] bytes) throws IOException {
+      out.write(bytes);
+    }
+  }
+}
@@ -0,0 +1,465 @@
+// SPDX-License-Identifier: LGPL-2.1-or-later
+// Copyright (c) 2012-2014 Monty Program Ab
+// Copyright (c) 2015-2021 MariaDB Corporation Ab
+
+package org.mariadb.jdbc.unit.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigInteger;
+import java.sql.*;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.mariadb.jdbc.client.DataType;
+import org.mariadb.jdbc.export.ColumnBatch;
+import org.mariadb.jdbc.export.ColumnBatchResultSet;
+import org.mariadb.jdbc.integration.tools.FakeResult;
+import org.mariadb.jdbc.integration.tools.FakeServer;
+
+public class FakeServerTest {
+
+  private static FakeServer server;
+
+  @BeforeAll
+  public static void beforeAll() throws Exception {
+    server = new FakeServer();
+    server.addResult(
+        "SELECT * FROM seq",
+        FakeResult.resultSet()
+            .column("id", DataType.INTEGER)
+            .column("big", DataType.BIGINT)
+            .column("dbl", DataType.DOUBLE)
+            .column("txt", DataType.VARCHAR)
+            .row(-1, null, null, null)
+            .generatedRows(1000)
+            .build());
+    server.addResult(
+        "SELECT * FROM unsigned_big",
+        FakeResult.resultSet()
+            .column("id", DataType.INTEGER)
+            .column("ubig", DataType.BIGINT, true)
+            .row(1, new BigInteger("18446744073709551615"))
+            .row(2, 5L)
+            .row(3, null)
+            .build());
+    server.addResult(
+        "SELECT * FROM seq WHERE id > ?",
+        FakeResult.resultSet()
+            .column("id", DataType.INTEGER)
+            .column("txt", DataType.VARCHAR)
+            .generatedRows(10)
+            .build());
+    server.addResult(
+        "SELECT * FROM wide",
+        FakeResult.resultSet()
+            .column("id", DataType.INTEGER)
+            .column("txt", DataType.VARCHAR)
+            .row(1, wideValue(300_000))
+            .row(2, "small")
+            .row(3, wideValue(2_000_000))
+            .row(4, null)
+            .build());
+    // server ignoring limit, so limit is enforced by driver
+    server.addResult(
+        "SET STATEMENT SQL_SELECT_LIMIT=25 FOR SELECT * FROM seq",
+        FakeResult.resultSet()
+            .column("id", DataType.INTEGER)
+            .column("big", DataType.BIGINT)
+            .column("dbl", DataType.DOUBLE)
+            .column("txt", DataType.VARCHAR)
+            .generatedRows(1000)
+            .build());
+    server.addResult("INSERT INTO t VALUES (1)", FakeResult.ok(1, 5));
+    server.addResult("SELECT fail", FakeResult.error(1064, "42000", "You have an error"));
+  }
+
+  @AfterAll
+  public static void afterAll() throws Exception {
+    server.close();
+  }
+
+  @Test
+  public void textResult() throws SQLException {
+    try (Connection con = DriverManager.getConnection(server.getUrl(null))) {
+      checkSequence(con.createStatement().executeQuery("SELECT * FROM seq"));
+
+      Statement stmt = con.createStatement();
+      assertEquals(
+          1, stmt.executeUpdate("INSERT INTO t VALUES (1)", Statement.RETURN_GENERATED_KEYS));
+      ResultSet keys = stmt.getGeneratedKeys();
+      assertTrue(keys.next());
+      assertEquals(5, keys.getInt(1));
+
+      SQLException e = assertThrows(SQLException.class, () -> stmt.executeQuery("SELECT fail"));
+      assertEquals(1064, e.getErrorCode());
+      assertEquals("42000", e.getSQLState());
+      assertTrue(e.getMessage().contains("You have an error"));
+
+      ResultSet rs = stmt.executeQuery("SELECT @@max_allowed_packet, @@wait_timeout");
+      assertTrue(rs.next());
+      assertEquals(16777216, rs.getInt(1));
+      assertEquals(28800, rs.getInt(2));
+    }
+  }
+
+  @Test
+  public void streamingResult() throws SQLException {
+    try (Connection con = DriverManager.getConnection(server.getUrl(null))) {
+      Statement stmt = con.createStatement();
+      stmt.setFetchSize(10);
+      checkSequence(stmt.executeQuery("SELECT * FROM seq"));
+    }
+  }
+
+  @Test
+  public void prefetchStreamingResult() throws SQLException {
+    for (String options :
+        new String[] {
+          "streamingPrefetch=0",
+          "streamingPrefetch=2",
+          "useServerPrepStmts&streamingPrefetch=1",
+          // prefetch still reading or waiting for connection when other query executes
+          "streamingPrefetch=100"
+        }) {
+      try (Connection con = DriverManager.getConnection(server.getUrl(options))) {
+        PreparedStatement prep = con.prepareStatement("SELECT * FROM seq");
+        prep.setFetchSize(10);
+        checkSequence(prep.executeQuery());
+
+        // other query while prefetching: remaining rows are loaded
+        ResultSet rs = prep.executeQuery();
+        for (int i = 0; i < 100; i++) assertTrue(rs.next());
+        assertEquals(99, rs.getInt(1));
+        ResultSet rs2 = con.createStatement().executeQuery("SELECT * FROM seq WHERE id > ?");
+        assertNotNull(rs2);
+        for (int i = 100; i <= 1000; i++) {
+          assertTrue(rs.next());
+          assertEquals(i, rs.getInt(1));
+          assertEquals("txt-" + i, rs.getString(4));
+        }
+        assertFalse(rs.next());
+
+        // max rows
+        Statement stmt = con.createStatement();
+        stmt.setFetchSize(10);
+        stmt.setMaxRows(25);
+        rs = stmt.executeQuery("SELECT * FROM seq");
+        int count = 0;
+        while (rs.next()) count++;
+        assertEquals(25, count);
+
+        // closing while prefetching
+        rs = prep.executeQuery();
+        assertTrue(rs.next());
+        rs.close();
+        ResultSet rs3 = con.createStatement().executeQuery("SELECT @@wait_timeout, @@wait_timeout");
+        assertTrue(rs3.next());
+        assertEquals(28800, rs3.getInt(1));
+
+        // interrupted thread still closes result-set
+        rs = prep.executeQuery();
+        assertTrue(rs.next());
+        Thread.currentThread().interrupt();
+        rs.close();
+        assertTrue(Thread.interrupted());
+        assertTrue(rs.isClosed());
+        rs3 = con.createStatement().executeQuery("SELECT @@wait_timeout, @@wait_timeout");
+        assertTrue(rs3.next());
+        assertEquals(28800, rs3.getInt(1));
+      }
+    }
+  }
+
+  @Test
+  public void skipRemainingRows() throws SQLException {
+    for (String options :
+        new String[] {
+          "",
+          "deprecateEof=false",
+          "useServerPrepStmts",
+          "useReadAheadInput",
+          "resultSetChunkedRows",
+          "killQueryOnSkipThreshold=10",
+          "useServerPrepStmts&killQueryOnSkipThreshold=1"
+        }) {
+      try (Connection con = DriverManager.getConnection(server.getUrl(options))) {
+        PreparedStatement prep = con.prepareStatement("SELECT * FROM seq");
+        prep.setFetchSize(10);
+        ResultSet rs = prep.executeQuery();
+        assertTrue(rs.next());
+        rs.close();
+
+        // max rows on complete result-set
+        Statement stmt = con.createStatement();
+        stmt.setMaxRows(25);
+        rs = stmt.executeQuery("SELECT * FROM seq");
+        int count = 0;
+        while (rs.next()) count++;
+        assertEquals(25, count);
+
+        ResultSet rs2 = con.createStatement().executeQuery("SELECT @@wait_timeout, @@wait_timeout");
+        assertTrue(rs2.next());
+        assertEquals(28800, rs2.getInt(1));
+      }
+    }
+  }
+
+  @Test
+  public void typedGetObject() throws SQLException {
+    for (String options : new String[] {"", "useServerPrepStmts"}) {
+      try (Connection con = DriverManager.getConnection(server.getUrl(options))) {
+        ResultSet rs = con.prepareStatement("SELECT * FROM seq").executeQuery();
+        assertTrue(rs.next());
+        assertNull(rs.getObject(2, Long.class));
+        int i = 0;
+        while (rs.next()) {
+          i++;
+          assertEquals(i, rs.getObject(1, Integer.class));
+          assertEquals(Long.valueOf(i * 1000L), rs.getObject(2, Long.class));
+          assertEquals(i + 0.5, rs.getObject(3, Double.class));
+          assertEquals("txt-" + i, rs.getObject(4, String.class));
+          // requested type changing for a column
+          if (i % 10 == 0) {
+            assertEquals(String.valueOf(i), rs.getObject(1, String.class));
+            assertEquals(Long.valueOf(i), rs.getObject(1, Long.class));
+            assertThrows(SQLException.class, () -> rs.getObject(1, Connection.class));
+          }
+        }
+        assertEquals(1000, i);
+      }
+    }
+  }
+
+  @Test
+  public void columnBatch() throws SQLException {
+    for (String options : new String[] {"", "useServerPrepStmts", "deprecateEof=false"}) {
+      try (Connection con = DriverManager.getConnection(server.getUrl(options))) {
+        for (int fetchSize : new int[] {0, 100}) {
+          PreparedStatement prep = con.prepareStatement("SELECT * FROM seq");
+          prep.setFetchSize(fetchSize);
+          ColumnBatchResultSet rs = prep.executeQuery().unwrap(ColumnBatchResultSet.class);
+          ColumnBatch batch = rs.nextBatch(300);
+          assertEquals(4, batch.columnCount());
+          assertEquals(ColumnBatch.Kind.LONG, batch.kind(1));
+          assertEquals(ColumnBatch.Kind.DOUBLE, batch.kind(2));
+          assertEquals(ColumnBatch.Kind.BYTES, batch.kind(3));
+          int value = -1;
+          int total = 0;
+          while (batch.size() > 0) {
+            for (int row = 0; row < batch.size(); row++, value++) {
+              if (value == 0) value = 1;
+              assertEquals(value, batch.longs(0)[row]);
+              if (value == -1) {
+                assertTrue(batch.isNull(1, row));
+                assertTrue(batch.isNull(3, row));
+                assertNull(batch.getString(3, row));
+                continue;
+              }
+              assertFalse(batch.isNull(1, row));
+              assertEquals(value * 1000L, batch.longs(1)[row]);
+              assertEquals(value + 0.5, batch.doubles(2)[row]);
+              assertEquals("txt-" + value, batch.getString(3, row));
+            }
+            total += batch.size();
+            assertEquals(Math.min(300, 1001 - (total - batch.size())), batch.size());
+            rs.nextBatch(batch);
+          }
+          assertEquals(1001, total);
+          assertFalse(rs.next());
+        }
+
+        // unsigned BIGINT values may not fit in a long
+        PreparedStatement prep = con.prepareStatement("SELECT * FROM unsigned_big");
+        ColumnBatch batch = prep.executeQuery().unwrap(ColumnBatchResultSet.class).nextBatch(10);
+        assertEquals(ColumnBatch.Kind.LONG, batch.kind(0));
+        assertEquals(ColumnBatch.Kind.BYTES, batch.kind(1));
+        assertEquals(3, batch.size());
+        assertEquals("18446744073709551615", batch.getString(1, 0));
+        assertEquals("5", batch.getString(1, 1));
+        assertTrue(batch.isNull(1, 2));
+      }
+    }
+  }
+
+  @Test
+  public void binaryResult() throws SQLException {
+    for (String options :
+        new String[] {
+          "useServerPrepStmts",
+          "useServerPrepStmts&deprecateEof=false",
+          "useServerPrepStmts&resultSetChunkedRows"
+        }) {
+      try (Connection con = DriverManager.getConnection(server.getUrl(options))) {
+        checkSequence(con.prepareStatement("SELECT * FROM seq").executeQuery());
+
+        PreparedStatement prep = con.prepareStatement("SELECT * FROM seq WHERE id > ?");
+        prep.setInt(1, 0);
+        ResultSet rs = prep.executeQuery();
+        for (int i = 0; i < 10; i++) {
+          assertTrue(rs.next());
+          assertEquals(i, rs.getInt(1));
+          assertEquals("txt-" + i, rs.getString(2));
+        }
+        assertFalse(rs.next());
+      }
+    }
+  }
+
+  @Test
+  public void scrollableResult() throws SQLException {
+    for (String options :
+        new String[] {
+          null,
+          "useServerPrepStmts",
+          "resultSetChunkedRows",
+          "resultSetOffHeapThreshold=10000&resultSetFileThreshold=2000000",
+          "useServerPrepStmts&resultSetOffHeapThreshold=10000&resultSetFileThreshold=20000"
+        }) {
+      try (Connection con = DriverManager.getConnection(server.getUrl(options))) {
+        ResultSet rs =
+            con.prepareStatement(
+                    "SELECT * FROM seq",
+                    ResultSet.TYPE_SCROLL_INSENSITIVE,
+                    ResultSet.CONCUR_READ_ONLY)
+                .executeQuery();
+        assertTrue(rs.absolute(501));
+        assertEquals(500, rs.getInt(1));
+        assertEquals("txt-500", rs.getString(4));
+        assertTrue(rs.previous());
+        assertEquals(499, rs.getInt(1));
+        assertTrue(rs.last());
+        assertEquals(1000, rs.getInt(1));
+        assertEquals(1000.5d, rs.getDouble(3));
+        assertTrue(rs.first());
+        assertEquals(-1, rs.getInt(1));
+        assertNull(rs.getString(4));
+        assertTrue(rs.relative(10));
+        assertEquals(10, rs.getInt(1));
+        assertEquals(10_000L, rs.getLong(2));
+
+        // clob referencing row data stays valid on following rows
+        assertTrue(rs.absolute(601));
+        Clob clob = rs.getClob(4);
+        assertTrue(rs.next());
+        assertEquals("txt-601", rs.getString(4));
+        assertEquals("txt-600", clob.getSubString(1, (int) clob.length()));
+
+        rs =
+            con.prepareStatement(
+                    "SELECT * FROM wide",
+                    ResultSet.TYPE_SCROLL_INSENSITIVE,
+                    ResultSet.CONCUR_READ_ONLY)
+                .executeQuery();
+        for (int i = 0; i < 2; i++) {
+          assertTrue(rs.next());
+          assertEquals(wideValue(300_000), rs.getString(2));
+          assertTrue(rs.next());
+          assertEquals("small", rs.getString(2));
+          assertTrue(rs.next());
+          assertEquals(wideValue(2_000_000), rs.getString(2));
+          assertEquals(3, rs.getInt(1));
+          assertTrue(rs.next());
+          assertEquals(4, rs.getInt(1));
+          assertNull(rs.getString(2));
+          assertFalse(rs.next());
+          rs.beforeFirst();
+        }
+      }
+    }
+  }
+
+  private static String wideValue(int length) {
+    StringBuilder sb = new StringBuilder(length);
+    for (int i = 0; i < length; i++) sb.append((char) ('a' + i % 26));
+    return sb.toString();
+  }
+
+  @Test
+  public void skipMetadata() throws SQLException {
+    try (org.mariadb.jdbc.Connection con =
+        (org.mariadb.jdbc.Connection)
+            DriverManager.getConnection(server.getUrl("useServerPrepStmts"))) {
+      // metadata already sent in prepare response
+      for (int i = 0; i < 3; i++) {
+        PreparedStatement prep = con.prepareStatement("SELECT * FROM seq WHERE id > ?");
+        prep.setInt(1, 0);
+        ResultSet rs = prep.executeQuery();
+        for (int j = 0; j < 10; j++) {
+          assertTrue(rs.next());
+          assertEquals(j, rs.getInt("id"));
+          assertEquals("txt-" + j, rs.getString("txt"));
+        }
+        assertFalse(rs.next());
+        prep.close();
+      }
+      assertEquals(3, con.getSkippedMetadataCount());
+      assertEquals(0, con.getSentMetadataCount());
+
+      // text protocol never skips metadata
+      checkSequence(con.createStatement().executeQuery("SELECT * FROM seq"));
+      assertEquals(3, con.getSkippedMetadataCount());
+      assertEquals(0, con.getSentMetadataCount());
+    }
+
+    try (org.mariadb.jdbc.Connection con =
+        (org.mariadb.jdbc.Connection)
+            DriverManager.getConnection(server.getUrl("useServerPrepStmts&enableSkipMeta=false"))) {
+      checkSequence(con.prepareStatement("SELECT * FROM seq").executeQuery());
+      assertEquals(0, con.getSkippedMetadataCount());
+      assertEquals(0, con.getSentMetadataCount());
+    }
+  }
+
+  @Test
+  public void bulk() throws SQLException {
+    try (Connection con = DriverManager.getConnection(server.getUrl("useServerPrepStmts"))) {
+      PreparedStatement prep = con.prepareStatement("INSERT INTO t VALUES (?, ?)");
+      for (int i = 0; i < 100; i++) {
+        prep.setInt(1, i);
+        if (i % 3 == 1) {
+          prep.setNull(2, Types.VARCHAR);
+        } else {
+          prep.setString(2, "value" + i);
+        }
+        prep.addBatch();
+      }
+      long before = server.getCommandCount();
+      int[] res = prep.executeBatch();
+      assertEquals(100, res.length);
+      // pipelined COM_STMT_PREPARE + a single COM_STMT_BULK_EXECUTE
+      assertEquals(2, server.getCommandCount() - before);
+    }
+  }
+
+  @Test
+  public void latency() throws SQLException {
+    try (Connection con = DriverManager.getConnection(server.getUrl(null))) {
+      server.setLatency(50, TimeUnit.MILLISECONDS);
+      try {
+        long start = System.nanoTime();
+        con.isValid(1);
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+      } finally {
+        server.setLatency(0, TimeUnit.MILLISECONDS);
+      }
+    }
+  }
+
+  private void checkSequence(ResultSet rs) throws SQLException {
+    assertTrue(rs.next());
+    assertEquals(-1, rs.getInt(1));
+    rs.getLong(2);
+    assertTrue(rs.wasNull());
+    assertNull(rs.getString(4));
+    for (int i = 1; i <= 1000; i++) {
+      assertTrue(rs.next());
+      assertEquals(i, rs.getInt("id"));
+      assertEquals(i * 1000L, rs.getLong(2));
+      assertEquals(i + 0.5d, rs.getDouble(3));
+      assertEquals("txt-" + i, rs.getString(4));
+    }
+    assertFalse(rs.next());
+  }
+}
@@ -0,0 +1,78 @@
+// SPDX-License-Identifier: LGPL-2.1-or-later
+// Copyright (c) 2012-2014 Monty Program Ab
+// Copyright (c) 2015-2021 MariaDB Corporation Ab
+
+package org.mariadb.jdbc.unit.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Field;
+import java.sql.*;
+import org.junit.jupiter.api.Test;
+import org.mariadb.jdbc.BasePreparedStatement;
+import org.mariadb.jdbc.client.ColumnDecoder;
+import org.mariadb.jdbc.client.DataType;
+import org.mariadb.jdbc.export.Prepare;
+import org.mariadb.jdbc.integration.tools.FakeResult;
+import org.mariadb.jdbc.integration.tools.FakeServer;
+
+public class PrepareMetadataCacheTest {
+
+  private static final String SQL = "SELECT * FROM metacache WHERE id > ?";
+
+  @Test
+  public void sharedBetweenConnections() throws Exception {
+    try (FakeServer server = new FakeServer()) {
+      server.addResult(
+          SQL,
+          FakeResult.resultSet()
+              .column("id", DataType.INTEGER)
+              .column("txt", DataType.VARCHAR)
+              .generatedRows(2)
+              .build());
+      ColumnDecoder[] first = prepareColumns(server.getUrl("useServerPrepStmts"));
+      ColumnDecoder[] second = prepareColumns(server.getUrl("useServerPrepStmts"));
+      assertEquals(2, second.length);
+      assertSame(first[0], second[0]);
+      assertSame(first[1], second[1]);
+
+      ColumnDecoder[] notShared =
+          prepareColumns(server.getUrl("useServerPrepStmts&cachePrepMetadata=false"));
+      assertNotSame(first[0], notShared[0]);
+      assertEquals("txt", notShared[1].getColumnName());
+    }
+  }
+
+  @Test
+  public void changedDefinition() throws Exception {
+    try (FakeServer server = new FakeServer()) {
+      server.addResult(
+          SQL, FakeResult.resultSet().column("id", DataType.INTEGER).generatedRows(2).build());
+      ColumnDecoder[] first = prepareColumns(server.getUrl("useServerPrepStmts"));
+      assertEquals("id", first[0].getColumnName());
+
+      // schema change: cached definition must not be used
+      server.addResult(
+          SQL, FakeResult.resultSet().column("id2", DataType.BIGINT).generatedRows(2).build());
+      ColumnDecoder[] second = prepareColumns(server.getUrl("useServerPrepStmts"));
+      assertNotSame(first[0], second[0]);
+      assertEquals("id2", second[0].getColumnName());
+      assertEquals(DataType.BIGINT, second[0].getType());
+
+      // new definition is now the cached one
+      ColumnDecoder[] third = prepareColumns(server.getUrl("useServerPrepStmts"));
+      assertSame(second[0], third[0]);
+    }
+  }
+
+  private static ColumnDecoder[] prepareColumns(String url) throws Exception {
+    try (Connection con = DriverManager.getConnection(url);
+        PreparedStatement prep = con.prepareStatement(SQL)) {
+      ResultSetMetaData meta = prep.getMetaData();
+      assertNotNull(meta);
+      Field field = BasePreparedStatement.class.getDeclaredField("prepareResult");
+      field.setAccessible(true);
+      return ((Prepare) field.get(prep)).getColumns();
+    }
+  }
+}
@@ -0,0 +1,189 @@
+// SPDX-License-Identifier: LGPL-2.1-or-later
+// Copyright (c) 2012-2014 Monty Program Ab
+// Copyright (c) 2015-2021 MariaDB Corporation Ab
+
+package org.mariadb.jdbc.unit.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mariadb.jdbc.integration.tools.FakeResult;
+import org.mariadb.jdbc.integration.tools.FakeServer;
+
+public class RewriteBatchTest {
+
+  private FakeServer server;
+
+  @BeforeEach
+  public void beforeEach() throws Exception {
+    server = new FakeServer();
+  }
+
+  @AfterEach
+  public void afterEach() throws Exception {
+    server.close();
+  }
+
+  private List<String> inserts() {
+    List<String> queries = server.getQueries();
+    queries.removeIf(sql -> !sql.startsWith("INSERT"));
+    return queries;
+  }
+
+  @Test
+  public void rewrite() throws SQLException {
+    server.setVariable("auto_increment_increment", "2");
+    try (Connection con =
+        DriverManager.getConnection(server.getUrl("useBulkStmts=false&rewriteBatchedStatements"))) {
+      try (PreparedStatement prep =
+          con.prepareStatement(
+              "INSERT INTO t(a, b) VALUES (?, ?)", Statement.RETURN_GENERATED_KEYS)) {
+        for (int i = 0; i < 1000; i++) {
+          prep.setInt(1, i);
+          prep.setString(2, "b'" + i);
+          prep.addBatch();
+        }
+        int[] res = prep.executeBatch();
+        assertEquals(1000, res.length);
+        for (int re : res) assertEquals(1, re);
+
+        List<String> inserts = inserts();
+        assertEquals(1, inserts.size());
+        assertTrue(
+            inserts.get(0).startsWith("INSERT INTO t(a, b) VALUES (0, 'b\\'0'),(1, 'b\\'1'),"),
+            inserts.get(0));
+        assertTrue(inserts.get(0).endsWith(",(999, 'b\\'999')"));
+
+        // ids computed with auto_increment_increment
+        ResultSet rs = prep.getGeneratedKeys();
+        for (int i = 0; i < 1000; i++) {
+          assertTrue(rs.next());
+          assertEquals(1 + 2 * i, rs.getLong(1));
+        }
+        assertFalse(rs.next());
+      }
+    }
+  }
+
+  @Test
+  public void generatedKeys() throws SQLException {
+    server.addResult(
+        "INSERT INTO t(a) VALUES (1),(2),(3) ON DUPLICATE KEY UPDATE a=a", FakeResult.ok(4, 10));
+    try (Connection con =
+        DriverManager.getConnection(server.getUrl("useBulkStmts=false&rewriteBatchedStatements"))) {
+      try (PreparedStatement prep =
+          con.prepareStatement("INSERT INTO t(a) VALUES (?)", Statement.RETURN_GENERATED_KEYS)) {
+        // session auto_increment_increment may change between batches
+        for (int increment : new int[] {2, 5}) {
+          server.setVariable("auto_increment_increment", String.valueOf(increment));
+          for (int i = 0; i < 3; i++) {
+            prep.setInt(1, i);
+            prep.addBatch();
+          }
+          prep.executeBatch();
+          ResultSet rs = prep.getGeneratedKeys();
+          assertTrue(rs.next());
+          long first = rs.getLong(1);
+          for (int i = 1; i < 3; i++) {
+            assertTrue(rs.next());
+            assertEquals(first + i * increment, rs.getLong(1));
+          }
+          assertFalse(rs.next());
+        }
+      }
+
+      // rows without info have no generated key
+      try (PreparedStatement prep =
+          con.prepareStatement(
+              "INSERT INTO t(a) VALUES (?) ON DUPLICATE KEY UPDATE a=a",
+              Statement.RETURN_GENERATED_KEYS)) {
+        for (int i = 1; i <= 3; i++) {
+          prep.setInt(1, i);
+          prep.addBatch();
+        }
+        for (int re : prep.executeBatch()) assertEquals(Statement.SUCCESS_NO_INFO, re);
+        ResultSet rs = prep.getGeneratedKeys();
+        assertTrue(rs.next());
+        assertEquals(10, rs.getLong(1));
+        assertFalse(rs.next());
+
+        // with CLIENT_FOUND_ROWS, affected rows may equal parameter sets although rows were updated
+        server.addResult(
+            "INSERT INTO t(a) VALUES (4),(5),(6) ON DUPLICATE KEY UPDATE a=a",
+            FakeResult.ok(3, 20));
+        for (int i = 4; i <= 6; i++) {
+          prep.setInt(1, i);
+          prep.addBatch();
+        }
+        for (int re : prep.executeBatch()) assertEquals(Statement.SUCCESS_NO_INFO, re);
+        rs = prep.getGeneratedKeys();
+        assertTrue(rs.next());
+        assertEquals(20, rs.getLong(1));
+        assertFalse(rs.next());
+      }
+    }
+  }
+
+  @Test
+  public void maxAllowedPacket() throws SQLException {
+    server.setVariable("max_allowed_packet", "2000");
+    try (Connection con =
+        DriverManager.getConnection(server.getUrl("useBulkStmts=false&rewriteBatchedStatements"))) {
+      try (PreparedStatement prep =
+          con.prepareStatement("INSERT INTO t(a, b) VALUES (?, ?) ON DUPLICATE KEY UPDATE b=b")) {
+        for (int i = 0; i < 500; i++) {
+          prep.setInt(1, i);
+          prep.setString(2, "some data");
+          prep.addBatch();
+        }
+        long[] res = prep.executeLargeBatch();
+        assertEquals(500, res.length);
+
+        List<String> inserts = inserts();
+        assertTrue(inserts.size() > 1);
+        int rows = 0;
+        for (String sql : inserts) {
+          assertTrue(sql.getBytes(StandardCharsets.UTF_8).length + 1 < 2000, sql);
+          assertTrue(sql.endsWith(") ON DUPLICATE KEY UPDATE b=b"), sql);
+          rows += sql.split("\\),\\(").length;
+        }
+        assertEquals(500, rows);
+      }
+    }
+  }
+
+  @Test
+  public void notRewritten() throws SQLException {
+    try (Connection con =
+        DriverManager.getConnection(server.getUrl("useBulkStmts=false&rewriteBatchedStatements"))) {
+      try (PreparedStatement prep =
+          con.prepareStatement("INSERT INTO t(a, b) VALUES (?, ?) ON DUPLICATE KEY UPDATE b=?")) {
+        for (int i = 0; i < 10; i++) {
+          prep.setInt(1, i);
+          prep.setString(2, "b");
+          prep.setString(3, "c");
+          prep.addBatch();
+        }
+        assertEquals(10, prep.executeBatch().length);
+        assertEquals(10, inserts().size());
+      }
+    }
+
+    // option disabled
+    try (Connection con = DriverManager.getConnection(server.getUrl("useBulkStmts=false"))) {
+      try (PreparedStatement prep = con.prepareStatement("INSERT INTO t(a) VALUES (?)")) {
+        for (int i = 0; i < 10; i++) {
+          prep.setInt(1, i);
+          prep.addBatch();
+        }
+        assertEquals(10, prep.executeBatch().length);
+        assertEquals(20, inserts().size());
+      }
+    }
+  }
+}
@@ -0,0 +1,178 @@
+// SPDX-License-Identifier: LGPL-2.1-or-later
+// Copyright (c) 2012-2014 Monty Program Ab
+// Copyright (c) 2015-2021 MariaDB Corporation Ab
+
+package org.mariadb.jdbc.unit.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.*;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.mariadb.jdbc.Connection;
+import org.mariadb.jdbc.RowMapper;
+import org.mariadb.jdbc.client.DataType;
+import org.mariadb.jdbc.client.result.RowEmitter;
+import org.mariadb.jdbc.integration.tools.FakeResult;
+import org.mariadb.jdbc.integration.tools.FakeServer;
+
+public class RowEmitterTest {
+
+  private static FakeServer server;
+
+  @BeforeAll
+  public static void beforeAll() throws Exception {
+    server = new FakeServer();
+    server.addResult(
+        "SELECT * FROM seq",
+        FakeResult.resultSet()
+            .column("id", DataType.INTEGER)
+            .column("txt", DataType.VARCHAR)
+            .generatedRows(1000)
+            .build());
+  }
+
+  @AfterAll
+  public static void afterAll() throws Exception {
+    server.close();
+  }
+
+  @Test
+  public void publish() throws Exception {
+    try (Connection con = (Connection) DriverManager.getConnection(server.getUrl(""))) {
+      Statement stmt = con.createStatement();
+      stmt.setFetchSize(50);
+      Collector collector = new Collector(7, Long.MAX_VALUE);
+      collector.start(stmt, "SELECT * FROM seq", rs -> rs.getString(2), null);
+      assertTrue(collector.end.await(10, TimeUnit.SECONDS));
+      assertNull(collector.error);
+      assertTrue(collector.completed);
+      assertEquals(1000, collector.rows.size());
+      for (int i = 0; i < 1000; i++) assertEquals("txt-" + i, collector.rows.get(i));
+
+      checkConnection(con);
+    }
+  }
+
+  @Test
+  public void prepared() throws Exception {
+    try (Connection con = (Connection) DriverManager.getConnection(server.getUrl(""))) {
+      PreparedStatement prep = con.prepareStatement("SELECT * FROM seq");
+      Collector collector = new Collector(Long.MAX_VALUE, Long.MAX_VALUE);
+      ExecutorService executor = Executors.newSingleThreadExecutor();
+      try {
+        collector.start(prep, null, rs -> rs.getString(2), executor);
+        assertTrue(collector.end.await(10, TimeUnit.SECONDS));
+      } finally {
+        executor.shutdown();
+      }
+      assertTrue(collector.completed);
+      assertEquals(1000, collector.rows.size());
+      checkConnection(con);
+    }
+  }
+
+  @Test
+  public void cancel() throws Exception {
+    try (Connection con = (Connection) DriverManager.getConnection(server.getUrl(""))) {
+      Statement stmt = con.createStatement();
+      stmt.setFetchSize(10);
+      Collector collector = new Collector(5, 25);
+      collector.start(stmt, "SELECT * FROM seq", rs -> rs.getString(2), null);
+      assertTrue(collector.end.await(10, TimeUnit.SECONDS));
+      // let drain task close result-set
+      Thread.sleep(100);
+      assertEquals(25, collector.rows.size());
+      assertFalse(collector.completed);
+      assertNull(collector.error);
+      checkConnection(con);
+    }
+  }
+
+  @Test
+  public void errors() throws Exception {
+    try (Connection con = (Connection) DriverManager.getConnection(server.getUrl(""))) {
+      Statement stmt = con.createStatement();
+      Collector collector = new Collector(-1, Long.MAX_VALUE);
+      collector.start(stmt, "SELECT * FROM seq", rs -> rs.getString(2), null);
+      assertTrue(collector.end.await(10, TimeUnit.SECONDS));
+      assertTrue(collector.error instanceof IllegalArgumentException);
+
+      collector = new Collector(10, Long.MAX_VALUE);
+      collector.start(stmt, "SELECT * FROM seq", rs -> rs.getString(10), null);
+      assertTrue(collector.end.await(10, TimeUnit.SECONDS));
+      assertTrue(collector.error.getMessage().contains("Wrong index position"));
+      checkConnection(con);
+
+      // closed statement
+      stmt.close();
+      collector = new Collector(10, Long.MAX_VALUE);
+      collector.start(stmt, "SELECT * FROM seq", rs -> rs.getString(2), null);
+      assertTrue(collector.end.await(10, TimeUnit.SECONDS));
+      assertTrue(collector.error instanceof SQLException);
+    }
+  }
+
+  private static void checkConnection(Connection con) throws Exception {
+    ResultSet rs = con.createStatement().executeQuery("SELECT * FROM seq");
+    int count = 0;
+    while (rs.next()) count++;
+    assertEquals(1000, count);
+  }
+
+  /** Sink requesting rows by batch, and cancelling after a number of rows */
+  private static final class Collector implements RowEmitter.Sink<String> {
+    private final long batch;
+    private final long cancelAfter;
+    private final List<String> rows = new CopyOnWriteArrayList<>();
+    private final CountDownLatch end = new CountDownLatch(1);
+    private RowEmitter<String> emitter;
+    private volatile Throwable error;
+    private volatile boolean completed;
+    private long pending;
+
+    Collector(long batch, long cancelAfter) {
+      this.batch = batch;
+      this.cancelAfter = cancelAfter;
+    }
+
+    void start(Statement stmt, String sql, RowMapper<String> mapper, Executor executor) {
+      emitter = new RowEmitter<>(stmt, sql, mapper, executor, this);
+      pending = batch;
+      emitter.request(batch);
+    }
+
+    @Override
+    public void onNext(String item) {
+      rows.add(item);
+      if (rows.size() == cancelAfter) {
+        emitter.cancel();
+        end.countDown();
+        return;
+      }
+      if (--pending == 0) {
+        pending = batch;
+        emitter.request(batch);
+      }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      error = throwable;
+      end.countDown();
+    }
+
+    @Override
+    public void onComplete() {
+      completed = true;
+      end.countDown();
+    }
+  }
+}
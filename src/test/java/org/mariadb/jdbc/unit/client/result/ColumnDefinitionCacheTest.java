@@ -0,0 +1,105 @@
+// SPDX-License-Identifier: LGPL-2.1-or-later
+// Copyright (c) 2012-2014 Monty Program Ab
+// Copyright (c) 2015-2021 MariaDB Corporation Ab
+
+package org.mariadb.jdbc.unit.client.result;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Field;
+import java.sql.*;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.mariadb.jdbc.client.ColumnDecoder;
+import org.mariadb.jdbc.client.DataType;
+import org.mariadb.jdbc.client.result.ColumnDefinitionCache;
+import org.mariadb.jdbc.client.result.Result;
+import org.mariadb.jdbc.integration.tools.FakeResult;
+import org.mariadb.jdbc.integration.tools.FakeServer;
+
+public class ColumnDefinitionCacheTest {
+
+  private static FakeServer server;
+
+  @BeforeAll
+  public static void beforeAll() throws Exception {
+    server = new FakeServer();
+    server.addResult(
+        "SELECT * FROM shape",
+        FakeResult.resultSet()
+            .column("id", DataType.INTEGER)
+            .column("Txt", DataType.VARCHAR)
+            .generatedRows(2)
+            .build());
+    server.addResult(
+        "SELECT * FROM other",
+        FakeResult.resultSet()
+            .column("id", DataType.INTEGER)
+            .column("Txt", DataType.BLOB)
+            .generatedRows(2)
+            .build());
+  }
+
+  @AfterAll
+  public static void afterAll() throws Exception {
+    server.close();
+  }
+
+  @Test
+  public void sharedColumns() throws Exception {
+    ColumnDecoder[] first;
+    try (Connection con = DriverManager.getConnection(server.getUrl(""))) {
+      first = columns(con, "SELECT * FROM shape");
+      assertSame(first, columns(con, "SELECT * FROM shape"));
+      assertSame(ColumnDefinitionCache.labelIndex(first), ColumnDefinitionCache.labelIndex(first));
+
+      // different definition of second column
+      ColumnDecoder[] other = columns(con, "SELECT * FROM other");
+      assertNotSame(first, other);
+      assertSame(first[0], other[0]);
+      assertNotSame(first[1], other[1]);
+    }
+
+    // shared between connections
+    try (Connection con = DriverManager.getConnection(server.getUrl(""))) {
+      assertSame(first, columns(con, "SELECT * FROM shape"));
+    }
+
+    try (Connection con = DriverManager.getConnection(server.getUrl("cacheResultMetadata=false"))) {
+      ColumnDecoder[] columns = columns(con, "SELECT * FROM shape");
+      assertNotSame(first, columns);
+      assertNotSame(first[0], columns[0]);
+    }
+  }
+
+  @Test
+  public void aliasAsName() throws Exception {
+    try (Connection con = DriverManager.getConnection(server.getUrl(""))) {
+      Statement stmt = con.createStatement();
+      Result rs = (Result) stmt.executeQuery("SELECT * FROM shape");
+      rs.useAliasAsName();
+      assertEquals("Txt", rs.getMetaData().getColumnName(2));
+      assertTrue(rs.next());
+      assertEquals("Txt-0", rs.getString("txt"));
+
+      // other results sharing columns are not impacted
+      ResultSet other = stmt.executeQuery("SELECT * FROM shape");
+      assertTrue(other.next());
+      assertEquals("Txt-0", other.getString("TXT"));
+    }
+  }
+
+  private static ColumnDecoder[] columns(Connection con, String sql) throws Exception {
+    ResultSet rs = con.createStatement().executeQuery(sql);
+    int count = 0;
+    while (rs.next()) {
+      assertEquals("Txt-" + count, rs.getString("txt"));
+      count++;
+    }
+    assertEquals(2, count);
+    Field field = Result.class.getDeclaredField("metadataList");
+    field.setAccessible(true);
+    return (ColumnDecoder[]) field.get(rs);
+  }
+}
@@ -0,0 +1,85 @@
+// SPDX-License-Identifier: LGPL-2.1-or-later
+// Copyright (c) 2012-2014 Monty Program Ab
+// Copyright (c) 2015-2021 MariaDB Corporation Ab
+
+package org.mariadb.jdbc.unit.client.result;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.*;
+import org.junit.jupiter.api.Test;
+import org.mariadb.jdbc.client.ColumnDecoder;
+import org.mariadb.jdbc.client.DataType;
+import org.mariadb.jdbc.client.result.ColumnLabelIndex;
+import org.mariadb.jdbc.integration.tools.FakeResult;
+import org.mariadb.jdbc.integration.tools.FakeServer;
+
+public class ColumnLabelIndexTest {
+
+  @Test
+  public void lookup() {
+    ColumnDecoder[] columns = new ColumnDecoder[40];
+    for (int i = 0; i < columns.length; i++) {
+      columns[i] = ColumnDecoder.create("Col_" + i, DataType.INTEGER, 0);
+    }
+    columns[7] = ColumnDecoder.create("Col_3", DataType.INTEGER, 0);
+    columns[8] = ColumnDecoder.create("Été", DataType.INTEGER, 0);
+    ColumnLabelIndex index = new ColumnLabelIndex(columns);
+    assertTrue(index.isFor(columns));
+    assertFalse(index.isFor(columns.clone()));
+
+    assertEquals(1, index.indexOf("col_0"));
+    assertEquals(1, index.indexOf("COL_0"));
+    assertEquals(40, index.indexOf("cOl_39"));
+    assertEquals(40, index.indexOf(".col_39"));
+    // first column wins
+    assertEquals(4, index.indexOf("col_3"));
+    assertEquals(-1, index.indexOf("col_7"));
+    assertEquals(9, index.indexOf("éTÉ"));
+    assertEquals(-1, index.indexOf("col_40"));
+    assertEquals(-1, index.indexOf(""));
+    assertTrue(index.labels().contains("col_3"));
+    assertTrue(index.labels().contains(".été"));
+
+    assertEquals(-1, new ColumnLabelIndex(new ColumnDecoder[0]).indexOf("a"));
+  }
+
+  @Test
+  public void sharedByPreparedResults() throws Exception {
+    try (FakeServer server = new FakeServer()) {
+      server.addResult(
+          "SELECT * FROM labels",
+          FakeResult.resultSet()
+              .column("id", DataType.INTEGER)
+              .column("Txt", DataType.VARCHAR)
+              .generatedRows(3)
+              .build());
+      try (Connection con = DriverManager.getConnection(server.getUrl("useServerPrepStmts"));
+          PreparedStatement prep = con.prepareStatement("SELECT * FROM labels")) {
+        for (int i = 0; i < 2; i++) {
+          ResultSet rs = prep.executeQuery();
+          int count = 0;
+          while (rs.next()) {
+            assertEquals(count, rs.getInt("ID"));
+            assertEquals("Txt-" + count, rs.getString("txt"));
+            count++;
+          }
+          assertEquals(3, count);
+          SQLException e = assertThrows(SQLException.class, () -> rs.findColumn("unknown"));
+          assertTrue(e.getMessage().contains("Unknown label 'unknown'"));
+        }
+      }
+      // null label is never a valid label, even before any lookup
+      try (Connection con = DriverManager.getConnection(server.getUrl(null));
+          Statement stmt = con.createStatement()) {
+        ResultSet rs = stmt.executeQuery("SELECT * FROM labels");
+        assertTrue(rs.next());
+        SQLException e = assertThrows(SQLException.class, () -> rs.getString((String) null));
+        assertTrue(e.getMessage().contains("null is not a valid label value"));
+        assertEquals("Txt-0", rs.getString("txt"));
+        e = assertThrows(SQLException.class, () -> rs.findColumn(null));
+        assertTrue(e.getMessage().contains("null is not a valid label value"));
+      }
+    }
+  }
+}
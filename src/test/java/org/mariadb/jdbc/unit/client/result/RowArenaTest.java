@@ -0,0 +1,84 @@
+// SPDX-License-Identifier: LGPL-2.1-or-later
+// Copyright (c) 2012-2014 Monty Program Ab
+// Copyright (c) 2015-2021 MariaDB Corporation Ab
+
+package org.mariadb.jdbc.unit.client.result;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.mariadb.jdbc.client.impl.StandardReadableByteBuf;
+import org.mariadb.jdbc.client.result.RowArena;
+
+public class RowArenaTest {
+
+  @Test
+  public void rows() {
+    RowArena arena = new RowArena();
+    byte[] packet = new byte[3_000_000];
+    for (int i = 0; i < packet.length; i++) packet[i] = (byte) i;
+
+    // small rows filling many chunks, and rows bigger than chunk size
+    int[] lengths = new int[10_000];
+    for (int i = 0; i < lengths.length; i++) {
+      lengths[i] = i % 1000 == 999 ? 1_500_000 + i : i % 300;
+      arena.add(packet, i % 7, lengths[i]);
+    }
+    assertEquals(lengths.length, arena.size());
+
+    StandardReadableByteBuf rowBuf = new StandardReadableByteBuf(null, 0);
+    for (int i = lengths.length - 1; i >= 0; i--) {
+      arena.setRow(i, rowBuf);
+      assertEquals(lengths[i], rowBuf.readableBytes());
+      assertEquals(rowBuf.offset(), rowBuf.pos());
+      for (int j = 0; j < lengths[i]; j += 97) {
+        assertEquals((byte) (i % 7 + j), rowBuf.buf()[rowBuf.offset() + j]);
+      }
+
+      byte[] row = arena.getRow(i);
+      assertEquals(lengths[i], row.length);
+      if (row.length > 0) assertEquals((byte) (i % 7 + row.length - 1), row[row.length - 1]);
+    }
+  }
+
+  @Test
+  public void spill() {
+    RowArena arena = new RowArena(10_000, 100_000);
+    byte[] packet = new byte[1000];
+    for (int i = 0; i < 2000; i++) {
+      long stored = arena.storedBytes();
+      // direct buffers are only used once 10_000 bytes are stored
+      if (stored < 10_000) assertEquals(0, arena.offHeapChunks());
+      for (int j = 0; j < 100; j++) packet[j] = (byte) (i + j);
+      arena.add(packet, 0, 100);
+      // temporary file is only used once 100_000 bytes are stored
+      if (arena.spilledToFile()) assertTrue(stored >= 100_000);
+    }
+    assertEquals(200_000, arena.storedBytes());
+    assertTrue(arena.offHeapChunks() > 0);
+    assertTrue(arena.spilledToFile());
+
+    StandardReadableByteBuf rowBuf = new StandardReadableByteBuf(null, 0);
+    for (int i = 1999; i >= 0; i -= 3) {
+      arena.setRow(i, rowBuf);
+      assertEquals(100, rowBuf.readableBytes());
+      assertEquals((byte) i, rowBuf.buf()[rowBuf.pos()]);
+      assertEquals((byte) (i + 99), rowBuf.buf()[rowBuf.pos() + 99]);
+    }
+
+    // off-heap rows are read into a reused array, unless row data has been retained
+    arena.setRow(1999, rowBuf);
+    byte[] scratch = rowBuf.buf();
+    arena.setRow(1500, rowBuf);
+    assertSame(scratch, rowBuf.buf());
+    arena.retainRow();
+    arena.setRow(1000, rowBuf);
+    assertNotSame(scratch, rowBuf.buf());
+    assertEquals((byte) 1500, scratch[0]);
+    assertEquals((byte) 1000, rowBuf.buf()[rowBuf.pos()]);
+
+    arena.close();
+    assertEquals(0, arena.offHeapChunks());
+    assertFalse(arena.spilledToFile());
+  }
+}
@@ -0,0 +1,305 @@
+package org.mariadb.jdbc.unit.client.socket;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Inflater;
+import org.junit.jupiter.api.Test;
+import org.mariadb.jdbc.Configuration;
+import org.mariadb.jdbc.client.socket.impl.CompressInputStream;
+import org.mariadb.jdbc.client.socket.impl.CompressOutputStream;
+import org.mariadb.jdbc.client.util.MutableByte;
+import org.mariadb.jdbc.plugin.CompressionPlugin;
+import org.mariadb.jdbc.plugin.compression.CompressionPluginLoader;
+import org.mariadb.jdbc.plugin.compression.main.ZlibCompressionPlugin;
+import org.mariadb.jdbc.util.constants.Capabilities;
+
+public class CompressStreamTest {
+
+  private static byte[] data(int length, boolean compressible) {
+    byte[] data = new byte[length];
+    if (compressible) {
+      for (int i = 0; i < length; i++) data[i] = (byte) ('a' + i % 7);
+    } else {
+      new Random(length).nextBytes(data);
+    }
+    return data;
+  }
+
+  @Test
+  public void roundTrip() throws Exception {
+    roundTrip("adaptiveCompression=false", 1536);
+    roundTrip("adaptiveCompression=false&compressionLevel=1", 1536);
+    roundTrip("adaptiveCompression=false&compressionLevel=9&compressionThreshold=100", 100);
+    roundTrip("", 1536);
+    roundTrip("adaptiveCompression", 1536);
+    // uncompressed packets bigger than 64K
+    roundTrip("adaptiveCompression=false&compressionThreshold=400000", 400000);
+    assertThrows(
+        SQLException.class,
+        () ->
+            Configuration.parse(
+                "jdbc:mariadb://localhost/?useCompression&compressionThreshold=16777215"));
+  }
+
+  private void roundTrip(String options, int threshold) throws Exception {
+    Configuration conf = Configuration.parse("jdbc:mariadb://localhost/?useCompression&" + options);
+    assertEquals(threshold, conf.compressionThreshold());
+    CompressionPlugin plugin = CompressionPluginLoader.negotiate(conf, Capabilities.COMPRESS);
+    byte[][] packets =
+        new byte[][] {
+          data(10, true),
+          data(5000, true),
+          data(3000, false),
+          data(2 * 1024 * 1024, false),
+          data(100, false),
+          data(300_000, true),
+          data(2000, false)
+        };
+
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    MutableByte writeSequence = new MutableByte();
+    try (CompressOutputStream out =
+        new CompressOutputStream(
+            baos,
+            writeSequence,
+            plugin.compressor(conf),
+            conf.compressionThreshold(),
+            conf.adaptiveCompression())) {
+      for (byte[] packet : packets) out.write(packet, 0, packet.length);
+    }
+    byte[] stream = baos.toByteArray();
+
+    // check compressed packet headers
+    int pos = 0;
+    for (int i = 0; i < packets.length; i++) {
+      int compressedLength =
+          (stream[pos] & 0xff) + ((stream[pos + 1] & 0xff) << 8) + ((stream[pos + 2] & 0xff) << 16);
+      assertEquals((byte) i, stream[pos + 3]);
+      int length =
+          (stream[pos + 4] & 0xff)
+              + ((stream[pos + 5] & 0xff) << 8)
+              + ((stream[pos + 6] & 0xff) << 16);
+      if (packets[i].length < threshold || (conf.adaptiveCompression() && length == 0)) {
+        assertEquals(0, length);
+        assertEquals(packets[i].length, compressedLength);
+        byte[] raw = new byte[compressedLength];
+        System.arraycopy(stream, pos + 7, raw, 0, compressedLength);
+        assertArrayEquals(packets[i], raw);
+      } else {
+        assertEquals(packets[i].length, length);
+        Inflater inflater = new Inflater();
+        inflater.setInput(stream, pos + 7, compressedLength);
+        byte[] inflated = new byte[length];
+        assertEquals(length, inflater.inflate(inflated));
+        assertTrue(inflater.finished());
+        inflater.end();
+        assertArrayEquals(packets[i], inflated);
+      }
+      pos += 7 + compressedLength;
+    }
+    assertEquals(stream.length, pos);
+
+    MutableByte readSequence = new MutableByte();
+    try (CompressInputStream in =
+        new CompressInputStream(
+            new ByteArrayInputStream(stream), readSequence, plugin.decompressor(conf))) {
+      for (int i = 0; i < packets.length; i++) {
+        byte[] read = new byte[packets[i].length];
+        int off = 0;
+        while (off < read.length) off += in.read(read, off, read.length - off);
+        assertArrayEquals(packets[i], read);
+        assertEquals((byte) i, readSequence.get());
+      }
+    }
+  }
+
+  @Test
+  public void adaptive() throws Exception {
+    assertFalse(
+        Configuration.parse("jdbc:mariadb://localhost/?useCompression").adaptiveCompression());
+    Configuration conf =
+        Configuration.parse("jdbc:mariadb://localhost/?useCompression&adaptiveCompression");
+    assertTrue(conf.adaptiveCompression());
+    CompressionPlugin.Compressor zlib = ZlibCompressionPlugin.INSTANCE.compressor(conf);
+    AtomicInteger compressCalls = new AtomicInteger();
+    CompressionPlugin.Compressor compressor =
+        new CompressionPlugin.Compressor() {
+          @Override
+          public int maxCompressedLength(int length) {
+            return zlib.maxCompressedLength(length);
+          }
+
+          @Override
+          public int compress(byte[] src, int srcOff, int srcLen, byte[] dst, int dstOff)
+              throws IOException {
+            compressCalls.incrementAndGet();
+            return zlib.compress(src, srcOff, srcLen, dst, dstOff);
+          }
+        };
+
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    MutableByte writeSequence = new MutableByte();
+    List<byte[]> packets = new ArrayList<>();
+    List<Boolean> compressedPackets = new ArrayList<>();
+    try (CompressOutputStream out =
+        new CompressOutputStream(baos, writeSequence, compressor, 1536, true)) {
+      // incompressible data: compression is skipped after a few packets, then probed
+      for (int i = 0; i < 100; i++) {
+        byte[] packet = data(5000 + i, false);
+        packets.add(packet);
+        out.write(packet, 0, packet.length);
+        out.flush();
+      }
+      assertTrue(compressCalls.get() < 10, "compress calls: " + compressCalls.get());
+
+      // compressible data: compression resumes after next probe
+      for (int i = 0; i < 100; i++) {
+        byte[] packet = data(5000 + i, true);
+        packets.add(packet);
+        out.write(packet, 0, packet.length);
+        out.flush();
+      }
+    }
+
+    byte[] stream = baos.toByteArray();
+    int pos = 0;
+    for (int i = 0; i < packets.size(); i++) {
+      int compressedLength =
+          (stream[pos] & 0xff) + ((stream[pos + 1] & 0xff) << 8) + ((stream[pos + 2] & 0xff) << 16);
+      int length =
+          (stream[pos + 4] & 0xff)
+              + ((stream[pos + 5] & 0xff) << 8)
+              + ((stream[pos + 6] & 0xff) << 16);
+      compressedPackets.add(length != 0);
+      pos += 7 + compressedLength;
+    }
+    assertEquals(stream.length, pos);
+    // incompressible packets are never sent compressed
+    assertFalse(compressedPackets.subList(0, 100).contains(Boolean.TRUE));
+    // compressible packets are compressed after at most one probe interval
+    assertFalse(compressedPackets.subList(150, 200).contains(Boolean.FALSE));
+
+    MutableByte readSequence = new MutableByte();
+    try (CompressInputStream in =
+        new CompressInputStream(
+            new ByteArrayInputStream(stream),
+            readSequence,
+            ZlibCompressionPlugin.INSTANCE.decompressor(conf))) {
+      for (byte[] packet : packets) {
+        byte[] read = new byte[packet.length];
+        int off = 0;
+        while (off < read.length) off += in.read(read, off, read.length - off);
+        assertArrayEquals(packet, read);
+      }
+    }
+  }
+
+  @Test
+  public void multiPacket() throws Exception {
+    Configuration conf = Configuration.parse("jdbc:mariadb://localhost/?useCompression");
+    CompressionPlugin.Compressor zlib = ZlibCompressionPlugin.INSTANCE.compressor(conf);
+    // command of 2 full packets (4 bytes header + 0xffffff payload), then a last small packet
+    byte[] full = data(0xffffff + 4, true);
+    byte[] last = data(1000, true);
+
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    try (CompressOutputStream out =
+        new CompressOutputStream(baos, new MutableByte(), zlib, 1536, true)) {
+      out.write(full, 0, full.length);
+      out.write(full, 0, full.length);
+      out.write(last, 0, last.length);
+      out.flush();
+    }
+
+    byte[] stream = baos.toByteArray();
+    try (CompressInputStream in =
+        new CompressInputStream(
+            new ByteArrayInputStream(stream),
+            new MutableByte(),
+            ZlibCompressionPlugin.INSTANCE.decompressor(conf))) {
+      for (byte[] packet : new byte[][] {full, full, last}) {
+        byte[] read = new byte[packet.length];
+        int off = 0;
+        while (off < read.length) off += in.read(read, off, read.length - off);
+        assertArrayEquals(packet, read);
+      }
+    }
+  }
+
+  @Test
+  public void twoSegments() throws Exception {
+    // negative level is rejected, higher than maximum level uses maximum level
+    assertThrows(
+        SQLException.class,
+        () -> Configuration.parse("jdbc:mariadb://localhost/?useCompression&compressionLevel=-5"));
+    Configuration conf =
+        Configuration.parse("jdbc:mariadb://localhost/?useCompression&compressionLevel=20");
+    CompressionPlugin.Compressor zlib = ZlibCompressionPlugin.INSTANCE.compressor(conf);
+    CompressionPlugin.Compressor copying =
+        new CompressionPlugin.Compressor() {
+          @Override
+          public int maxCompressedLength(int length) {
+            return zlib.maxCompressedLength(length);
+          }
+
+          @Override
+          public int compress(byte[] src, int srcOff, int srcLen, byte[] dst, int dstOff)
+              throws IOException {
+            return zlib.compress(src, srcOff, srcLen, dst, dstOff);
+          }
+        };
+    byte[] first = data(20, false);
+    byte[] second = data(100_000, true);
+    byte[] expected = new byte[first.length + second.length - 10];
+    System.arraycopy(first, 5, expected, 0, first.length - 5);
+    System.arraycopy(second, 0, expected, first.length - 5, second.length - 5);
+
+    // streaming zlib implementation and default implementation copying segments
+    for (CompressionPlugin.Compressor compressor :
+        new CompressionPlugin.Compressor[] {zlib, copying}) {
+      byte[] compressed = new byte[compressor.maxCompressedLength(expected.length) + 3];
+      int length =
+          compressor.compress(
+              first, 5, first.length - 5, second, 0, second.length - 5, compressed, 3);
+      Inflater inflater = new Inflater();
+      inflater.setInput(compressed, 3, length);
+      byte[] inflated = new byte[expected.length];
+      assertEquals(expected.length, inflater.inflate(inflated));
+      assertTrue(inflater.finished());
+      inflater.end();
+      assertArrayEquals(expected, inflated);
+    }
+  }
+
+  @Test
+  public void negotiate() throws SQLException {
+    Configuration conf = Configuration.parse("jdbc:mariadb://localhost/?useCompression");
+    assertEquals("zlib", CompressionPluginLoader.negotiate(conf, Capabilities.COMPRESS).type());
+    assertNull(CompressionPluginLoader.negotiate(conf, Capabilities.ZSTD_COMPRESSION_ALGORITHM));
+
+    conf = Configuration.parse("jdbc:mariadb://localhost/?compressionAlgorithms=zstd, zlib");
+    CompressionPlugin zstd = CompressionPluginLoader.get("zstd");
+    long capabilities = Capabilities.COMPRESS | Capabilities.ZSTD_COMPRESSION_ALGORITHM;
+    // zstd is only used if zstd-jni is in classpath
+    assertEquals(
+        zstd.isAvailable() ? "zstd" : "zlib",
+        CompressionPluginLoader.negotiate(conf, capabilities).type());
+    assertEquals("zlib", CompressionPluginLoader.negotiate(conf, Capabilities.COMPRESS).type());
+
+    Configuration unknown =
+        Configuration.parse("jdbc:mariadb://localhost/?compressionAlgorithms=lz4");
+    SQLException e =
+        assertThrows(
+            SQLException.class,
+            () -> CompressionPluginLoader.negotiate(unknown, Capabilities.COMPRESS));
+    assertTrue(e.getMessage().contains("compression plugin with name 'lz4'"));
+  }
+}
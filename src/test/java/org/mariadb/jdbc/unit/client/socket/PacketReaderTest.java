@@ -0,0 +1,140 @@
+package org.mariadb.jdbc.unit.client.socket;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import org.junit.jupiter.api.Test;
+import org.mariadb.jdbc.Configuration;
+import org.mariadb.jdbc.client.ReadableByteBuf;
+import org.mariadb.jdbc.client.socket.impl.PacketReader;
+import org.mariadb.jdbc.client.util.MutableByte;
+
+public class PacketReaderTest {
+
+  private static final int MAX_PACKET_SIZE = 0xffffff;
+
+  private static PacketReader reader(byte[] stream) throws Exception {
+    return new PacketReader(
+        new ByteArrayInputStream(stream),
+        Configuration.parse("jdbc:mariadb://localhost/"),
+        new MutableByte());
+  }
+
+  private static void writePacket(ByteArrayOutputStream out, int seq, int length, int value) {
+    out.write(length & 0xff);
+    out.write((length >> 8) & 0xff);
+    out.write((length >> 16) & 0xff);
+    out.write(seq);
+    for (int i = 0; i < length; i++) out.write(value + i);
+  }
+
+  @Test
+  public void reusableBufferGrows() throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    writePacket(out, 0, 10, 1);
+    writePacket(out, 1, 5000, 2);
+    writePacket(out, 2, 3000, 3);
+    writePacket(out, 3, 2 * 1024 * 1024, 4);
+    PacketReader reader = reader(out.toByteArray());
+
+    ReadableByteBuf buf = reader.readReusablePacket(false);
+    assertEquals(10, buf.readableBytes());
+    byte[] small = buf.buf();
+
+    buf = reader.readReusablePacket(false);
+    assertEquals(5000, buf.readableBytes());
+    byte[] grown = buf.buf();
+    assertNotSame(small, grown);
+    assertEquals((byte) 2, grown[0]);
+    assertEquals((byte) (2 + 4999), grown[4999]);
+
+    buf = reader.readReusablePacket(false);
+    assertEquals(3000, buf.readableBytes());
+    assertSame(grown, buf.buf());
+    assertEquals((byte) (3 + 2999), buf.buf()[2999]);
+    assertEquals(2, reader.getSequence().get());
+
+    // too big to be kept
+    buf = reader.readReusablePacket(false);
+    assertEquals(2 * 1024 * 1024, buf.readableBytes());
+    assertNotSame(grown, buf.buf());
+  }
+
+  @Test
+  public void multiPacket() throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    writePacket(out, 0, MAX_PACKET_SIZE, 0);
+    writePacket(out, 1, MAX_PACKET_SIZE, 1);
+    writePacket(out, 2, 10, 2);
+    writePacket(out, 3, 4, 3);
+    byte[] stream = out.toByteArray();
+
+    PacketReader reader = reader(stream);
+    byte[] content = reader.readPacket(false);
+    checkMultiPacket(content, content.length);
+    assertArrayEquals(new byte[] {3, 4, 5, 6}, reader.readPacket(false));
+
+    reader = reader(stream);
+    ReadableByteBuf buf = reader.readReusablePacket(false);
+    checkMultiPacket(buf.buf(), buf.readableBytes());
+    assertEquals(2, reader.getSequence().get());
+    assertEquals(4, reader.readReusablePacket(false).readableBytes());
+
+    reader = reader(stream);
+    reader.skipPacket();
+    assertArrayEquals(new byte[] {3, 4, 5, 6}, reader.readPacket(false));
+  }
+
+  @Test
+  public void skipRowPacket() throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    writePacket(out, 1, 5000, 1);
+    writePacket(out, 2, MAX_PACKET_SIZE, 2);
+    writePacket(out, 3, 10, 3);
+    // row beginning with 0xFE (8 bytes length-encoded) is not an EOF
+    out.write(new byte[] {9, 0, 0, 4, (byte) 0xFE, 0, 0, 0, 0, 0, 0, 0, 0});
+    // EOF packet
+    out.write(new byte[] {5, 0, 0, 5, (byte) 0xFE, 0, 0, 2, 0});
+    out.write(new byte[] {4, 0, 0, 6, (byte) 0xFF, 0x29, 0x05, 'e'});
+    PacketReader reader = reader(out.toByteArray());
+
+    assertNull(reader.skipRowPacket(false, 8));
+    assertNull(reader.skipRowPacket(false, 8));
+    assertEquals(3, reader.getSequence().get());
+    assertNull(reader.skipRowPacket(false, 8));
+
+    ReadableByteBuf buf = reader.skipRowPacket(false, 8);
+    assertEquals(5, buf.readableBytes());
+    assertEquals(0xFE, buf.getUnsignedByte());
+    assertEquals(5, reader.getSequence().get());
+
+    buf = reader.skipRowPacket(false, 8);
+    assertEquals(4, buf.readableBytes());
+    assertEquals(0xFF, buf.getUnsignedByte());
+    assertEquals((byte) 'e', buf.buf()[3]);
+  }
+
+  private static void checkMultiPacket(byte[] content, int length) {
+    assertEquals(2 * MAX_PACKET_SIZE + 10, length);
+    assertEquals((byte) 0, content[0]);
+    assertEquals((byte) (MAX_PACKET_SIZE - 1), content[MAX_PACKET_SIZE - 1]);
+    assertEquals((byte) 1, content[MAX_PACKET_SIZE]);
+    assertEquals((byte) (1 + MAX_PACKET_SIZE - 1), content[2 * MAX_PACKET_SIZE - 1]);
+    assertEquals((byte) 2, content[2 * MAX_PACKET_SIZE]);
+    assertEquals((byte) 11, content[2 * MAX_PACKET_SIZE + 9]);
+  }
+
+  @Test
+  public void truncatedStream() throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    writePacket(out, 0, 100, 0);
+    byte[] stream = out.toByteArray();
+    byte[] truncated = new byte[50];
+    System.arraycopy(stream, 0, truncated, 0, 50);
+    IOException e = assertThrows(EOFException.class, () -> reader(truncated).readPacket(false));
+    assertTrue(e.getMessage().contains("read 46 bytes from 100"));
+  }
+}
@@ -0,0 +1,142 @@
+// SPDX-License-Identifier: LGPL-2.1-or-later
+// Copyright (c) 2012-2014 Monty Program Ab
+// Copyright (c) 2015-2021 MariaDB Corporation Ab
+
+package org.mariadb.jdbc.unit.pool;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mariadb.jdbc.pool.MariaDbInnerPoolConnection.*;
+
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.mariadb.jdbc.Configuration;
+import org.mariadb.jdbc.Connection;
+import org.mariadb.jdbc.integration.tools.FakeServer;
+import org.mariadb.jdbc.pool.ConnectionBag;
+import org.mariadb.jdbc.pool.MariaDbInnerPoolConnection;
+import org.mariadb.jdbc.pool.Pool;
+
+public class ConnectionBagTest {
+
+  private static FakeServer server;
+
+  @BeforeAll
+  public static void beforeAll() throws Exception {
+    server = new FakeServer();
+  }
+
+  @AfterAll
+  public static void afterAll() throws Exception {
+    server.close();
+  }
+
+  private static MariaDbInnerPoolConnection newItem() throws SQLException {
+    return new MariaDbInnerPoolConnection(
+        (Connection) DriverManager.getConnection(server.getUrl(null)));
+  }
+
+  @Test
+  public void borrowRequite() throws Exception {
+    ConnectionBag bag = new ConnectionBag();
+    MariaDbInnerPoolConnection first = newItem();
+    MariaDbInnerPoolConnection second = newItem();
+    bag.add(first);
+    bag.add(second);
+    assertEquals(2, bag.getCount(STATE_NOT_IN_USE));
+
+    assertSame(first, bag.borrow(0, TimeUnit.SECONDS));
+    assertSame(second, bag.borrow(0, TimeUnit.SECONDS));
+    assertEquals(STATE_IN_USE, first.getState());
+    assertEquals(2, bag.getCount(STATE_IN_USE));
+    assertNull(bag.borrow(0, TimeUnit.SECONDS));
+    assertNull(bag.borrow(10, TimeUnit.MILLISECONDS));
+
+    // last released connection is returned to same thread
+    bag.requite(first);
+    bag.requite(second);
+    assertSame(second, bag.borrow(0, TimeUnit.SECONDS));
+    assertSame(first, bag.borrow(0, TimeUnit.SECONDS));
+
+    bag.requite(first);
+    assertTrue(bag.reserve(first));
+    assertFalse(bag.reserve(first));
+    assertNull(bag.borrow(0, TimeUnit.SECONDS));
+    assertTrue(bag.remove(first));
+    assertFalse(bag.remove(first));
+    assertEquals(STATE_REMOVED, first.getState());
+    assertEquals(1, bag.size());
+
+    first.getConnection().close();
+    second.getConnection().close();
+  }
+
+  @Test
+  public void handoff() throws Exception {
+    ConnectionBag bag = new ConnectionBag();
+    MariaDbInnerPoolConnection item = newItem();
+    bag.add(item);
+    assertSame(item, bag.borrow(0, TimeUnit.SECONDS));
+
+    ExecutorService exec = Executors.newSingleThreadExecutor();
+    try {
+      Future<MariaDbInnerPoolConnection> future =
+          exec.submit(() -> bag.borrow(10, TimeUnit.SECONDS));
+      while (bag.getWaitingThreadCount() == 0) Thread.sleep(1);
+      bag.requite(item);
+      assertSame(item, future.get(10, TimeUnit.SECONDS));
+      assertEquals(STATE_IN_USE, item.getState());
+
+      // new connection is handed off as well
+      future = exec.submit(() -> bag.borrow(10, TimeUnit.SECONDS));
+      while (bag.getWaitingThreadCount() == 0) Thread.sleep(1);
+      MariaDbInnerPoolConnection newItem = newItem();
+      bag.add(newItem);
+      assertSame(newItem, future.get(10, TimeUnit.SECONDS));
+      newItem.getConnection().close();
+    } finally {
+      exec.shutdown();
+      item.getConnection().close();
+    }
+  }
+
+  @Test
+  public void concurrentPool() throws Exception {
+    Configuration conf = Configuration.parse(server.getUrl("maxPoolSize=8&minPoolSize=2"));
+    ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1);
+    Pool pool = new Pool(conf, 0, executor);
+    ExecutorService exec = Executors.newFixedThreadPool(50);
+    try {
+      AtomicInteger errors = new AtomicInteger();
+      for (int i = 0; i < 50; i++) {
+        exec.execute(
+            () -> {
+              for (int j = 0; j < 200; j++) {
+                try {
+                  MariaDbInnerPoolConnection item = pool.getPoolConnection();
+                  assertEquals(STATE_IN_USE, item.getState());
+                  item.getConnection().isValid(1);
+                  item.getConnection().close();
+                } catch (Throwable e) {
+                  errors.incrementAndGet();
+                }
+              }
+            });
+      }
+      exec.shutdown();
+      assertTrue(exec.awaitTermination(60, TimeUnit.SECONDS));
+      assertEquals(0, errors.get());
+      assertTrue(pool.getTotalConnections() <= 8);
+      assertEquals(0, pool.getActiveConnections());
+      assertEquals(pool.getTotalConnections(), pool.getIdleConnections());
+    } finally {
+      pool.close();
+      executor.shutdown();
+    }
+    assertEquals(0, pool.getTotalConnections());
+  }
+}
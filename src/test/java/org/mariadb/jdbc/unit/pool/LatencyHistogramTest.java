@@ -0,0 +1,50 @@
+// SPDX-License-Identifier: LGPL-2.1-or-later
+// Copyright (c) 2012-2014 Monty Program Ab
+// Copyright (c) 2015-2021 MariaDB Corporation Ab
+
+package org.mariadb.jdbc.unit.pool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.mariadb.jdbc.pool.LatencyHistogram;
+
+public class LatencyHistogramTest {
+
+  @Test
+  public void empty() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    assertEquals(0, histogram.getCount());
+    assertEquals(0, histogram.getMean());
+    assertEquals(0, histogram.getMax());
+    assertEquals(0, histogram.getPercentile(99));
+  }
+
+  @Test
+  public void record() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 0; i < 99; i++) histogram.record(TimeUnit.MICROSECONDS.toNanos(100));
+    histogram.record(TimeUnit.MILLISECONDS.toNanos(50));
+    histogram.record(-1);
+
+    assertEquals(101, histogram.getCount());
+    assertEquals((99 * 100 + 50_000) / 101, histogram.getMean());
+    assertEquals(50_000, histogram.getMax());
+
+    // 100µs is in bucket [64, 128)
+    assertEquals(127, histogram.getPercentile(50));
+    assertEquals(127, histogram.getPercentile(98));
+    assertEquals(50_000, histogram.getPercentile(100));
+
+    long[] buckets = histogram.getBuckets();
+    assertEquals(LatencyHistogram.BUCKETS, buckets.length);
+    assertEquals(1, buckets[0]);
+    assertEquals(99, buckets[7]);
+    assertEquals(1, buckets[16]);
+
+    // very long durations are kept in last bucket
+    histogram.record(Long.MAX_VALUE);
+    assertEquals(1, histogram.getBuckets()[LatencyHistogram.BUCKETS - 1]);
+  }
+}
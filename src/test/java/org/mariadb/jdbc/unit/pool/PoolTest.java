@@ -0,0 +1,339 @@
+// SPDX-License-Identifier: LGPL-2.1-or-later
+// Copyright (c) 2012-2014 Monty Program Ab
+// Copyright (c) 2015-2021 MariaDB Corporation Ab
+
+package org.mariadb.jdbc.unit.pool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.mariadb.jdbc.Configuration;
+import org.mariadb.jdbc.integration.tools.FakeServer;
+import org.mariadb.jdbc.pool.MariaDbInnerPoolConnection;
+import org.mariadb.jdbc.pool.Pool;
+import org.mariadb.jdbc.pool.PoolMetricsListener;
+
+public class PoolTest {
+
+  private static FakeServer server;
+  private static ScheduledThreadPoolExecutor executor;
+
+  @BeforeAll
+  public static void beforeAll() throws Exception {
+    server = new FakeServer();
+    executor = new ScheduledThreadPoolExecutor(1);
+  }
+
+  @AfterAll
+  public static void afterAll() throws Exception {
+    server.close();
+    executor.shutdown();
+  }
+
+  @AfterEach
+  public void afterEach() {
+    server.setLatency(0, TimeUnit.MILLISECONDS);
+  }
+
+  @Test
+  public void parallelCreation() throws Exception {
+    server.setLatency(100, TimeUnit.MILLISECONDS);
+
+    long start = System.nanoTime();
+    try (Pool pool =
+        new Pool(
+            Configuration.parse(
+                server.getUrl("maxPoolSize=8&poolCreationThreads=8&registerJmxPool=false")),
+            0,
+            executor)) {
+      long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+      assertEquals(8, pool.getTotalConnections());
+      assertEquals(8, pool.getIdleConnections());
+      // serial creation would take more than 8 * 100ms
+      assertTrue(duration < 700, "pool creation took " + duration + "ms");
+    }
+  }
+
+  @Test
+  public void interruptedCreation() throws Exception {
+    server.setLatency(100, TimeUnit.MILLISECONDS);
+
+    Configuration conf =
+        Configuration.parse(
+            server.getUrl(
+                "maxPoolSize=4&minPoolSize=4&poolCreationThreads=1&registerJmxPool=false"));
+
+    // interrupted thread doesn't wait for initial connections
+    long start = System.nanoTime();
+    Thread.currentThread().interrupt();
+    try (Pool pool = new Pool(conf, 0, executor)) {
+      long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+      assertTrue(Thread.interrupted());
+      // serial creation would take more than 4 * 100ms
+      assertTrue(duration < 350, "pool creation took " + duration + "ms");
+    }
+  }
+
+  @Test
+  public void parallelCreationOnDemand() throws Exception {
+    try (Pool pool =
+        new Pool(
+            Configuration.parse(
+                server.getUrl(
+                    "maxPoolSize=10&minPoolSize=1&poolCreationThreads=4&registerJmxPool=false")),
+            0,
+            executor)) {
+      assertEquals(1, pool.getTotalConnections());
+      server.setLatency(100, TimeUnit.MILLISECONDS);
+
+      // ask for all connections: remaining ones are created in parallel, never more than max
+      List<MariaDbInnerPoolConnection> items = new ArrayList<>();
+      for (int i = 0; i < 10; i++) items.add(pool.getPoolConnection());
+      assertEquals(10, pool.getTotalConnections());
+      assertEquals(10, pool.getActiveConnections());
+
+      server.setLatency(0, TimeUnit.MILLISECONDS);
+      for (MariaDbInnerPoolConnection item : items) item.getConnection().close();
+      assertEquals(10, pool.getIdleConnections());
+      assertTrue(pool.getTotalConnections() <= 10);
+    }
+  }
+
+  @Test
+  public void heuristicValidation() throws Exception {
+    // without heuristic, each borrow after poolValidMinDelay is validated by a ping
+    try (Pool pool =
+        new Pool(
+            Configuration.parse(
+                server.getUrl("maxPoolSize=1&poolValidMinDelay=0&registerJmxPool=false")),
+            0,
+            executor)) {
+      long before = server.getCommandCount();
+      borrowAndRelease(pool, 10);
+      assertEquals(10, server.getCommandCount() - before);
+      assertEquals(0, pool.getValidationHits());
+      assertEquals(10, pool.getValidationMisses());
+    }
+
+    try (Pool pool =
+        new Pool(
+            Configuration.parse(
+                server.getUrl(
+                    "maxPoolSize=1&poolValidMinDelay=0&poolHeuristicValidation&registerJmxPool=false")),
+            0,
+            executor)) {
+      long before = server.getCommandCount();
+      borrowAndRelease(pool, 10);
+      assertEquals(0, server.getCommandCount() - before);
+      assertEquals(10, pool.getValidationHits());
+      assertEquals(0, pool.getValidationMisses());
+
+      // a locally closed connection is discarded without ping
+      MariaDbInnerPoolConnection item = pool.getPoolConnection();
+      item.getConnection().close();
+      item.getConnection().getClient().close();
+      Thread.sleep(2);
+
+      MariaDbInnerPoolConnection newItem = pool.getPoolConnection();
+      assertNotSame(item, newItem);
+      assertTrue(pool.getValidationHits() >= 11);
+      assertEquals(0, pool.getValidationMisses());
+      assertEquals(1, pool.getTotalConnections());
+      newItem.getConnection().close();
+    }
+
+    // a connection disconnected by server with an error packet is discarded without ping
+    try (FakeServer closingServer = new FakeServer();
+        Pool pool =
+            new Pool(
+                Configuration.parse(
+                    closingServer.getUrl(
+                        "maxPoolSize=1&poolValidMinDelay=0&poolHeuristicValidation&registerJmxPool=false")),
+                0,
+                executor)) {
+      MariaDbInnerPoolConnection item = pool.getPoolConnection();
+      item.getConnection().close();
+      assertTrue(item.getConnection().getClient().isSocketAlive());
+
+      closingServer.closeConnections(
+          4031, "HY000", "The client was disconnected by the server because of inactivity.");
+      Thread.sleep(20);
+      assertFalse(item.getConnection().getClient().isSocketAlive());
+
+      MariaDbInnerPoolConnection newItem = pool.getPoolConnection();
+      assertNotSame(item, newItem);
+      assertTrue(newItem.getConnection().getClient().isSocketAlive());
+      assertEquals(0, pool.getValidationMisses());
+      newItem.getConnection().close();
+    }
+  }
+
+  @Test
+  public void backgroundValidation() throws Exception {
+    try (FakeServer validationServer = new FakeServer();
+        Pool pool =
+            new Pool(
+                Configuration.parse(
+                    validationServer.getUrl(
+                        "maxPoolSize=2&poolBackgroundValidationInterval=50&poolValidMinDelay=60000&registerJmxPool=false")),
+                0,
+                executor)) {
+      assertEquals(2, pool.getTotalConnections());
+
+      // idle connections are pinged in background
+      long before = validationServer.getCommandCount();
+      Thread.sleep(300);
+      assertTrue(validationServer.getCommandCount() - before >= 4);
+      assertEquals(0, pool.getReplacedConnections());
+
+      // dead connections are replaced in background
+      validationServer.closeConnections();
+      long start = System.nanoTime();
+      while ((pool.getReplacedConnections() < 2 || pool.getIdleConnections() < 2)
+          && System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5)) {
+        Thread.sleep(10);
+      }
+      assertEquals(2, pool.getReplacedConnections());
+      assertEquals(2, pool.getTotalConnections());
+
+      // let background validation check replacing connections
+      Thread.sleep(200);
+
+      // borrowing does not need validation
+      MariaDbInnerPoolConnection item = pool.getPoolConnection();
+      assertTrue(item.getConnection().getClient().isSocketAlive());
+      assertEquals(0, pool.getValidationMisses());
+      item.getConnection().close();
+    }
+  }
+
+  @Test
+  public void metrics() throws Exception {
+    CountingListener.reset();
+    try (Pool pool =
+        new Pool(
+            Configuration.parse(
+                server.getUrl(
+                    "maxPoolSize=2&poolValidMinDelay=0&registerJmxPool=false&poolMetricsListener="
+                        + CountingListener.class.getName())),
+            0,
+            executor)) {
+      assertEquals(2, pool.getCreationTimeHistogram().getCount());
+      assertEquals(2, CountingListener.created.get());
+
+      server.setLatency(20, TimeUnit.MILLISECONDS);
+      Thread.sleep(2);
+      MariaDbInnerPoolConnection item = pool.getPoolConnection();
+      Thread.sleep(50);
+      item.getConnection().close();
+
+      assertEquals(1, pool.getWaitTimeHistogram().getCount());
+      assertEquals(1, pool.getValidationTimeHistogram().getCount());
+      assertEquals(1, pool.getUsageTimeHistogram().getCount());
+      // connection request had to wait for validation ping
+      assertTrue(pool.getConnectionWaitTimeMax() >= 20_000);
+      assertTrue(pool.getConnectionValidationTimeMean() >= 20_000);
+      assertTrue(pool.getConnectionUsageTimeP99() >= 50_000);
+      assertTrue(pool.getConnectionUsageTimeMean() >= 50_000);
+
+      assertEquals(1, CountingListener.acquired.get());
+      assertEquals(1, CountingListener.validated.get());
+      assertEquals(1, CountingListener.released.get());
+    }
+  }
+
+  @Test
+  public void failingMetricsListener() throws Exception {
+    try (Pool pool =
+        new Pool(
+            Configuration.parse(
+                server.getUrl(
+                    "maxPoolSize=1&poolValidMinDelay=0&registerJmxPool=false&poolMetricsListener="
+                        + FailingListener.class.getName())),
+            0,
+            executor)) {
+      assertEquals(1, pool.getTotalConnections());
+
+      // listener errors neither lose connections nor leave them reserved
+      borrowAndRelease(pool, 5);
+      assertEquals(1, pool.getTotalConnections());
+      assertEquals(1, pool.getIdleConnections());
+      assertEquals(0, pool.getActiveConnections());
+    }
+  }
+
+  /** metrics listener failing on each notification */
+  public static class FailingListener implements PoolMetricsListener {
+
+    @Override
+    public void connectionAcquired(String poolName, long waitNanos) {
+      throw new IllegalStateException("acquired");
+    }
+
+    @Override
+    public void connectionReleased(String poolName, long usageNanos) {
+      throw new IllegalStateException("released");
+    }
+
+    @Override
+    public void connectionCreated(String poolName, long creationNanos) {
+      throw new IllegalStateException("created");
+    }
+
+    @Override
+    public void connectionValidated(String poolName, long validationNanos, boolean valid) {
+      throw new IllegalStateException("validated");
+    }
+  }
+
+  /** metrics listener counting notifications */
+  public static class CountingListener implements PoolMetricsListener {
+    static final AtomicInteger acquired = new AtomicInteger();
+    static final AtomicInteger released = new AtomicInteger();
+    static final AtomicInteger created = new AtomicInteger();
+    static final AtomicInteger validated = new AtomicInteger();
+
+    static void reset() {
+      acquired.set(0);
+      released.set(0);
+      created.set(0);
+      validated.set(0);
+    }
+
+    @Override
+    public void connectionAcquired(String poolName, long waitNanos) {
+      acquired.incrementAndGet();
+    }
+
+    @Override
+    public void connectionReleased(String poolName, long usageNanos) {
+      released.incrementAndGet();
+    }
+
+    @Override
+    public void connectionCreated(String poolName, long creationNanos) {
+      created.incrementAndGet();
+    }
+
+    @Override
+    public void connectionValidated(String poolName, long validationNanos, boolean valid) {
+      if (valid) validated.incrementAndGet();
+    }
+  }
+
+  private void borrowAndRelease(Pool pool, int times) throws Exception {
+    for (int i = 0; i < times; i++) {
+      // ensure idle time exceeds poolValidMinDelay
+      Thread.sleep(2);
+      pool.getPoolConnection().getConnection().close();
+    }
+  }
+}
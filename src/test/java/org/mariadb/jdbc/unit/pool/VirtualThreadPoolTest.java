@@ -0,0 +1,122 @@
+// SPDX-License-Identifier: LGPL-2.1-or-later
+// Copyright (c) 2012-2014 Monty Program Ab
+// Copyright (c) 2015-2021 MariaDB Corporation Ab
+
+package org.mariadb.jdbc.unit.pool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import org.mariadb.jdbc.Configuration;
+import org.mariadb.jdbc.Connection;
+import org.mariadb.jdbc.integration.tools.FakeServer;
+import org.mariadb.jdbc.pool.MariaDbInnerPoolConnection;
+import org.mariadb.jdbc.pool.Pool;
+
+/**
+ * Run thousands of virtual threads against a pool, ensuring that no carrier thread is pinned, i.e.
+ * that no virtual thread blocks on socket while holding a monitor.
+ *
+ * <p>Pinning is detected with a flight recording of {@code jdk.VirtualThreadPinned} events.
+ *
+ * <p>Requires java 21 or later, test is skipped on previous versions.
+ */
+public class VirtualThreadPoolTest {
+
+  private static final int THREADS = 5000;
+
+  @Test
+  public void noPinnedThreads() throws Exception {
+    Method newVirtualThreadPerTaskExecutor;
+    try {
+      newVirtualThreadPerTaskExecutor =
+          Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+    } catch (NoSuchMethodException e) {
+      Assumptions.assumeTrue(false, "virtual threads require java 21");
+      return;
+    }
+
+    // event is emitted when a virtual thread parks while holding a monitor
+    List<RecordedEvent> pinned;
+    ScheduledThreadPoolExecutor poolExecutor = new ScheduledThreadPoolExecutor(1);
+    try (Recording recording = new Recording();
+        FakeServer server = new FakeServer();
+        Pool pool =
+            new Pool(
+                Configuration.parse(
+                    server.getUrl(
+                        "maxPoolSize=8&poolValidMinDelay=0&useServerPrepStmts&prepStmtCacheSize=2&registerJmxPool=false")),
+                0,
+                poolExecutor)) {
+      recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+      server.setLatency(100, TimeUnit.MICROSECONDS);
+      recording.start();
+      ExecutorService executor = (ExecutorService) newVirtualThreadPerTaskExecutor.invoke(null);
+      try {
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+          final int idx = i;
+          futures.add(
+              executor.submit(
+                  () -> {
+                    MariaDbInnerPoolConnection item = pool.getPoolConnection();
+                    Connection con = item.getConnection();
+                    try {
+                      con.createStatement().execute("DO 1");
+                      // distinct queries, evicting prepare cache entries
+                      try (PreparedStatement prep =
+                          con.prepareStatement("INSERT INTO t" + (idx % 5) + " VALUES (?)")) {
+                        prep.setInt(1, idx);
+                        return prep.executeUpdate();
+                      }
+                    } finally {
+                      con.close();
+                    }
+                  }));
+        }
+        for (Future<Integer> future : futures) future.get(60, TimeUnit.SECONDS);
+      } finally {
+        executor.shutdown();
+        recording.stop();
+      }
+      assertTrue(pool.getTotalConnections() <= 8);
+
+      Path file = Files.createTempFile("pinned", ".jfr");
+      try {
+        recording.dump(file);
+        pinned = RecordingFile.readAllEvents(file);
+      } finally {
+        Files.delete(file);
+      }
+    } finally {
+      poolExecutor.shutdown();
+    }
+    assertTrue(pinned.isEmpty(), () -> "pinned virtual thread:" + stackTrace(pinned.get(0)));
+  }
+
+  private static String stackTrace(RecordedEvent event) {
+    StringBuilder sb = new StringBuilder();
+    for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+      sb.append("\n\tat ")
+          .append(frame.getMethod().getType().getName())
+          .append('.')
+          .append(frame.getMethod().getName())
+          .append(':')
+          .append(frame.getLineNumber());
+    }
+    return sb.toString();
+  }
+}
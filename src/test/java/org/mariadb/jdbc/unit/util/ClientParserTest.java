@@ -9,6 +9,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import java.nio.charset.StandardCharsets;
 import org.junit.jupiter.api.Test;
 import org.mariadb.jdbc.util.ClientParser;
+import org.mariadb.jdbc.util.ClientParserCache;
 
 @SuppressWarnings("ConstantConditions")
 public class ClientParserTest {
@@ -20,7 +21,7 @@ public class ClientParserTest {
     int pos = 0;
     int paramPos = parser.getQuery().length;
     for (int i = 0; i < parser.getParamCount(); i++) {
-      paramPos = parser.getParamPositions().get(i);
+      paramPos = parser.getParamPositions()[i];
       assertEquals(expected[i], new String(parser.getQuery(), pos, paramPos - pos));
       pos = paramPos + 1;
     }
@@ -32,7 +33,7 @@ public class ClientParserTest {
     pos = 0;
     paramPos = parser.getQuery().length;
     for (int i = 0; i < parser.getParamCount(); i++) {
-      paramPos = parser.getParamPositions().get(i);
+      paramPos = parser.getParamPositions()[i];
       assertEquals(expectedNoBackSlash[i], new String(parser.getQuery(), pos, paramPos - pos));
       pos = paramPos + 1;
     }
@@ -48,7 +49,7 @@ public class ClientParserTest {
     int pos = 0;
     int paramPos = parser.getQuery().length;
     for (int i = 0; i < parser.getParamCount(); i++) {
-      paramPos = parser.getParamPositions().get(i);
+      paramPos = parser.getParamPositions()[i];
       sb.append(new String(parser.getQuery(), pos, paramPos - pos, StandardCharsets.UTF_8))
           .append("\n");
       pos = paramPos + 1;
@@ -73,4 +74,76 @@ public class ClientParserTest {
         new String[] {"DO '\\\"', \"\\'\""},
         new String[] {"DO '\\\"', \"\\'\""});
   }
+
+  @Test
+  public void cache() {
+    String sql = "SELECT ?, '\\', ? FROM cacheTest";
+    long hits = ClientParserCache.hitCount();
+    long misses = ClientParserCache.missCount();
+    ClientParser parser = ClientParserCache.parameterParts(sql, false);
+    assertArrayEquals(new int[] {7}, parser.getParamPositions());
+    assertSame(parser, ClientParserCache.parameterParts(new String(sql), false));
+
+    // escape mode is part of the key
+    ClientParser noBackslash = ClientParserCache.parameterParts(sql, true);
+    assertNotSame(parser, noBackslash);
+    assertArrayEquals(new int[] {7, 15}, noBackslash.getParamPositions());
+    assertSame(noBackslash, ClientParserCache.parameterParts(sql, true));
+    assertTrue(ClientParserCache.hitCount() - hits >= 2);
+    assertTrue(ClientParserCache.missCount() - misses >= 2);
+    assertTrue(ClientParserCache.hitRatio() > 0);
+
+    // huge queries are not cached
+    StringBuilder sb = new StringBuilder("SELECT ?");
+    while (sb.length() <= 8192) sb.append(", ?");
+    String huge = sb.toString();
+    assertNotSame(
+        ClientParserCache.parameterParts(huge, false),
+        ClientParserCache.parameterParts(huge, false));
+  }
+
+  private void rewritable(String sql, String values) {
+    ClientParser parser = ClientParser.parameterParts(sql, false);
+    if (values == null) {
+      assertFalse(parser.isInsertValuesRewritable(), sql);
+    } else {
+      assertTrue(parser.isInsertValuesRewritable(), sql);
+      int start = parser.getValuesBracketStart();
+      assertEquals(
+          values,
+          new String(
+              parser.getQuery(),
+              start,
+              parser.getValuesBracketEnd() + 1 - start,
+              StandardCharsets.UTF_8));
+    }
+  }
+
+  @Test
+  public void insertValuesRewritable() {
+    rewritable("INSERT INTO t(a, b) VALUES (?, ?)", "(?, ?)");
+    rewritable("insert into t value(?, now(), '(?)')", "(?, now(), '(?)')");
+    rewritable(" REPLACE t VALUES (?) ", "(?)");
+    rewritable("INSERT INTO t VALUES (?) ON DUPLICATE KEY UPDATE b = VALUES(b)", "(?)");
+    rewritable("INSERT INTO `values` (`values`) VALUES /* (?) */ (?)", "(?)");
+    rewritable("INSERT INTO values_t(a) VALUES (?)", "(?)");
+    rewritable("INSERT INTO t VALUES (?) ON DUPLICATE KEY UPDATE b = ?", null);
+    rewritable("INSERT INTO t VALUES (?), (?)", null);
+    rewritable("INSERT INTO t VALUES (?); DELETE FROM t", null);
+    rewritable("INSERT INTO t SELECT * FROM t2 WHERE a = ?", null);
+    rewritable("INSERT INTO t SET a = ?", null);
+    rewritable("INSERT INTO t VALUES (?) RETURNING id", null);
+    rewritable("UPDATE t SET a = ? WHERE b IN (SELECT b FROM t2 VALUES (1))", null);
+    rewritable("INSERTED INTO t VALUES (?)", null);
+
+    assertFalse(
+        ClientParser.parameterParts(" REPLACE t VALUES (?) ", false).isInsertDuplicateKeyUpdate());
+    assertTrue(
+        ClientParser.parameterParts("INSERT INTO t VALUES (?) ON DUPLICATE KEY UPDATE b=b", false)
+            .isInsertDuplicateKeyUpdate());
+    assertFalse(
+        ClientParser.parameterParts(
+                "INSERT INTO t VALUES (?), (?) ON DUPLICATE KEY UPDATE b=b", false)
+            .isInsertDuplicateKeyUpdate());
+  }
 }